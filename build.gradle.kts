@@ -12,11 +12,12 @@ plugins {
     checkstyle
     jacoco
     id("com.github.spotbugs") version "6.4.6"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "io.datareplication"
 
-val baseVersion = "1.0.2"
+val baseVersion = "1.1.0"
 version = "${baseVersion}${versionSuffix ?: ""}"
 // match semver `x.y.z-something`
 val isPrereleasePattern = """\d+\.\d+\.\d+-.+"""
@@ -155,6 +156,13 @@ tasks.check {
     dependsOn(tasks.jacocoTestCoverageVerification)
 }
 
+jmh {
+    jmhVersion = "1.37"
+    // report allocation rate and normalized allocation (bytes/op) alongside throughput
+    profilers = listOf("gc")
+    includeTests = false
+}
+
 pmd {
     isConsoleOutput = true
     ruleSetFiles = files("config/pmd/ruleset.xml")
@@ -0,0 +1,42 @@
+package io.datareplication.internal.multipart;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link TokenSink} that feeds everything into a {@link Blackhole} so the parser's work isn't optimized away.
+ */
+public final class BlackholeSink implements TokenSink {
+    private final Blackhole blackhole;
+
+    public BlackholeSink(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void onPartBegin() {
+        blackhole.consume(1);
+    }
+
+    @Override
+    public void onHeader(String name, String value) {
+        blackhole.consume(name);
+        blackhole.consume(value);
+    }
+
+    @Override
+    public void onDataBegin() {
+        blackhole.consume(2);
+    }
+
+    @Override
+    public void onData(ByteBuffer data) {
+        blackhole.consume(data);
+    }
+
+    @Override
+    public void onPartEnd() {
+        blackhole.consume(3);
+    }
+}
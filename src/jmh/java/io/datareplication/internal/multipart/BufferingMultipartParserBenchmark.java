@@ -0,0 +1,77 @@
+package io.datareplication.internal.multipart;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse a page that arrives in network-sized buffers with {@link BufferingMultipartParser}, both in push mode and in
+ * the token-returning pull mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BufferingMultipartParserBenchmark {
+    @Param({"100", "10000", "1000000", "10000000"})
+    private int entitySize;
+
+    @Param({"10", "1000"})
+    private int entityCount;
+
+    /**
+     * Body bytes between CRLFs; 0 means no line endings in bodies.
+     */
+    @Param({"0", "80"})
+    private int lineLength;
+
+    @Param({"1024", "16384", "65536"})
+    private int bufferSize;
+
+    private SyntheticPage page;
+    private List<ByteBuffer> buffers;
+
+    @Setup
+    public void setUp() {
+        page = SyntheticPage.generate(entitySize, entityCount, lineLength);
+        buffers = page.buffers(bufferSize);
+    }
+
+    @Benchmark
+    public void push(Blackhole blackhole, BytesProcessed bytesProcessed) {
+        final BufferingMultipartParser parser = new BufferingMultipartParser(
+            new MultipartParser(SyntheticPage.boundary()));
+        final TokenSink sink = new BlackholeSink(blackhole);
+        for (ByteBuffer buffer : buffers) {
+            parser.parse(buffer, sink);
+        }
+        parser.finish();
+        bytesProcessed.add(page.size());
+    }
+
+    @Benchmark
+    public void pull(Blackhole blackhole, BytesProcessed bytesProcessed) {
+        final BufferingMultipartParser parser = new BufferingMultipartParser(
+            new MultipartParser(SyntheticPage.boundary()));
+        for (ByteBuffer buffer : buffers) {
+            blackhole.consume(parser.parse(buffer));
+        }
+        parser.finish();
+        bytesProcessed.add(page.size());
+    }
+}
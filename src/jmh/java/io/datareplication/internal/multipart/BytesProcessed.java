@@ -0,0 +1,40 @@
+package io.datareplication.internal.multipart;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary benchmark result that counts parsed bytes, so that throughput is reported in MB/s next to ops/s (which
+ * isn't comparable across page sizes).
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class BytesProcessed {
+    private static final double BYTES_PER_MEGABYTE = 1_000_000.0;
+
+    private long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        bytes = 0;
+    }
+
+    /**
+     * Record that a benchmark invocation processed the given number of bytes.
+     *
+     * @param count the number of bytes
+     */
+    public void add(long count) {
+        bytes += count;
+    }
+
+    /**
+     * @return the number of megabytes processed; JMH turns this into MB/s
+     */
+    public double megabytes() {
+        return bytes / BYTES_PER_MEGABYTE;
+    }
+}
@@ -0,0 +1,116 @@
+package io.datareplication.internal.multipart;
+
+import io.datareplication.model.HttpHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse a complete page held in a single buffer with {@link MultipartParser}, i.e. without any buffering overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultipartParserBenchmark {
+    @Param({"100", "10000", "1000000", "10000000"})
+    private int entitySize;
+
+    @Param({"10", "1000"})
+    private int entityCount;
+
+    /**
+     * Body bytes between CRLFs; 0 means no line endings in bodies.
+     */
+    @Param({"0", "80"})
+    private int lineLength;
+
+    @Param({"SCAN", "SWAR"})
+    private DelimiterSearch delimiterSearch;
+
+    @Param({"false", "true"})
+    private boolean lengthDirected;
+
+    private SyntheticPage page;
+
+    @Setup
+    public void setUp() {
+        page = SyntheticPage.generate(entitySize, entityCount, lineLength);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole, BytesProcessed bytesProcessed) {
+        final MultipartParser parser = new MultipartParser(SyntheticPage.boundary(),
+                                                           StandardCharsets.UTF_8,
+                                                           delimiterSearch,
+                                                           lengthDirected);
+        final TokenSink sink = new ContentLengthSink(blackhole);
+        final ByteBuffer input = page.buffer();
+        while (input.hasRemaining()) {
+            input.position(input.position() + parser.parse(input, sink));
+        }
+        blackhole.consume(parser.isFinished());
+        bytesProcessed.add(page.size());
+    }
+
+    /**
+     * Supplies the <code>Content-Length</code> header to length-directed parsers, like the page transformer does.
+     */
+    private static final class ContentLengthSink implements TokenSink {
+        private final BlackholeSink delegate;
+        private long contentLength = UNKNOWN_LENGTH;
+
+        private ContentLengthSink(Blackhole blackhole) {
+            delegate = new BlackholeSink(blackhole);
+        }
+
+        @Override
+        public void onPartBegin() {
+            contentLength = UNKNOWN_LENGTH;
+            delegate.onPartBegin();
+        }
+
+        @Override
+        public void onHeader(String name, String value) {
+            if (HttpHeader.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                contentLength = Long.parseLong(value);
+            }
+            delegate.onHeader(name, value);
+        }
+
+        @Override
+        public void onDataBegin() {
+            delegate.onDataBegin();
+        }
+
+        @Override
+        public long expectedBodyLength() {
+            return contentLength;
+        }
+
+        @Override
+        public void onData(ByteBuffer data) {
+            delegate.onData(data);
+        }
+
+        @Override
+        public void onPartEnd() {
+            delegate.onPartEnd();
+        }
+    }
+}
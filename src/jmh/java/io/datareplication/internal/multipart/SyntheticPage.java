@@ -0,0 +1,124 @@
+package io.datareplication.internal.multipart;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generate synthetic multipart pages for benchmarks: a number of entities with a fixed body size, optionally with line
+ * endings sprinkled throughout the bodies since those are the delimiter candidates the parser has to look at.
+ */
+public final class SyntheticPage {
+    /**
+     * The boundary used for all synthetic pages.
+     */
+    public static final String BOUNDARY = "_---_benchmark-boundary-f1bb8c2e";
+
+    /**
+     * Pages are capped at roughly this size by reducing the number of entities, so that the largest entity sizes don't
+     * blow up the heap.
+     */
+    private static final long MAX_PAGE_BYTES = 64L * 1024 * 1024;
+
+    private static final byte[] BODY_ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789{}\":,"
+        .getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] bytes;
+    private final int entityCount;
+
+    private SyntheticPage(byte[] bytes, int entityCount) {
+        this.bytes = bytes;
+        this.entityCount = entityCount;
+    }
+
+    /**
+     * Generate a page.
+     *
+     * @param entitySize  the body size of each entity in bytes
+     * @param entityCount the number of entities; reduced if the page would get too large
+     * @param lineLength  insert a CRLF after every <code>lineLength</code> body bytes; 0 for no line endings at all
+     * @return the generated page
+     */
+    public static SyntheticPage generate(int entitySize, int entityCount, int lineLength) {
+        final int count = (int) Math.max(1, Math.min(entityCount, MAX_PAGE_BYTES / entitySize));
+        final byte[] body = body(entitySize, lineLength);
+        final byte[] delimiter = ("\r\n--" + BOUNDARY + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        final ByteBuffer page = ByteBuffer.allocate(count * (body.length + delimiter.length + 256) + 64);
+        page.put(("--" + BOUNDARY + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                page.put(delimiter);
+            }
+            final String headers = "Content-Type: application/x-ndjson\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Last-Modified: Thu, 05 Oct 2023 03:00:11 GMT\r\n"
+                + "Content-ID: <" + i + "@benchmark.datareplication.io>\r\n"
+                + "Operation-Type: http://datareplication.io/operation-types#put\r\n"
+                + "\r\n";
+            page.put(headers.getBytes(StandardCharsets.US_ASCII));
+            page.put(body);
+        }
+        page.put(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        page.flip();
+        final byte[] bytes = new byte[page.remaining()];
+        page.get(bytes);
+        return new SyntheticPage(bytes, count);
+    }
+
+    private static byte[] body(int size, int lineLength) {
+        final byte[] body = new byte[size];
+        for (int i = 0; i < size; i += BODY_ALPHABET.length) {
+            System.arraycopy(BODY_ALPHABET, 0, body, i, Math.min(BODY_ALPHABET.length, size - i));
+        }
+        if (lineLength > 0) {
+            for (int i = lineLength; i + 1 < size; i += lineLength + 2) {
+                body[i] = '\r';
+                body[i + 1] = '\n';
+            }
+        }
+        return body;
+    }
+
+    /**
+     * @return the page as a single buffer
+     */
+    public ByteBuffer buffer() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Split the page into buffers of the given size, like they would come in from the network.
+     *
+     * @param bufferSize the size of each buffer; the last one may be shorter
+     * @return the buffers
+     */
+    public List<ByteBuffer> buffers(int bufferSize) {
+        final List<ByteBuffer> buffers = new ArrayList<>(bytes.length / bufferSize + 1);
+        for (int offset = 0; offset < bytes.length; offset += bufferSize) {
+            buffers.add(ByteBuffer.wrap(bytes, offset, Math.min(bufferSize, bytes.length - offset)).slice());
+        }
+        return buffers;
+    }
+
+    /**
+     * @return the total size of the page in bytes
+     */
+    public int size() {
+        return bytes.length;
+    }
+
+    /**
+     * @return the actual number of entities in the page
+     */
+    public int entityCount() {
+        return entityCount;
+    }
+
+    /**
+     * @return the boundary as a buffer, for constructing a parser
+     */
+    public static ByteBuffer boundary() {
+        return ByteBuffer.wrap(BOUNDARY.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,104 @@
+package io.datareplication.internal.page;
+
+import io.datareplication.consumer.StreamingPage;
+import io.datareplication.internal.multipart.BufferingMultipartParser;
+import io.datareplication.internal.multipart.BytesProcessed;
+import io.datareplication.internal.multipart.MultipartParser;
+import io.datareplication.internal.multipart.SyntheticPage;
+import io.datareplication.model.HttpHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the two steps after parsing: turning tokens into {@link StreamingPage.Chunk chunks} (including the
+ * parsing itself, since the transformer is driven by the parser) and collecting chunks into complete entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkTransformerBenchmark {
+    @Param({"100", "10000", "1000000", "10000000"})
+    private int entitySize;
+
+    @Param({"10", "1000"})
+    private int entityCount;
+
+    /**
+     * Body bytes between CRLFs; 0 means no line endings in bodies.
+     */
+    @Param({"0", "80"})
+    private int lineLength;
+
+    @Param({"16384"})
+    private int bufferSize;
+
+    private SyntheticPage page;
+    private List<ByteBuffer> buffers;
+    private List<StreamingPage.Chunk<HttpHeaders>> chunks;
+
+    @Setup
+    public void setUp() {
+        page = SyntheticPage.generate(entitySize, entityCount, lineLength);
+        buffers = page.buffers(bufferSize);
+        chunks = new ArrayList<>();
+        final BufferingMultipartParser parser = newParser();
+        final ToStreamingPageChunkTransformer transformer = new ToStreamingPageChunkTransformer();
+        for (ByteBuffer buffer : buffers) {
+            chunks.addAll(transformer.transform(parser, buffer));
+        }
+        parser.finish();
+    }
+
+    @Benchmark
+    public void streamingPageChunks(Blackhole blackhole, BytesProcessed bytesProcessed) {
+        final BufferingMultipartParser parser = newParser();
+        final ToStreamingPageChunkTransformer transformer = new ToStreamingPageChunkTransformer();
+        for (ByteBuffer buffer : buffers) {
+            for (StreamingPage.Chunk<HttpHeaders> chunk : transformer.transform(parser, buffer)) {
+                blackhole.consume(chunk);
+            }
+        }
+        parser.finish();
+        bytesProcessed.add(page.size());
+    }
+
+    @Benchmark
+    public void completeEntities(Blackhole blackhole, BytesProcessed bytesProcessed) {
+        final ToCompleteEntitiesTransformer<HttpHeaders> transformer = new ToCompleteEntitiesTransformer<>();
+        for (StreamingPage.Chunk<HttpHeaders> chunk : chunks) {
+            // duplicate the chunk buffers since the transformer consumes them
+            blackhole.consume(transformer.transform(duplicate(chunk)));
+        }
+        bytesProcessed.add(page.size());
+    }
+
+    private static BufferingMultipartParser newParser() {
+        return new BufferingMultipartParser(new MultipartParser(SyntheticPage.boundary()));
+    }
+
+    private static StreamingPage.Chunk<HttpHeaders> duplicate(StreamingPage.Chunk<HttpHeaders> chunk) {
+        if (chunk instanceof StreamingPage.Chunk.BodyChunk) {
+            final ByteBuffer data = ((StreamingPage.Chunk.BodyChunk<HttpHeaders>) chunk).data();
+            return StreamingPage.Chunk.bodyChunk(data.duplicate());
+        }
+        return chunk;
+    }
+}
@@ -185,4 +185,24 @@ public abstract class PageFormatException extends ConsumerException {
             this.index = index;
         }
     }
+
+    @EqualsAndHashCode(callSuper = false)
+    public static final class EntityTooLarge extends PageFormatException {
+        private final int index;
+        private final long size;
+        private final long maxEntitySize;
+
+        public EntityTooLarge(final int index, final long size, final long maxEntitySize) {
+            super(
+                String.format(
+                    "entity at index %s has a body of at least %s bytes, exceeding the maximum entity size of %s bytes",
+                    index,
+                    size,
+                    maxEntitySize
+                ));
+            this.index = index;
+            this.size = size;
+            this.maxEntitySize = maxEntitySize;
+        }
+    }
 }
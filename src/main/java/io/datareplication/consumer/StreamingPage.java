@@ -1,5 +1,6 @@
 package io.datareplication.consumer;
 
+import io.datareplication.internal.page.EntityBufferingOptions;
 import io.datareplication.internal.page.ToCompleteEntitiesTransformer;
 import io.datareplication.model.ContentType;
 import io.datareplication.model.Entity;
@@ -10,9 +11,7 @@ import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.Value;
-import org.reactivestreams.FlowAdapters;
 import reactor.adapter.JdkFlowAdapter;
-import reactor.core.publisher.Mono;
 
 import java.nio.ByteBuffer;
 import java.util.concurrent.CompletionStage;
@@ -198,12 +197,7 @@ public interface StreamingPage<
      * @return a {@link Flow.Publisher} providing a stream of complete {@link Entity} objects
      */
     default @NonNull Flow.Publisher<@NonNull Entity<EntityHeader>> toCompleteEntities() {
-        final var transformer = new ToCompleteEntitiesTransformer<EntityHeader>();
-        final var flux = JdkFlowAdapter
-            .flowPublisherToFlux(this)
-            .map(transformer::transform)
-            .flatMap(Mono::justOrEmpty);
-        return FlowAdapters.toFlowPublisher(flux);
+        return ToCompleteEntitiesTransformer.toCompleteEntities(this, EntityBufferingOptions.DEFAULT);
     }
 
     /**
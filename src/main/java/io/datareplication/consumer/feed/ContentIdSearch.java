@@ -0,0 +1,79 @@
+package io.datareplication.consumer.feed;
+
+import io.datareplication.model.Entity;
+import io.datareplication.model.Url;
+import io.datareplication.model.feed.FeedEntityHeader;
+import lombok.NonNull;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The search for the entity to start after when streaming from a {@link StartFrom.ContentId} or a
+ * {@link StartFrom.Checkpoint}. An entity newer than the start timestamp that comes before the start entity means
+ * that the content ID isn't in the feed. Such entities may already be dropped by the entity filter before the
+ * search sees them, so the filter reports them with {@link #rejected(FeedEntityHeader)}.
+ * <p>
+ * A new instance is needed for every subscription.
+ * </p>
+ */
+class ContentIdSearch {
+    private final StartFrom.ContentId startFrom;
+    private final Url url;
+    // written by the filter, which may run for several pages at the same time
+    private final AtomicReference<Instant> oldestRejectedAfterStart = new AtomicReference<>();
+    // only accessed by the operators of the entity stream, which are called serially
+    private boolean found;
+
+    ContentIdSearch(@NonNull final StartFrom.ContentId startFrom, @NonNull final Url url) {
+        this.startFrom = startFrom;
+        this.url = url;
+    }
+
+    /**
+     * Called by the entity filter for the entities that it rejects.
+     *
+     * @param header the header of the rejected entity
+     * @return whether the entity has to be kept anyway because it is the start entity
+     */
+    boolean rejected(@NonNull final FeedEntityHeader header) {
+        if (startFrom.contentId().equals(header.contentId())) {
+            return true;
+        }
+        final Instant lastModified = header.lastModified();
+        if (lastModified.isAfter(startFrom.timestamp())) {
+            oldestRejectedAfterStart.accumulateAndGet(
+                lastModified,
+                (oldest, current) -> oldest == null || current.isBefore(oldest) ? current : oldest);
+        }
+        return false;
+    }
+
+    /**
+     * @param header the header of the next entity of the stream
+     * @return whether this is the start entity
+     * @throws FeedException.ContentIdNotFound if the entity is newer than the start timestamp
+     */
+    boolean isStart(@NonNull final FeedEntityHeader header) {
+        if (header.lastModified().isAfter(startFrom.timestamp())) {
+            throw new FeedException.ContentIdNotFound(startFrom, url, header.lastModified());
+        }
+        found = startFrom.contentId().equals(header.contentId());
+        return found;
+    }
+
+    /**
+     * To be subscribed once the entity stream is complete.
+     *
+     * @return an error if the start entity wasn't found but the filter rejected an entity newer than the start
+     *     timestamp, otherwise empty
+     */
+    @NonNull Flux<@NonNull Entity<@NonNull FeedEntityHeader>> notFound() {
+        final Instant oldest = oldestRejectedAfterStart.get();
+        if (found || oldest == null) {
+            return Flux.empty();
+        }
+        return Flux.error(new FeedException.ContentIdNotFound(startFrom, url, oldest));
+    }
+}
@@ -0,0 +1,24 @@
+package io.datareplication.consumer.feed;
+
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Progress of the crawl that searches for the page to start streaming a feed from. Reported after every page visited
+ * while crawling backwards through the feed.
+ *
+ * @see FeedConsumer.Builder#crawlProgress(java.util.function.Consumer)
+ */
+@Value
+public class CrawlProgress {
+    /**
+     * The number of pages visited so far.
+     */
+    int pagesVisited;
+    /**
+     * The oldest <code>Last-Modified</code> timestamp of all pages visited so far.
+     */
+    @NonNull Instant oldestLastModified;
+}
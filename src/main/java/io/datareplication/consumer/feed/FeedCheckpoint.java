@@ -0,0 +1,44 @@
+package io.datareplication.consumer.feed;
+
+import io.datareplication.model.Url;
+import io.datareplication.model.feed.ContentId;
+import io.datareplication.model.feed.FeedEntityHeader;
+import io.datareplication.model.feed.FeedPageHeader;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * The position of a feed consumer in a feed: the page that is being processed and the last entity on that page that
+ * was processed. Resuming from a checkpoint with {@link StartFrom#checkpoint(FeedCheckpoint)} requests the page
+ * directly instead of crawling the feed from its head again.
+ *
+ * @see FeedCheckpointStore
+ */
+@Value
+public class FeedCheckpoint {
+    /**
+     * The URL of the page that contains the last processed entity.
+     */
+    @NonNull Url pageUrl;
+    /**
+     * The content ID of the last processed entity.
+     */
+    @NonNull ContentId contentId;
+    /**
+     * The last modified timestamp of the last processed entity.
+     */
+    @NonNull Instant timestamp;
+
+    /**
+     * Create a checkpoint after processing the given entity.
+     *
+     * @param page   the header of the page containing the entity
+     * @param entity the header of the entity that was processed
+     * @return a checkpoint for resuming after the given entity
+     */
+    public static @NonNull FeedCheckpoint of(@NonNull FeedPageHeader page, @NonNull FeedEntityHeader entity) {
+        return new FeedCheckpoint(page.self().value(), entity.contentId(), entity.lastModified());
+    }
+}
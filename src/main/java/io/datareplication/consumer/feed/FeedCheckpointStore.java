@@ -0,0 +1,66 @@
+package io.datareplication.consumer.feed;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * <p>Persists the {@link FeedCheckpoint} of a feed consumer so that it can resume with
+ * {@link StartFrom#checkpoint(FeedCheckpoint)} after a restart instead of crawling the feed from its head again.</p>
+ *
+ * <p>Checkpoints are saved by the application, not the consumer, since only the application knows when an entity has
+ * been processed. Use {@link FeedConsumer#streamPages(io.datareplication.model.Url, StartFrom)} and save
+ * {@link FeedCheckpoint#of(io.datareplication.model.feed.FeedPageHeader,
+ * io.datareplication.model.feed.FeedEntityHeader)} after processing an entity (or a batch of entities):</p>
+ * <pre>{@code
+ * var startFrom = store.load().<StartFrom>map(StartFrom::checkpoint).orElse(StartFrom.beginning());
+ * JdkFlowAdapter.flowPublisherToFlux(consumer.streamPages(url, startFrom))
+ *     .concatMap(page -> JdkFlowAdapter.flowPublisherToFlux(page.toCompleteEntities())
+ *         .concatMap(entity -> Mono.fromCallable(() -> {
+ *             process(entity);
+ *             store.save(FeedCheckpoint.of(page.header(), entity.header()));
+ *             return entity;
+ *         })))
+ *     ...
+ * }</pre>
+ *
+ * <p>Delivery is at-least-once: <code>streamPages</code> resumes at the start of the checkpoint's page and doesn't skip
+ * the entities on it that were already processed, and an entity that was processed right before a crash may not have
+ * been saved yet. Processing must therefore tolerate seeing an entity again, e.g. by being idempotent or by skipping
+ * the entities up to the checkpoint's content ID itself.
+ * {@link FeedConsumer#streamEntities(io.datareplication.model.Url, StartFrom)} does skip them, but doesn't give access
+ * to the page headers needed for new checkpoints.</p>
+ *
+ * <p>Implement this interface to keep checkpoints in a database or other shared storage; {@link #ofFile(Path)} returns
+ * an implementation that keeps the checkpoint in a local file.</p>
+ */
+public interface FeedCheckpointStore {
+    /**
+     * Load the last saved checkpoint.
+     *
+     * @return the last saved checkpoint, or empty if no checkpoint was saved yet
+     * @throws IOException if the checkpoint can't be read
+     */
+    @NonNull Optional<@NonNull FeedCheckpoint> load() throws IOException;
+
+    /**
+     * Save the given checkpoint, replacing the previous one.
+     *
+     * @param checkpoint the checkpoint to save
+     * @throws IOException if the checkpoint can't be written
+     */
+    void save(@NonNull FeedCheckpoint checkpoint) throws IOException;
+
+    /**
+     * Create a store that keeps the checkpoint in the given file. The file is replaced atomically on every save (if
+     * the file system supports it), so a crash while saving leaves the previous checkpoint intact.
+     *
+     * @param path the file to keep the checkpoint in; it doesn't need to exist yet, but its directory does
+     * @return a file-based checkpoint store
+     */
+    static @NonNull FeedCheckpointStore ofFile(@NonNull Path path) {
+        return new FileFeedCheckpointStore(path);
+    }
+}
@@ -6,10 +6,15 @@ import io.datareplication.consumer.PageFormatException;
 import io.datareplication.consumer.StreamingPage;
 import io.datareplication.internal.http.AuthSupplier;
 import io.datareplication.internal.http.HttpClient;
+import io.datareplication.internal.page.EntityBufferingOptions;
 import io.datareplication.internal.page.PageLoader;
+import io.datareplication.internal.page.ToCompleteEntitiesTransformer;
+import io.datareplication.internal.pool.BufferPool;
+import io.datareplication.model.CloseableBody;
 import io.datareplication.model.Entity;
 import io.datareplication.model.HttpHeader;
 import io.datareplication.model.HttpHeaders;
+import io.datareplication.model.ReferenceCountedBody;
 import io.datareplication.model.Url;
 import io.datareplication.model.feed.FeedEntityHeader;
 import io.datareplication.model.feed.FeedPageHeader;
@@ -17,11 +22,14 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
@@ -31,7 +39,8 @@ import java.util.function.Supplier;
  * link to the next page. Feed pages are consumed by starting from the provided feed URL (which will generally point to
  * the newest page in the feed) and walking backwards until the desired starting point determined by the
  * {@link StartFrom} parameters is reached. Then the feed pages are streamed from oldest to newest until
- * the head of the feed is reached.
+ * the head of the feed is reached. A consumer that saves {@link FeedCheckpoint checkpoints} can skip the crawl and
+ * resume directly from the last processed page with {@link StartFrom.Checkpoint}, see {@link FeedCheckpointStore}.
  * <p>
  * This interface exposes two different ways to consume feed data:
  * <ul>
@@ -88,7 +97,7 @@ public interface FeedConsumer {
      * Streaming entities will result into skipping already consumed entities
      * with an older last modified date of the current FeedPage.
      * Streaming entities will respect the {@link io.datareplication.model.feed.ContentId}
-     * from {@link StartFrom.ContentId}.
+     * from {@link StartFrom.ContentId} and {@link StartFrom.Checkpoint}.
      *
      * @param url       the {@link Url} to start streaming from
      * @param startFrom the {@link StartFrom} parameter
@@ -109,6 +118,35 @@ public interface FeedConsumer {
         @NonNull Url url,
         @NonNull StartFrom startFrom);
 
+    /**
+     * <p>Stream the entities of the feed starting from the given {@link Url} like
+     * {@link #streamEntities(Url, StartFrom)}, but don't complete when the newest page of the feed is reached.
+     * Instead, keep polling the newest page and emit new entities as they are added to the feed, following the page's
+     * next link once it gets one. The stream only ends when it's cancelled or an error occurs.</p>
+     *
+     * <p>If the server provides an <code>ETag</code> header for the newest page, the page is polled with conditional
+     * requests (<code>If-None-Match</code>), so polls that don't find anything new are cheap. Otherwise it's polled
+     * unconditionally. The poll interval backs off while there are no new entities, see {@link FollowOptions}.</p>
+     *
+     * @param url       the {@link Url} to start streaming from
+     * @param startFrom the {@link StartFrom} parameter
+     * @param options   how to poll the newest page
+     * @return a {@link Flow.Publisher} of {@link Entity} of {@link FeedEntityHeader} that never completes
+     * @throws FeedException.FeedNotOldEnough  if the last modified date of the last page is not older
+     *                                         and {@link StartFrom} is not {@link StartFrom.Beginning}
+     * @throws FeedException.ContentIdNotFound when using {@link StartFrom.ContentId} and the specified content ID
+     *                                         was not found with the specified timestamp
+     * @throws HttpException                   in case of HTTP errors (invalid URL, HTTP error status codes,
+     *                                         network errors/timeouts, ...)
+     * @throws PageFormatException             if the HTTP response is ok, but the page response is malformed in
+     *                                         some way
+     */
+    @NonNull
+    Flow.Publisher<@NonNull Entity<@NonNull FeedEntityHeader>> follow(
+        @NonNull Url url,
+        @NonNull StartFrom startFrom,
+        @NonNull FollowOptions options);
+
     /**
      * A builder for {@link FeedConsumer}.
      *
@@ -121,6 +159,18 @@ public interface FeedConsumer {
     class Builder {
         private final List<HttpHeader> additionalHeaders;
         private AuthSupplier authSupplier;
+        private boolean useEntityContentLength;
+        private long maxEntitySize;
+        private long spillThreshold;
+        private Optional<Path> spillDirectory;
+        private Optional<Long> bodyPoolCapacity;
+        private boolean detectBodyLeaks;
+        private int prefetchPages;
+        private int networkConcurrency;
+        private Consumer<@NonNull CrawlProgress> crawlProgress;
+        private Optional<Integer> pageHeaderCacheSize;
+        private Optional<Path> pageHeaderCacheDirectory;
+        private Predicate<? super FeedEntityHeader> entityFilter;
 
         /**
          * Add the given headers to every HTTP request made by this consumer. Calling this method multiple times will
@@ -164,6 +214,251 @@ public interface FeedConsumer {
             return this;
         }
 
+        /**
+         * <p>When enabled, use the <code>Content-Length</code> header of each entity in a page to read exactly that
+         * many body bytes. Defaults to false.</p>
+         *
+         * <p>The body is still checked for the multipart delimiter, so the declared lengths aren't trusted blindly:
+         * entities without a valid <code>Content-Length</code> header, or whose body isn't followed by a delimiter,
+         * are scanned as usual, and a <code>Content-Length</code> that is too large fails the page with a
+         * {@link io.datareplication.consumer.PageFormatException} rather than merging entities. Pages produced by
+         * this library always have correct lengths.</p>
+         *
+         * @param useEntityContentLength when true, slice entity bodies using their <code>Content-Length</code> header
+         * @return this builder
+         */
+        public @NonNull FeedConsumer.Builder useEntityContentLength(boolean useEntityContentLength) {
+            this.useEntityContentLength = useEntityContentLength;
+            return this;
+        }
+
+        /**
+         * <p>Set the maximum size in bytes of an entity body that is downloaded completely, i.e. by
+         * {@link StreamingPage#toCompleteEntities()}, {@link StreamingPage#toCompletePage()} and
+         * {@link FeedConsumer#streamEntities(Url, StartFrom)}. Defaults to no limit.</p>
+         *
+         * <p>Since complete entities are kept in memory, this protects against pages with huge (or hostile) entities
+         * exhausting the heap. An entity whose <code>Content-Length</code> header exceeds the limit fails as soon as
+         * its headers are parsed; entities without a <code>Content-Length</code> fail as soon as their body exceeds
+         * the limit. In both cases, a {@link PageFormatException.EntityTooLarge} error is raised. Streaming entity
+         * bodies chunk by chunk is not affected by this limit.</p>
+         *
+         * @param maxEntitySize the maximum size of an entity body in bytes
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is &lt;= 0
+         */
+        public @NonNull FeedConsumer.Builder maxEntitySize(long maxEntitySize) {
+            if (maxEntitySize <= 0) {
+                throw new IllegalArgumentException("maxEntitySize must be >= 1");
+            }
+            this.maxEntitySize = maxEntitySize;
+            return this;
+        }
+
+        /**
+         * <p>Write entity bodies larger than the given threshold to temporary files instead of keeping them in memory.
+         * This applies to entities that are downloaded completely, i.e. by
+         * {@link StreamingPage#toCompleteEntities()}, {@link StreamingPage#toCompletePage()} and
+         * {@link FeedConsumer#streamEntities(Url, StartFrom)}. Defaults to keeping all entities in memory.</p>
+         *
+         * <p>Entities whose <code>Content-Length</code> header is above the threshold are written to disk right away;
+         * others are buffered in memory until they grow past the threshold. Either way, at most
+         * <code>threshold</code> bytes of an entity body are held in memory at once. Spilled entities have a
+         * {@link CloseableBody} which deletes its file when closed, so close the bodies of entities you're done with
+         * (files of unclosed bodies are only deleted once the body is garbage collected). Entities below the threshold
+         * are kept in memory as usual.</p>
+         *
+         * @param threshold the size in bytes above which entity bodies are written to disk
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is &lt; 0
+         */
+        public @NonNull FeedConsumer.Builder spillToDisk(long threshold) {
+            if (threshold < 0) {
+                throw new IllegalArgumentException("spill threshold must be >= 0");
+            }
+            this.spillThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Like {@link #spillToDisk(long)}, but create the temporary files in the given directory instead of the
+         * default temporary-file directory.
+         *
+         * @param threshold the size in bytes above which entity bodies are written to disk
+         * @param directory the directory for temporary files
+         * @return this builder
+         * @throws IllegalArgumentException if the threshold is &lt; 0
+         */
+        public @NonNull FeedConsumer.Builder spillToDisk(long threshold, @NonNull Path directory) {
+            spillToDisk(threshold);
+            this.spillDirectory = Optional.of(directory);
+            return this;
+        }
+
+        /**
+         * <p>Keep the bodies of entities that are downloaded completely in pooled off-heap buffers instead of the heap
+         * buffers they were downloaded into. This applies to {@link StreamingPage#toCompleteEntities()},
+         * {@link StreamingPage#toCompletePage()} and {@link FeedConsumer#streamEntities(Url, StartFrom)}. Disabled by
+         * default.</p>
+         *
+         * <p>Entity bodies are copied into direct buffers from a pool with power-of-two size classes between 4 KiB
+         * and 1 MiB, sized by their <code>Content-Length</code> where it's known. The heap buffers of the download
+         * then become garbage right away instead of living as long as the entities, which keeps them out of the old
+         * generation at high ingest rates.</p>
+         *
+         * <p>Entities get a {@link ReferenceCountedBody}: <strong>release it (or close it) when you're done with the
+         * entity</strong> so that its buffers can be reused. Bodies that are never released are garbage collected
+         * like any other object, but their buffers don't go back to the pool. Use {@link #detectBodyLeaks(boolean)}
+         * to find them. Entities that are spilled to disk (see {@link #spillToDisk(long)}) don't use the pool.</p>
+         *
+         * @param poolCapacity the maximum number of bytes in idle buffers that the pool keeps for reuse
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is &lt; 0
+         */
+        public @NonNull FeedConsumer.Builder pooledBodies(long poolCapacity) {
+            if (poolCapacity < 0) {
+                throw new IllegalArgumentException("poolCapacity must be >= 0");
+            }
+            this.bodyPoolCapacity = Optional.of(poolCapacity);
+            return this;
+        }
+
+        /**
+         * <p>When enabled, log an error for every pooled entity body that is garbage collected without having been
+         * released, including the stack trace of where it was created, and return its buffers to the pool. Defaults
+         * to false. Only has an effect together with {@link #pooledBodies(long)}.</p>
+         *
+         * <p>This captures a stack trace for every entity, so it's meant for debugging and tests, not for
+         * production.</p>
+         *
+         * @param detectBodyLeaks when true, track pooled bodies that are never released
+         * @return this builder
+         */
+        public @NonNull FeedConsumer.Builder detectBodyLeaks(boolean detectBodyLeaks) {
+            this.detectBodyLeaks = detectBodyLeaks;
+            return this;
+        }
+
+        /**
+         * <p>Set the number of pages {@link FeedConsumer#streamEntities(Url, StartFrom)} downloads ahead of the page
+         * whose entities are currently being consumed. Defaults to 1.</p>
+         *
+         * <p>Prefetching hides the round trip for each page while catching up with a feed: the bodies of the next
+         * pages start downloading while the current page is still being consumed. Entities are always returned in feed
+         * order no matter the prefetch depth. When set to 0, page bodies are downloaded one at a time.</p>
+         *
+         * <p>Prefetching is bounded by entity count, not by bytes: each prefetched page stops downloading once 8 of its
+         * entities are waiting to be consumed. The memory held by prefetched entities is therefore at most about
+         * <code>(prefetchPages + 1) * 9</code> entity bodies, i.e. bounded by {@link #maxEntitySize(long)}, or by the
+         * threshold of {@link #spillToDisk(long)} for bodies kept in memory. Set one of these if entities can be very
+         * large; without either, a handful of huge entities can take as much memory as they need.</p>
+         *
+         * <p>This only limits how far ahead page bodies are read. Independently of it, up to
+         * {@link #networkConcurrency(int)} requests for the pages found by the crawl are kept in flight, see there.</p>
+         *
+         * @param prefetchPages the number of pages to download ahead
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is &lt; 0
+         */
+        public @NonNull FeedConsumer.Builder prefetchPages(int prefetchPages) {
+            if (prefetchPages < 0) {
+                throw new IllegalArgumentException("prefetchPages must be >= 0");
+            }
+            this.prefetchPages = prefetchPages;
+            return this;
+        }
+
+        /**
+         * <p>Set the maximum number of feed pages to request concurrently. Defaults to 2.</p>
+         *
+         * <p>Before streaming, the consumer crawls backwards through the feed to find the page to start from. All
+         * pages it walks through on the way are already known at that point, so they are requested concurrently
+         * instead of one after the other by following their next links. Pages and entities are still returned in
+         * feed order. Pages that were added to the feed after the crawl are followed one at a time.</p>
+         *
+         * @param networkConcurrency the number of pages to request concurrently
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is &lt;= 0
+         */
+        public @NonNull FeedConsumer.Builder networkConcurrency(int networkConcurrency) {
+            if (networkConcurrency <= 0) {
+                throw new IllegalArgumentException("networkConcurrency must be >= 1");
+            }
+            this.networkConcurrency = networkConcurrency;
+            return this;
+        }
+
+        /**
+         * <p>Report the progress of crawling backwards through the feed to the page to start from. The listener is
+         * called after every visited page with the number of pages visited so far and the oldest
+         * <code>Last-Modified</code> timestamp seen, so that long crawls can be monitored. Defaults to doing
+         * nothing.</p>
+         *
+         * <p>The listener is called on the thread that received the page's headers, so it shouldn't block.</p>
+         *
+         * @param listener called with the progress of each crawl
+         * @return this builder
+         */
+        public @NonNull FeedConsumer.Builder crawlProgress(@NonNull Consumer<@NonNull CrawlProgress> listener) {
+            this.crawlProgress = listener;
+            return this;
+        }
+
+        /**
+         * <p>Cache the headers of feed pages that can't change anymore (i.e. pages that have a next link) so that they
+         * aren't requested again on every crawl. Consumers that start streaming the same feed over and over, e.g.
+         * periodic polling jobs, then only need to request the pages that were added since the previous crawl. The
+         * cache is shared by all streams of the built consumer. Disabled by default.</p>
+         *
+         * @param maxEntries the maximum number of page headers to keep in memory; the least recently used are evicted
+         *                   first
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is &lt;= 0
+         */
+        public @NonNull FeedConsumer.Builder cachePageHeaders(int maxEntries) {
+            if (maxEntries <= 0) {
+                throw new IllegalArgumentException("maxEntries must be >= 1");
+            }
+            this.pageHeaderCacheSize = Optional.of(maxEntries);
+            this.pageHeaderCacheDirectory = Optional.empty();
+            return this;
+        }
+
+        /**
+         * <p>Like {@link #cachePageHeaders(int)}, but also keep every cached page header in a small file in the given
+         * directory. Headers that were evicted from memory or cached by a previous run of the application are read
+         * from there. The files are never cleaned up by the consumer.</p>
+         *
+         * @param maxEntries the maximum number of page headers to keep in memory; the least recently used are evicted
+         *                   first
+         * @param directory  the directory to keep the page headers in; it must exist
+         * @return this builder
+         * @throws IllegalArgumentException if <code>maxEntries</code> is &lt;= 0
+         */
+        public @NonNull FeedConsumer.Builder cachePageHeaders(int maxEntries, @NonNull Path directory) {
+            cachePageHeaders(maxEntries);
+            this.pageHeaderCacheDirectory = Optional.of(directory);
+            return this;
+        }
+
+        /**
+         * <p>Only return entities whose header matches the given predicate from {@link #streamEntities} and
+         * {@link #follow}. The predicate is tested as soon as an entity's headers have been parsed; the body of a
+         * rejected entity is skipped without being buffered, so filtering out most of a feed is much cheaper than
+         * filtering the returned entities. {@link #streamPages} is not affected. Defaults to accepting every
+         * entity.</p>
+         *
+         * <p>When streaming from a content ID or checkpoint, the entity with that content ID is never filtered out,
+         * since it's needed to find the start of the stream; it is still not returned itself.</p>
+         *
+         * @param filter returns true for the entities to return
+         * @return this builder
+         */
+        public @NonNull FeedConsumer.Builder entityFilter(@NonNull Predicate<? super FeedEntityHeader> filter) {
+            this.entityFilter = filter;
+            return this;
+        }
+
         /**
          * Build a new {@link FeedConsumer} with the parameters set on this builder.
          *
@@ -177,10 +472,24 @@ public interface FeedConsumer {
                 Optional.empty()
             );
             final var feedPageHeaderParser = new FeedPageHeaderParser();
-            final var pageLoader = new PageLoader(httpClient);
+            final var pageLoader = new PageLoader(httpClient, useEntityContentLength);
+            final EntityBufferingOptions entityBuffering = new EntityBufferingOptions(
+                maxEntitySize,
+                spillThreshold,
+                spillDirectory,
+                bodyPoolCapacity.map(capacity -> new BufferPool(capacity, detectBodyLeaks)));
             final var headerLoader = new HeaderLoader(httpClient, feedPageHeaderParser);
-            final var feedCrawler = new FeedPageCrawler(headerLoader);
-            return new FeedConsumerImpl(pageLoader, feedCrawler, feedPageHeaderParser);
+            final var feedCrawler = new FeedPageCrawler(
+                headerLoader,
+                crawlProgress,
+                pageHeaderCacheSize.map(size -> new FeedPageHeaderCache(size, pageHeaderCacheDirectory)));
+            return new FeedConsumerImpl(pageLoader,
+                                        feedCrawler,
+                                        feedPageHeaderParser,
+                                        entityBuffering,
+                                        prefetchPages,
+                                        networkConcurrency,
+                                        entityFilter);
         }
     }
 
@@ -192,6 +501,19 @@ public interface FeedConsumer {
      */
     static @NonNull FeedConsumer.Builder builder() {
         return new FeedConsumer.Builder(new ArrayList<>(),
-            AuthSupplier.none());
+            AuthSupplier.none(),
+            false,
+            ToCompleteEntitiesTransformer.UNLIMITED,
+            ToCompleteEntitiesTransformer.UNLIMITED,
+            Optional.empty(),
+            Optional.empty(),
+            false,
+            1,
+            2,
+            progress -> {
+            },
+            Optional.empty(),
+            Optional.empty(),
+            header -> true);
     }
 }
@@ -1,34 +1,53 @@
 package io.datareplication.consumer.feed;
 
 import io.datareplication.consumer.StreamingPage;
+import io.datareplication.internal.page.EntityBufferingOptions;
 import io.datareplication.internal.page.PageLoader;
-import io.datareplication.internal.page.WrappedStreamingPage;
+import io.datareplication.model.CloseableBody;
 import io.datareplication.model.Entity;
-import io.datareplication.model.HttpHeaders;
 import io.datareplication.model.Url;
 import io.datareplication.model.feed.FeedEntityHeader;
 import io.datareplication.model.feed.FeedPageHeader;
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.NonNull;
-import org.reactivestreams.FlowAdapters;
-import org.reactivestreams.Publisher;
 import reactor.adapter.JdkFlowAdapter;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * A consumer for a Feed provided by the {@link io.datareplication.producer.feed.FeedProducer}.
  *
  * @see FeedConsumer
  */
-@AllArgsConstructor(access = AccessLevel.PACKAGE)
 class FeedConsumerImpl implements FeedConsumer {
-    private final PageLoader pageLoader;
+    // Entities requested from each prefetched page at a time. Prefetched pages stop downloading once this many
+    // entities are waiting, so this (plus the entity being assembled, times the number of prefetched pages) bounds the
+    // number of buffered entities. Their size is bounded per entity by maxEntitySize and the spill threshold, which is
+    // why there's no separate byte budget for prefetching.
+    private static final int ENTITY_PREFETCH = 8;
+
+    private final FeedPageLoader pageLoader;
     private final FeedPageCrawler feedPageCrawler;
-    private final FeedPageHeaderParser feedPageHeaderParser;
+    private final int prefetchPages;
+    private final Predicate<? super FeedEntityHeader> entityFilter;
+
+    FeedConsumerImpl(final PageLoader pageLoader,
+                     final FeedPageCrawler feedPageCrawler,
+                     final FeedPageHeaderParser feedPageHeaderParser,
+                     final EntityBufferingOptions entityBuffering,
+                     final int prefetchPages,
+                     final int networkConcurrency,
+                     final Predicate<? super FeedEntityHeader> entityFilter) {
+        this.pageLoader = new FeedPageLoader(pageLoader, feedPageHeaderParser, entityBuffering, networkConcurrency);
+        this.feedPageCrawler = feedPageCrawler;
+        this.prefetchPages = prefetchPages;
+        this.entityFilter = entityFilter;
+    }
 
     /**
      * @see FeedConsumer#streamPages(Url, StartFrom)
@@ -45,45 +64,119 @@ class FeedConsumerImpl implements FeedConsumer {
     @Override
     public @NonNull Flow.Publisher<@NonNull Entity<@NonNull FeedEntityHeader>>
     streamEntities(@NonNull final Url url, @NonNull final StartFrom startFrom) {
-        var entityFlux = streamPagesFlux(url, startFrom)
-            .map(StreamingPage::toCompleteEntities)
-            .map(FlowAdapters::toPublisher)
-            .flatMap(Flux::from);
+        final Flux<Entity<FeedEntityHeader>> entityFlux = Flux.defer(() -> {
+            final Optional<ContentIdSearch> search = contentIdSearch(url, startFrom);
+            final Predicate<FeedEntityHeader> filter = entityFilter(startFrom, search);
+            return applyStartFrom(startFrom, search, toEntities(streamPagesFlux(url, startFrom), startFrom, filter));
+        });
+        return JdkFlowAdapter.publisherToFlowPublisher(entityFlux);
+    }
+
+    /**
+     * @see FeedConsumer#follow(Url, StartFrom, FollowOptions)
+     */
+    @Override
+    public @NonNull Flow.Publisher<@NonNull Entity<@NonNull FeedEntityHeader>>
+    follow(@NonNull final Url url, @NonNull final StartFrom startFrom, @NonNull final FollowOptions options) {
+        final Flux<Entity<FeedEntityHeader>> entityFlux = Flux.defer(() -> {
+            final Optional<ContentIdSearch> search = contentIdSearch(url, startFrom);
+            final Predicate<FeedEntityHeader> filter = entityFilter(startFrom, search);
+            final Flux<Entity<FeedEntityHeader>> followed = feedPageCrawler
+                .crawl(url, startFrom)
+                .flatMapMany(chain -> {
+                    // all crawled pages except the newest one already have a next link, so they're complete
+                    final Url newest = chain.get(chain.size() - 1);
+                    final List<Url> complete = chain.subList(0, chain.size() - 1);
+                    return toEntities(pageLoader.loadPages(complete, false), startFrom, filter)
+                        .concatWith(Flux.defer(() -> new FeedFollower(pageLoader, newest, options, filter).entities()));
+                });
+            return applyStartFrom(startFrom, search, followed);
+        });
+        return JdkFlowAdapter.publisherToFlowPublisher(entityFlux);
+    }
+
+    private @NonNull Flux<@NonNull Entity<@NonNull FeedEntityHeader>>
+    toEntities(@NonNull final Flux<@NonNull StreamingPage<@NonNull FeedPageHeader, @NonNull FeedEntityHeader>> pages,
+               @NonNull final StartFrom startFrom,
+               @NonNull final Predicate<FeedEntityHeader> filter) {
+        final Optional<Instant> minLastModified = minLastModified(startFrom);
+        // Download up to prefetchPages pages ahead of the one being consumed, but emit their entities strictly in
+        // order: flatMapSequential buffers the entities of later pages until the earlier ones are complete.
+        return pages
+            .map(page -> pageLoader.entities(page, minLastModified, filter))
+            .flatMapSequential(Function.identity(), prefetchPages + 1, ENTITY_PREFETCH);
+    }
 
-        return JdkFlowAdapter.publisherToFlowPublisher(applyStartFrom(url, startFrom, entityFlux));
+    /**
+     * Entities that are dropped before their bodies are buffered: those older than the start timestamp (which would
+     * be skipped by {@link #applyStartFrom} anyway) and those rejected by the configured entity filter. Entities
+     * rejected by the entity filter are reported to the content ID search, which keeps the start entity and notices
+     * when the content ID can't be in the feed anymore.
+     */
+    private @NonNull Predicate<FeedEntityHeader> entityFilter(@NonNull final StartFrom startFrom,
+                                                              @NonNull final Optional<ContentIdSearch> search) {
+        final Optional<Instant> minLastModified = minLastModified(startFrom);
+        return header -> minLastModified.map(min -> !header.lastModified().isBefore(min)).orElse(true)
+            && (entityFilter.test(header) || search.map(s -> s.rejected(header)).orElse(false));
     }
 
-    private @NonNull Publisher<Entity<FeedEntityHeader>> applyStartFrom(
-        @NonNull final Url url,
+    private static @NonNull Optional<ContentIdSearch> contentIdSearch(@NonNull final Url url,
+                                                                      @NonNull final StartFrom startFrom) {
+        if (startFrom instanceof StartFrom.ContentId) {
+            return Optional.of(new ContentIdSearch((StartFrom.ContentId) startFrom, url));
+        } else if (startFrom instanceof StartFrom.Checkpoint) {
+            // skip up to and including the checkpoint's entity, which was already processed
+            final FeedCheckpoint checkpoint = ((StartFrom.Checkpoint) startFrom).checkpoint();
+            return Optional.of(new ContentIdSearch(
+                StartFrom.contentId(checkpoint.contentId(), checkpoint.timestamp()),
+                checkpoint.pageUrl()));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Entities older than the returned timestamp are skipped by {@link #applyStartFrom}, so they can be dropped
+     * before they are buffered.
+     */
+    private static @NonNull Optional<Instant> minLastModified(@NonNull final StartFrom startFrom) {
+        if (startFrom instanceof StartFrom.Timestamp) {
+            return Optional.of(((StartFrom.Timestamp) startFrom).timestamp());
+        } else if (startFrom instanceof StartFrom.ContentId) {
+            return Optional.of(((StartFrom.ContentId) startFrom).timestamp());
+        } else if (startFrom instanceof StartFrom.Checkpoint) {
+            return Optional.of(((StartFrom.Checkpoint) startFrom).checkpoint().timestamp());
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private static @NonNull Flux<Entity<FeedEntityHeader>> applyStartFrom(
         @NonNull final StartFrom startFrom,
+        @NonNull final Optional<ContentIdSearch> search,
         @NonNull final Flux<Entity<FeedEntityHeader>> entityFlux) {
-        var startFromFlux = entityFlux;
-        if (startFrom instanceof StartFrom.Timestamp || startFrom instanceof StartFrom.ContentId) {
+        Flux<Entity<FeedEntityHeader>> startFromFlux = entityFlux;
+        final Optional<Instant> minLastModified = minLastModified(startFrom);
+        if (minLastModified.isPresent()) {
             startFromFlux = startFromFlux.skipUntil(entity ->
-                skipUntilTimestampIsReached(entity.header(), startFrom)
+                !entity.header().lastModified().isBefore(minLastModified.get())
             );
         }
-        if (startFrom instanceof StartFrom.ContentId) {
-            StartFrom.ContentId startFrom1 = (StartFrom.ContentId) startFrom;
+        if (search.isPresent()) {
+            final ContentIdSearch contentIdSearch = search.get();
             startFromFlux = startFromFlux
-                .skipUntil(entity -> {
-                    if (entity.header().lastModified().isAfter(startFrom1.timestamp())) {
-                        throw new FeedException.ContentIdNotFound(startFrom1, url, entity.header().lastModified());
-                    }
-                    return startFrom1.contentId().equals(entity.header().contentId());
-                })
-                .skip(1);
+                .skipUntil(entity -> contentIdSearch.isStart(entity.header()))
+                .skip(1)
+                .concatWith(Flux.defer(contentIdSearch::notFound));
         }
-        return startFromFlux;
+        // Entities skipped above, or still queued by flatMapSequential when the stream is cancelled or fails, never
+        // reach the subscriber, so nobody else would close their bodies.
+        return startFromFlux.doOnDiscard(Entity.class, FeedConsumerImpl::closeBody);
     }
 
-    private boolean skipUntilTimestampIsReached(final FeedEntityHeader header, final StartFrom startFrom) {
-        if (startFrom instanceof StartFrom.Timestamp) {
-            return !header.lastModified().isBefore(((StartFrom.Timestamp) startFrom).timestamp());
-        } else if (startFrom instanceof StartFrom.ContentId) {
-            return !header.lastModified().isBefore(((StartFrom.ContentId) startFrom).timestamp());
-        } else {
-            return true;
+    private static void closeBody(final Entity<?> entity) {
+        if (entity.body() instanceof CloseableBody) {
+            ((CloseableBody) entity.body()).close();
         }
     }
 
@@ -91,29 +184,6 @@ class FeedConsumerImpl implements FeedConsumer {
     streamPagesFlux(@NonNull final Url url, @NonNull final StartFrom startFrom) {
         return feedPageCrawler
             .crawl(url, startFrom)
-            .flatMap(pageLoader::load)
-            .map(this::wrapPage)
-            .expand(this::expandNextPageIfExists);
-    }
-
-    private @NonNull StreamingPage<@NonNull FeedPageHeader, @NonNull FeedEntityHeader>
-    wrapPage(@NonNull StreamingPage<@NonNull HttpHeaders,
-        @NonNull HttpHeaders> page) {
-        return new WrappedStreamingPage<>(
-            page,
-            feedPageHeaderParser.feedPageHeader(page.header()),
-            feedPageHeaderParser::feedEntityHeader
-        );
-    }
-
-    private Mono<@NonNull StreamingPage<@NonNull FeedPageHeader, @NonNull FeedEntityHeader>>
-    expandNextPageIfExists(@NonNull final StreamingPage<@NonNull FeedPageHeader, @NonNull FeedEntityHeader> page) {
-        return page
-            .header()
-            .next()
-            .map(next -> pageLoader
-                .load(next.value())
-                .map(this::wrapPage))
-            .orElseGet(Mono::empty);
+            .flatMapMany(chain -> pageLoader.loadPages(chain, true));
     }
 }
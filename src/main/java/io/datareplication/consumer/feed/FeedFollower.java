@@ -0,0 +1,117 @@
+package io.datareplication.consumer.feed;
+
+import io.datareplication.consumer.StreamingPage;
+import io.datareplication.model.Entity;
+import io.datareplication.model.HttpHeader;
+import io.datareplication.model.HttpHeaders;
+import io.datareplication.model.Url;
+import io.datareplication.model.feed.FeedEntityHeader;
+import io.datareplication.model.feed.FeedPageHeader;
+import io.datareplication.model.feed.Link;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Follows the newest page of a feed for {@link FeedConsumer#follow(Url, StartFrom, FollowOptions)}: polls it with
+ * conditional requests, emits the entities that were added since the previous poll, and moves on to the next page
+ * once the page has a next link. Not thread-safe, a new instance is needed for every subscription.
+ */
+class FeedFollower {
+    private static final String ETAG = "ETag";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+
+    private final FeedPageLoader pageLoader;
+    private final FollowOptions options;
+    private final Predicate<FeedEntityHeader> filter;
+    private Url pageUrl;
+    // the number of entities of the current page that were emitted or dropped by the filter already
+    private long processed;
+    // the number of entities seen by the filter during the current poll
+    private long seen;
+    private HttpHeaders conditions = HttpHeaders.EMPTY;
+    private Duration delay = Duration.ZERO;
+
+    FeedFollower(final FeedPageLoader pageLoader,
+                 final Url pageUrl,
+                 final FollowOptions options,
+                 final Predicate<FeedEntityHeader> filter) {
+        this.pageLoader = pageLoader;
+        this.pageUrl = pageUrl;
+        this.options = options;
+        this.filter = filter;
+    }
+
+    /**
+     * @return the entities of the followed pages; never completes
+     */
+    Flux<Entity<FeedEntityHeader>> entities() {
+        // repeat resubscribes once a poll is complete, so this doesn't build up a chain of operators
+        return Flux.defer(this::poll).repeat();
+    }
+
+    private Flux<Entity<FeedEntityHeader>> poll() {
+        final Mono<Long> wait = delay.isZero() ? Mono.just(0L) : Mono.delay(delay);
+        return wait
+            .then(pageLoader.loadIfModified(pageUrl, conditions))
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMapMany(page -> page
+                .map(this::newEntities)
+                .orElseGet(() -> Mono.<Entity<FeedEntityHeader>>fromRunnable(this::backOff).flux()));
+    }
+
+    private Flux<Entity<FeedEntityHeader>> newEntities(final StreamingPage<HttpHeaders, HttpHeaders> rawPage) {
+        final HttpHeaders validators = validators(rawPage.header());
+        final StreamingPage<FeedPageHeader, FeedEntityHeader> page = pageLoader.wrapPage(rawPage);
+        final long processedBefore = processed;
+        seen = 0;
+        // Entities that were processed by an earlier poll are dropped by their index on the page, before their
+        // bodies are buffered. The transformer tests every entity header exactly once and in order.
+        final Predicate<FeedEntityHeader> unprocessed = header -> seen++ >= processedBefore && filter.test(header);
+        return pageLoader
+            .entities(page, Optional.empty(), unprocessed)
+            .doOnComplete(() -> {
+                processed = Math.max(processed, seen);
+                final Optional<Link.Next> next = page.header().next();
+                if (next.isPresent()) {
+                    // the page is complete now, continue with the next one right away
+                    pageUrl = next.get().value();
+                    processed = 0;
+                    conditions = HttpHeaders.EMPTY;
+                    delay = Duration.ZERO;
+                } else if (processed > processedBefore) {
+                    conditions = validators;
+                    delay = options.minPollInterval();
+                } else {
+                    conditions = validators;
+                    backOff();
+                }
+            });
+    }
+
+    private void backOff() {
+        if (delay.isZero()) {
+            delay = options.minPollInterval();
+        } else {
+            final double nanos = delay.toNanos() * options.backoffMultiplier();
+            final double maxNanos = options.maxPollInterval().toNanos();
+            delay = Duration.ofNanos((long) Math.min(nanos, maxNanos));
+        }
+    }
+
+    /**
+     * Only the <code>ETag</code> is used as a validator. A page's <code>Last-Modified</code> is the timestamp of its
+     * newest entity, which has second precision, so entities added within the same second wouldn't be seen with
+     * <code>If-Modified-Since</code>. Pages without an <code>ETag</code> are polled unconditionally.
+     */
+    private static HttpHeaders validators(final HttpHeaders pageHeaders) {
+        return pageHeaders
+            .get(ETAG)
+            .map(etag -> HttpHeaders.of(HttpHeader.of(IF_NONE_MATCH, etag.values())))
+            .orElse(HttpHeaders.EMPTY);
+    }
+}
@@ -10,71 +10,155 @@ import lombok.NonNull;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * A crawler which searches for the {@link Url} by making head requests to the feed pages
- * and recursively following the prev links until the start {@link Url} is found.
+ * and following the prev links until the start {@link Url} is found.
+ *
+ * <p>The crawler remembers the pages it walked through on the way, so that the consumer can download the whole chain
+ * from the start page up to the page the crawl started at concurrently instead of following the next links one
+ * request at a time.</p>
+ *
+ * <p>The crawl is a loop over a single {@link Crawl} state object rather than a recursion, so that the reactive chain
+ * doesn't grow with the length of the feed and page headers can be dropped as soon as they have been looked at. Only
+ * the {@link Url} of each visited page is retained.</p>
+ *
+ * <p>With a {@link FeedPageHeaderCache}, pages that can't change anymore are only requested once, so repeated crawls
+ * over the same part of the feed only need to request the pages that were added since.</p>
  */
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
 class FeedPageCrawler {
     private final HeaderLoader headerLoader;
+    private final Consumer<@NonNull CrawlProgress> progressListener;
+    private final Optional<FeedPageHeaderCache> pageHeaderCache;
 
     /**
      * Crawls the feed page starting from the given {@link Url}.
      *
      * @param url       the {@link Url} to start crawling from
      * @param startFrom the {@link StartFrom} parameter
-     * @return the {@link Url} to start streaming from
+     * @return the {@link Url Urls} of the pages to stream, oldest first: the start page followed by the pages that
+     *     were crawled on the way to it, ending with the given <code>url</code> (unless it is the start page itself,
+     *     or older than it); only the checkpoint's page for {@link StartFrom.Checkpoint}
      * @throws FeedException.FeedNotOldEnough if the last modified date of the last page is not older
      *                                        and {@link StartFrom} is not {@link StartFrom.Beginning
      */
     @NonNull
-    Mono<@NonNull Url> crawl(
+    Mono<@NonNull List<@NonNull Url>> crawl(
         @NonNull final Url url,
         @NonNull final StartFrom startFrom
     ) {
-        var currentPageHeader = headerLoader.load(url);
-        return currentPageHeader.flatMap(pageHeader ->
-            Objects.requireNonNullElseGet(
-                returnStartUrlIfMatchingToStartFrom(pageHeader, startFrom),
-                () -> pageHeader
-                    .prev()
-                    .map(prev -> crawl(prev.value(), startFrom))
-                    .orElse(
-                        currentPageHeader.handle((header, sink) -> {
-                                if (startFrom instanceof StartFrom.Timestamp) {
-                                    sink.error(new FeedException.FeedNotOldEnough(
-                                        header.self().value(),
-                                        header.lastModified(),
-                                        ((StartFrom.Timestamp) startFrom).timestamp()
-                                    ));
-                                } else if (startFrom instanceof StartFrom.ContentId) {
-                                    sink.error(new FeedException.FeedNotOldEnough(
-                                        header.self().value(),
-                                        header.lastModified(),
-                                        ((StartFrom.ContentId) startFrom).timestamp()
-                                    ));
-                                } else {
-                                    sink.next(header.self().value());
-                                }
-                            }
-                        )
-                    )
-            )
-        );
+        if (startFrom instanceof StartFrom.Checkpoint) {
+            // the checkpoint already knows its page, there's nothing to crawl
+            return Mono.just(List.of(((StartFrom.Checkpoint) startFrom).checkpoint().pageUrl()));
+        }
+        return Mono.defer(() -> {
+            final Crawl crawl = new Crawl(startFrom);
+            // expand subscribes to the next load once the previous one has completed, so this runs as a loop
+            return load(url)
+                .expand(pageHeader -> crawl
+                    .visit(pageHeader)
+                    .map(this::load)
+                    .orElseGet(Mono::empty))
+                .then(Mono.fromSupplier(crawl::result));
+        });
+    }
+
+    private Mono<FeedPageHeader> load(final Url url) {
+        if (pageHeaderCache.isEmpty()) {
+            return headerLoader.load(url);
+        }
+        final FeedPageHeaderCache cache = pageHeaderCache.get();
+        return Mono
+            .fromSupplier(() -> cache.get(url))
+            .flatMap(cached -> cached
+                .map(Mono::just)
+                .orElseGet(() -> headerLoader.load(url).doOnNext(pageHeader -> cache.put(url, pageHeader))));
+    }
+
+    /**
+     * The state of a single crawl.
+     */
+    private final class Crawl {
+        private final StartFrom startFrom;
+        // the pages visited so far, newest first
+        private final List<Url> newerPages = new ArrayList<>();
+        private Instant oldestLastModified;
+        private List<Url> chain;
+
+        private Crawl(final StartFrom startFrom) {
+            this.startFrom = startFrom;
+        }
+
+        /**
+         * Look at the next (older) page.
+         *
+         * @return the page to visit next, or empty if the crawl is done
+         */
+        private Optional<Url> visit(final FeedPageHeader pageHeader) {
+            if (oldestLastModified == null || pageHeader.lastModified().isBefore(oldestLastModified)) {
+                oldestLastModified = pageHeader.lastModified();
+            }
+            progressListener.accept(new CrawlProgress(newerPages.size() + 1, oldestLastModified));
+
+            final Url startUrl = returnStartUrlIfMatchingToStartFrom(pageHeader, startFrom);
+            if (startUrl != null) {
+                // The start page is the next page of this one, i.e. the one visited last. Replace it with the next
+                // link instead of listing it twice.
+                chain = chain(startUrl, 1);
+                return Optional.empty();
+            }
+            final Optional<Link.Prev> prev = pageHeader.prev();
+            if (prev.isPresent()) {
+                newerPages.add(pageHeader.self().value());
+                return Optional.of(prev.get().value());
+            } else if (startFrom instanceof StartFrom.Timestamp) {
+                throw new FeedException.FeedNotOldEnough(
+                    pageHeader.self().value(),
+                    pageHeader.lastModified(),
+                    ((StartFrom.Timestamp) startFrom).timestamp()
+                );
+            } else if (startFrom instanceof StartFrom.ContentId) {
+                throw new FeedException.FeedNotOldEnough(
+                    pageHeader.self().value(),
+                    pageHeader.lastModified(),
+                    ((StartFrom.ContentId) startFrom).timestamp()
+                );
+            } else {
+                chain = chain(pageHeader.self().value(), 0);
+                return Optional.empty();
+            }
+        }
+
+        private List<Url> chain(final Url startUrl, final int skip) {
+            final List<Url> result = new ArrayList<>(newerPages.size() + 1);
+            result.add(startUrl);
+            for (int i = newerPages.size() - 1 - skip; i >= 0; i--) {
+                result.add(newerPages.get(i));
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        private List<Url> result() {
+            return chain;
+        }
     }
 
-    private static Mono<Url> returnStartUrlIfMatchingToStartFrom(
+    private static Url returnStartUrlIfMatchingToStartFrom(
         final @NonNull FeedPageHeader pageHeader,
         final @NonNull StartFrom startFrom
     ) {
         if (startFrom instanceof StartFrom.Timestamp
             && isFeedPageLastModifiedBefore(pageHeader, ((StartFrom.Timestamp) startFrom).timestamp())) {
-            return Mono.just(nextLinkUrlFromFeedPageHeader(pageHeader));
+            return nextLinkUrlFromFeedPageHeader(pageHeader);
         } else if (startFrom instanceof StartFrom.ContentId
             && isFeedPageLastModifiedBefore(pageHeader, ((StartFrom.ContentId) startFrom).timestamp())) {
-            return Mono.just(nextLinkUrlFromFeedPageHeader(pageHeader));
+            return nextLinkUrlFromFeedPageHeader(pageHeader);
         } else {
             return null;
         }
@@ -0,0 +1,199 @@
+package io.datareplication.consumer.feed;
+
+import io.datareplication.model.HttpHeader;
+import io.datareplication.model.HttpHeaders;
+import io.datareplication.model.Url;
+import io.datareplication.model.feed.FeedPageHeader;
+import io.datareplication.model.feed.Link;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * <p>A thread-safe LRU cache of the {@link FeedPageHeader FeedPageHeaders} seen while crawling, keyed by the
+ * {@link Url} they were requested with. Only pages that have a next link are cached: new entities are only ever added
+ * to the newest page of a feed, so once a page has a next link its headers never change.</p>
+ *
+ * <p>With a directory, every cached header (including its extra headers) is also written to a small file in that
+ * directory, which is consulted when a header isn't in memory. This lets the cache survive restarts. Files are never
+ * removed by the cache. Errors reading or writing the files are logged and otherwise treated like a cache miss, so
+ * they never fail a crawl.</p>
+ */
+@Slf4j
+final class FeedPageHeaderCache {
+    private static final String REQUESTED_URL = "url";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String SELF = "self";
+    private static final String PREV = "prev";
+    private static final String NEXT = "next";
+    private static final String EXTRA_HEADER = "extraHeader.";
+    private static final String NAME = ".name";
+    private static final String VALUE = ".value.";
+
+    private final Map<Url, FeedPageHeader> entries;
+    private final Optional<Path> directory;
+
+    /**
+     * Create a new cache.
+     *
+     * @param maxEntries the maximum number of headers to keep in memory
+     * @param directory  the directory for the on-disk tier; it must exist
+     */
+    FeedPageHeaderCache(int maxEntries, @NonNull Optional<Path> directory) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Url, FeedPageHeader> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.directory = directory;
+    }
+
+    /**
+     * Look up the header of the page at the given URL.
+     *
+     * @param url the URL the page was requested with
+     * @return the cached header, or empty if the page isn't cached
+     */
+    @NonNull Optional<@NonNull FeedPageHeader> get(@NonNull Url url) {
+        synchronized (entries) {
+            final FeedPageHeader header = entries.get(url);
+            if (header != null) {
+                return Optional.of(header);
+            }
+        }
+        final Optional<FeedPageHeader> stored = directory.flatMap(dir -> read(dir, url));
+        stored.ifPresent(header -> {
+            synchronized (entries) {
+                entries.put(url, header);
+            }
+        });
+        return stored;
+    }
+
+    /**
+     * Cache the header of the page at the given URL if the page can't change anymore, i.e. if it has a next link.
+     *
+     * @param url    the URL the page was requested with
+     * @param header the page's header
+     */
+    void put(@NonNull Url url, @NonNull FeedPageHeader header) {
+        if (header.next().isEmpty()) {
+            return;
+        }
+        final FeedPageHeader previous;
+        synchronized (entries) {
+            previous = entries.put(url, header);
+        }
+        if (previous == null) {
+            directory.ifPresent(dir -> write(dir, url, header));
+        }
+    }
+
+    private static Optional<FeedPageHeader> read(Path directory, Url url) {
+        final Path file = file(directory, url);
+        final Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("failed to read cached page header {}", file, e);
+            return Optional.empty();
+        }
+        final String lastModified = properties.getProperty(LAST_MODIFIED);
+        final String self = properties.getProperty(SELF);
+        final String next = properties.getProperty(NEXT);
+        // the requested URL guards against hash collisions
+        if (!url.value().equals(properties.getProperty(REQUESTED_URL))
+            || lastModified == null
+            || self == null
+            || next == null) {
+            log.warn("ignoring invalid cached page header {}", file);
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new FeedPageHeader(
+                Instant.parse(lastModified),
+                Link.self(Url.of(self)),
+                Optional.ofNullable(properties.getProperty(PREV)).map(prev -> Link.prev(Url.of(prev))),
+                Optional.of(Link.next(Url.of(next))),
+                readExtraHeaders(properties)));
+        } catch (DateTimeParseException e) {
+            log.warn("ignoring invalid cached page header {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private static void write(Path directory, Url url, FeedPageHeader header) {
+        final Properties properties = new Properties();
+        properties.setProperty(REQUESTED_URL, url.value());
+        properties.setProperty(LAST_MODIFIED, header.lastModified().toString());
+        properties.setProperty(SELF, header.self().value().value());
+        header.prev().ifPresent(prev -> properties.setProperty(PREV, prev.value().value()));
+        header.next().ifPresent(next -> properties.setProperty(NEXT, next.value().value()));
+        writeExtraHeaders(properties, header.extraHeaders());
+
+        final Path file = file(directory, url);
+        try {
+            PropertiesFiles.writeAtomically(file, properties);
+        } catch (IOException e) {
+            log.warn("failed to write cached page header {}", file, e);
+        }
+    }
+
+    private static HttpHeaders readExtraHeaders(Properties properties) {
+        final List<HttpHeader> headers = new ArrayList<>();
+        for (int i = 0; properties.getProperty(EXTRA_HEADER + i + NAME) != null; i++) {
+            final List<String> values = new ArrayList<>();
+            for (int j = 0; properties.getProperty(EXTRA_HEADER + i + VALUE + j) != null; j++) {
+                values.add(properties.getProperty(EXTRA_HEADER + i + VALUE + j));
+            }
+            headers.add(HttpHeader.of(properties.getProperty(EXTRA_HEADER + i + NAME), values));
+        }
+        return HttpHeaders.of(headers);
+    }
+
+    private static void writeExtraHeaders(Properties properties, HttpHeaders headers) {
+        int i = 0;
+        for (HttpHeader header : headers) {
+            properties.setProperty(EXTRA_HEADER + i + NAME, header.displayName());
+            for (int j = 0; j < header.values().size(); j++) {
+                properties.setProperty(EXTRA_HEADER + i + VALUE + j, header.values().get(j));
+            }
+            i++;
+        }
+    }
+
+    private static Path file(Path directory, Url url) {
+        // URLs can contain all kinds of characters that aren't allowed in file names
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] hash = digest.digest(url.value().getBytes(StandardCharsets.UTF_8));
+            final StringBuilder name = new StringBuilder(2 * hash.length + ".properties".length());
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return directory.resolve(name.append(".properties").toString());
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,10 +1,9 @@
 package io.datareplication.consumer.feed;
 
 import io.datareplication.consumer.PageFormatException;
-import io.datareplication.internal.http.HeaderFieldValue;
+import io.datareplication.internal.http.HttpDates;
 import io.datareplication.model.HttpHeader;
 import io.datareplication.model.HttpHeaders;
-import io.datareplication.model.Url;
 import io.datareplication.model.feed.ContentId;
 import io.datareplication.model.feed.FeedEntityHeader;
 import io.datareplication.model.feed.FeedPageHeader;
@@ -15,15 +14,11 @@ import lombok.AllArgsConstructor;
 import lombok.NonNull;
 
 import java.time.Instant;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Optional;
-import java.util.function.Function;
 
-import static io.datareplication.model.HttpHeader.CONTENT_ID;
 import static io.datareplication.model.HttpHeader.LAST_MODIFIED;
 import static io.datareplication.model.HttpHeader.LINK;
-import static io.datareplication.model.HttpHeader.OPERATION_TYPE;
 
 /**
  * Parse the headers of a feed page.
@@ -48,6 +43,7 @@ class FeedPageHeaderParser {
         var pageLinkHeader = httpHeaders
             .get(LINK)
             .orElseThrow(() -> new PageFormatException.MissingSelfLinkHeader(httpHeaders));
+        final LinkHeaderParser.Links links = LinkHeaderParser.parse(pageLinkHeader);
         return new FeedPageHeader(
             extractLastModified(
                 httpHeaders,
@@ -59,47 +55,15 @@ class FeedPageHeaderParser {
                     }
                 }
             ).orElseThrow(() -> new PageFormatException.MissingLastModifiedHeader(httpHeaders)),
-            fromHeaderValue(pageLinkHeader, "self")
+            links
+                .self()
                 .map(Link::self)
                 .orElseThrow(() -> new PageFormatException.MissingSelfLinkHeader(httpHeaders)),
-            fromHeaderValue(pageLinkHeader, "prev").map(Link::prev),
-            fromHeaderValue(pageLinkHeader, "next").map(Link::next)
+            links.prev().map(Link::prev),
+            links.next().map(Link::next)
         );
     }
 
-    private static @NonNull Optional<@NonNull Url> fromHeaderValue(
-        @NonNull HttpHeader httpHeader,
-        @NonNull String rel
-    ) {
-        return httpHeader
-            .values()
-            .stream()
-            .map(HeaderFieldValue::parse)
-            .filter(fieldValue ->
-                fieldValue
-                    .parameter("rel")
-                    .map(rel::equals)
-                    .orElse(false)
-            )
-            .findFirst()
-            .map(FeedPageHeaderParser::toUrl)
-            .filter(Optional::isPresent)
-            .flatMap(Function.identity());
-    }
-
-    private static @NonNull Optional<@NonNull Url> toUrl(@NonNull HeaderFieldValue headerFieldValue) {
-        var cleanUrl = headerFieldValue
-            .mainValue()
-            .trim()
-            .replaceFirst("<", "")
-            .replaceFirst(">", "");
-        if (cleanUrl.isBlank()) {
-            return Optional.empty();
-        } else {
-            return Optional.of(Url.of(cleanUrl));
-        }
-    }
-
     /**
      * Parse the headers of a feed entity.
      *
@@ -112,55 +76,70 @@ class FeedPageHeaderParser {
         @NonNull final Integer index,
         @NonNull final HttpHeaders httpHeaders
     ) {
+        // This runs for every entity, so pick out the fields in a single pass over the headers instead of looking
+        // each of them up by name. Header names are already normalized to lower case.
+        String lastModified = null;
+        String operationType = null;
+        String contentId = null;
+        for (HttpHeader header : httpHeaders) {
+            switch (header.name()) {
+                case "last-modified":
+                    lastModified = firstValue(header);
+                    break;
+                case "operation-type":
+                    operationType = firstValue(header);
+                    break;
+                case "content-id":
+                    contentId = firstValue(header);
+                    break;
+                default:
+                    break;
+            }
+        }
+
         return new FeedEntityHeader(
-            extractLastModified(
-                httpHeaders,
-                (String lastModified) -> {
-                    try {
-                        return fromRfc1123String(lastModified);
-                    } catch (DateTimeParseException e) {
-                        throw new PageFormatException.InvalidLastModifiedHeaderInEntity(index, lastModified, e);
-                    }
-                }
-            ).orElseThrow(() -> new PageFormatException.MissingLastModifiedHeaderInEntity(index)),
-            extractOperationType(
-                httpHeaders,
-                (String operationType) -> {
-                    try {
-                        return OperationType.valueOf(operationType);
-                    } catch (IllegalArgumentException e) {
-                        throw new PageFormatException.UnparseableOperationTypeInEntity(index, operationType, e);
-                    }
-                }
-            ).orElseThrow(() -> new PageFormatException.MissingOperationTypeInEntity(index)),
-            extractContentId(httpHeaders).orElseThrow(() -> new PageFormatException.MissingContentIdInEntity(index)));
+            entityLastModified(index, lastModified),
+            entityOperationType(index, operationType),
+            entityContentId(index, contentId));
     }
 
-    @FunctionalInterface
-    private interface TimestampParser {
-        Instant parse(@NonNull String input);
+    private static Instant entityLastModified(final int index, final String lastModified) {
+        if (lastModified == null) {
+            throw new PageFormatException.MissingLastModifiedHeaderInEntity(index);
+        }
+        try {
+            return fromRfc1123String(lastModified);
+        } catch (DateTimeParseException e) {
+            throw new PageFormatException.InvalidLastModifiedHeaderInEntity(index, lastModified, e);
+        }
     }
 
-    @FunctionalInterface
-    private interface OperationTypeParser {
-        OperationType parse(@NonNull String input);
+    private static OperationType entityOperationType(final int index, final String operationType) {
+        if (operationType == null) {
+            throw new PageFormatException.MissingOperationTypeInEntity(index);
+        }
+        final String operationTypeName = operationType.replace("http-equiv=", "");
+        try {
+            return OperationType.valueOf(operationTypeName);
+        } catch (IllegalArgumentException e) {
+            throw new PageFormatException.UnparseableOperationTypeInEntity(index, operationTypeName, e);
+        }
     }
 
-    private static @NonNull Optional<@NonNull ContentId> extractContentId(
-        @NonNull final HttpHeaders httpHeaders
-    ) {
-        return httpHeaders.get(CONTENT_ID).flatMap(httpHeader ->
-            httpHeader.values().stream().findFirst()).map(ContentId::of);
+    private static ContentId entityContentId(final int index, final String contentId) {
+        if (contentId == null) {
+            throw new PageFormatException.MissingContentIdInEntity(index);
+        }
+        return ContentId.of(contentId);
     }
 
-    private static @NonNull Optional<@NonNull OperationType> extractOperationType(
-        final @NonNull HttpHeaders httpHeaders,
-        final @NonNull OperationTypeParser operationTypeParser
-    ) {
-        return httpHeaders.get(OPERATION_TYPE).flatMap(httpHeader ->
-            httpHeader.values().stream().findFirst())
-            .map(value -> value.replace("http-equiv=", ""))
-            .map(operationTypeParser::parse);
+    private static String firstValue(@NonNull final HttpHeader header) {
+        return header.values().isEmpty() ? null : header.values().get(0);
+    }
+
+    @FunctionalInterface
+    private interface TimestampParser {
+        Instant parse(@NonNull String input);
     }
 
     private static @NonNull Optional<@NonNull Instant> extractLastModified(
@@ -174,6 +153,6 @@ class FeedPageHeaderParser {
     }
 
     private static @NonNull Instant fromRfc1123String(@NonNull String string) {
-        return Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(string));
+        return HttpDates.parse(string);
     }
 }
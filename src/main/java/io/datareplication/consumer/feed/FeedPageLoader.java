@@ -0,0 +1,116 @@
+package io.datareplication.consumer.feed;
+
+import io.datareplication.consumer.StreamingPage;
+import io.datareplication.internal.page.EntityBufferingOptions;
+import io.datareplication.internal.page.PageLoader;
+import io.datareplication.internal.page.ToCompleteEntitiesTransformer;
+import io.datareplication.internal.page.WrappedStreamingPage;
+import io.datareplication.model.Entity;
+import io.datareplication.model.HttpHeaders;
+import io.datareplication.model.Url;
+import io.datareplication.model.feed.FeedEntityHeader;
+import io.datareplication.model.feed.FeedPageHeader;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import org.reactivestreams.FlowAdapters;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Load feed pages, parse their headers, and turn them into complete entities.
+ * <p>
+ * This class is package-private because it is only used by {@link FeedConsumerImpl} and {@link FeedFollower}.
+ * It is not part of the public API.
+ * </p>
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+class FeedPageLoader {
+    private final PageLoader pageLoader;
+    private final FeedPageHeaderParser feedPageHeaderParser;
+    private final EntityBufferingOptions entityBuffering;
+    private final int networkConcurrency;
+
+    /**
+     * Load the pages of a crawled chain in order, keeping up to <code>networkConcurrency</code> requests in flight.
+     *
+     * @param chain        the pages found by the crawler, oldest first
+     * @param followNewest whether to follow the next links of the newest page until the head of the feed
+     * @return the loaded pages in feed order
+     */
+    @NonNull Flux<@NonNull StreamingPage<@NonNull FeedPageHeader, @NonNull FeedEntityHeader>>
+    loadPages(@NonNull final List<@NonNull Url> chain, final boolean followNewest) {
+        // The crawler already knows all pages up to the one it started at, so there's no need to wait for each page's
+        // next link before requesting the following one. Only pages added after the crawl are followed one by one.
+        final int last = chain.size() - 1;
+        return Flux
+            .range(0, chain.size())
+            .flatMapSequential(index -> {
+                final Mono<StreamingPage<FeedPageHeader, FeedEntityHeader>> page = pageLoader
+                    .load(chain.get(index))
+                    .map(this::wrapPage);
+                return followNewest && index == last ? page.expand(this::expandNextPageIfExists) : page;
+            }, networkConcurrency, 1);
+    }
+
+    /**
+     * Return the complete entities of a page that are accepted by the filter. Rejected entities are dropped before
+     * their bodies are buffered.
+     *
+     * @param page            the page
+     * @param minLastModified if the page is older than this, it's skipped without downloading its body
+     * @param filter          decides by its header whether an entity is returned; tested once per entity, in order
+     * @return the accepted entities of the page
+     */
+    @NonNull Flux<@NonNull Entity<@NonNull FeedEntityHeader>>
+    entities(@NonNull final StreamingPage<@NonNull FeedPageHeader, @NonNull FeedEntityHeader> page,
+             @NonNull final Optional<Instant> minLastModified,
+             @NonNull final Predicate<FeedEntityHeader> filter) {
+        if (minLastModified.isPresent() && page.header().lastModified().isBefore(minLastModified.get())) {
+            // A page's timestamp is the one of its newest entity, so there's nothing to return here. Subscribe and
+            // cancel right away so that the response body is released without being downloaded.
+            return Flux.from(FlowAdapters.toPublisher(page)).take(0).thenMany(Flux.empty());
+        }
+        return Flux.from(FlowAdapters.toPublisher(
+            ToCompleteEntitiesTransformer.toCompleteEntities(page, entityBuffering, filter)));
+    }
+
+    /**
+     * Load a page with a conditional request.
+     *
+     * @param url        the page to load
+     * @param conditions the conditional request headers
+     * @return the page, or empty if it wasn't modified
+     * @see PageLoader#loadIfModified(Url, HttpHeaders)
+     */
+    @NonNull Mono<@NonNull StreamingPage<@NonNull HttpHeaders, @NonNull HttpHeaders>>
+    loadIfModified(@NonNull final Url url, @NonNull final HttpHeaders conditions) {
+        return pageLoader.loadIfModified(url, conditions);
+    }
+
+    @NonNull StreamingPage<@NonNull FeedPageHeader, @NonNull FeedEntityHeader>
+    wrapPage(@NonNull final StreamingPage<@NonNull HttpHeaders, @NonNull HttpHeaders> page) {
+        return new WrappedStreamingPage<>(
+            page,
+            feedPageHeaderParser.feedPageHeader(page.header()),
+            feedPageHeaderParser::feedEntityHeader,
+            entityBuffering
+        );
+    }
+
+    private Mono<@NonNull StreamingPage<@NonNull FeedPageHeader, @NonNull FeedEntityHeader>>
+    expandNextPageIfExists(@NonNull final StreamingPage<@NonNull FeedPageHeader, @NonNull FeedEntityHeader> page) {
+        return page
+            .header()
+            .next()
+            .map(next -> pageLoader
+                .load(next.value())
+                .map(this::wrapPage))
+            .orElseGet(Mono::empty);
+    }
+}
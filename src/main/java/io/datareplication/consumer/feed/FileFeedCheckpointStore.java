@@ -0,0 +1,62 @@
+package io.datareplication.consumer.feed;
+
+import io.datareplication.model.Url;
+import io.datareplication.model.feed.ContentId;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * A {@link FeedCheckpointStore} that keeps the checkpoint in a properties file.
+ *
+ * @see FeedCheckpointStore#ofFile(Path)
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+final class FileFeedCheckpointStore implements FeedCheckpointStore {
+    private static final String PAGE_URL = "pageUrl";
+    private static final String CONTENT_ID = "contentId";
+    private static final String TIMESTAMP = "timestamp";
+
+    private final Path path;
+
+    @Override
+    public @NonNull Optional<@NonNull FeedCheckpoint> load() throws IOException {
+        final Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(path)) {
+            properties.load(input);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        final String pageUrl = properties.getProperty(PAGE_URL);
+        final String contentId = properties.getProperty(CONTENT_ID);
+        final String timestamp = properties.getProperty(TIMESTAMP);
+        if (pageUrl == null || contentId == null || timestamp == null) {
+            throw new IOException(String.format("checkpoint file %s is incomplete", path));
+        }
+        try {
+            return Optional.of(new FeedCheckpoint(Url.of(pageUrl), ContentId.of(contentId), Instant.parse(timestamp)));
+        } catch (DateTimeParseException e) {
+            throw new IOException(String.format("checkpoint file %s contains an invalid timestamp", path), e);
+        }
+    }
+
+    @Override
+    public void save(@NonNull FeedCheckpoint checkpoint) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(PAGE_URL, checkpoint.pageUrl().value());
+        properties.setProperty(CONTENT_ID, checkpoint.contentId().value());
+        properties.setProperty(TIMESTAMP, checkpoint.timestamp().toString());
+
+        PropertiesFiles.writeAtomically(path, properties);
+    }
+}
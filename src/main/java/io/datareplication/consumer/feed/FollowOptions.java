@@ -0,0 +1,119 @@
+package io.datareplication.consumer.feed;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link FeedConsumer#follow(io.datareplication.model.Url, StartFrom, FollowOptions)}.
+ *
+ * <p>Once the newest page of the feed has been consumed, it is polled again (with a conditional request if the
+ * server provides an <code>ETag</code>). The poll interval starts at {@link #minPollInterval()} after new entities
+ * were found and is multiplied by {@link #backoffMultiplier()} after every poll that didn't find anything new, up to
+ * {@link #maxPollInterval()}.</p>
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class FollowOptions {
+    /**
+     * The time to wait before polling the newest page again after it had new entities.
+     */
+    @NonNull Duration minPollInterval;
+    /**
+     * The longest time to wait before polling the newest page again.
+     */
+    @NonNull Duration maxPollInterval;
+    /**
+     * The factor the poll interval grows by after every poll that didn't find new entities.
+     */
+    double backoffMultiplier;
+
+    /**
+     * A builder for {@link FollowOptions}.
+     *
+     * @see FollowOptions#builder()
+     */
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Builder {
+        private Duration minPollInterval;
+        private Duration maxPollInterval;
+        private double backoffMultiplier;
+
+        /**
+         * Set the time to wait before polling the newest page again after it had new entities. Defaults to 250ms.
+         *
+         * @param minPollInterval the shortest poll interval
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is zero or negative
+         */
+        public @NonNull Builder minPollInterval(@NonNull Duration minPollInterval) {
+            if (minPollInterval.isNegative() || minPollInterval.isZero()) {
+                throw new IllegalArgumentException("minPollInterval must be > 0");
+            }
+            this.minPollInterval = minPollInterval;
+            return this;
+        }
+
+        /**
+         * Set the longest time to wait before polling the newest page again. Defaults to 10s.
+         *
+         * @param maxPollInterval the longest poll interval
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is zero or negative
+         */
+        public @NonNull Builder maxPollInterval(@NonNull Duration maxPollInterval) {
+            if (maxPollInterval.isNegative() || maxPollInterval.isZero()) {
+                throw new IllegalArgumentException("maxPollInterval must be > 0");
+            }
+            this.maxPollInterval = maxPollInterval;
+            return this;
+        }
+
+        /**
+         * Set the factor the poll interval grows by after every poll that didn't find new entities. Defaults to 2.
+         *
+         * @param backoffMultiplier the backoff factor; 1 polls at a fixed interval
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is &lt; 1
+         */
+        public @NonNull Builder backoffMultiplier(double backoffMultiplier) {
+            if (Double.isNaN(backoffMultiplier) || backoffMultiplier < 1) {
+                throw new IllegalArgumentException("backoffMultiplier must be >= 1");
+            }
+            this.backoffMultiplier = backoffMultiplier;
+            return this;
+        }
+
+        /**
+         * Build new {@link FollowOptions} with the settings of this builder.
+         *
+         * @return new {@link FollowOptions}
+         * @throws IllegalArgumentException if the maximum poll interval is shorter than the minimum
+         */
+        public @NonNull FollowOptions build() {
+            if (maxPollInterval.compareTo(minPollInterval) < 0) {
+                throw new IllegalArgumentException("maxPollInterval must be >= minPollInterval");
+            }
+            return new FollowOptions(minPollInterval, maxPollInterval, backoffMultiplier);
+        }
+    }
+
+    /**
+     * Create a new {@link FollowOptions.Builder} with default settings.
+     *
+     * @return a new builder
+     */
+    public static @NonNull Builder builder() {
+        return new Builder(Duration.ofMillis(250), Duration.ofSeconds(10), 2);
+    }
+
+    /**
+     * @return the default settings
+     */
+    public static @NonNull FollowOptions defaults() {
+        return builder().build();
+    }
+}
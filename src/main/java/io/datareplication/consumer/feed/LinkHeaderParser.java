@@ -0,0 +1,288 @@
+package io.datareplication.consumer.feed;
+
+import io.datareplication.model.HttpHeader;
+import io.datareplication.model.Url;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.util.Optional;
+
+/**
+ * <p>Extract the <code>self</code>, <code>prev</code> and <code>next</code> targets from a <code>Link</code> header
+ * in a single scan over its values.</p>
+ *
+ * <p>This runs for every page that's crawled or loaded, so it works on indices into the header values and only
+ * allocates the URLs it returns. A value may contain several comma-separated links
+ * (<code>&lt;url&gt;; rel=next, &lt;url&gt;; rel=prev</code>) and a <code>rel</code> parameter may name several
+ * space-separated relation types. Relation types are case-sensitive. The first link with a given relation type wins.
+ * If its target is blank, that relation counts as missing. Malformed parameters are skipped.</p>
+ *
+ * <p>This class is package-private because it is only used by {@link FeedPageHeaderParser}.</p>
+ */
+final class LinkHeaderParser {
+    private static final String SELF = "self";
+    private static final String PREV = "prev";
+    private static final String NEXT = "next";
+    private static final String REL = "rel";
+    private static final char TARGET_START = '<';
+    private static final char TARGET_END = '>';
+    private static final char PARAMETER_SEPARATOR = ';';
+    private static final char LINK_SEPARATOR = ',';
+    private static final char EQUALS = '=';
+    private static final char QUOTE = '"';
+    private static final char ESCAPE = '\\';
+
+    private Url self;
+    private Url prev;
+    private Url next;
+    private boolean selfFound;
+    private boolean prevFound;
+    private boolean nextFound;
+
+    // the header value being scanned and the index of the next character
+    private String value;
+    private int idx;
+    // the value of the last parameter scanned and whether it contains escapes
+    private int parameterValueStart;
+    private int parameterValueEnd;
+    private boolean escaped;
+
+    private LinkHeaderParser() {
+    }
+
+    /**
+     * The targets of a feed page's links.
+     */
+    @Value
+    static class Links {
+        @NonNull Optional<@NonNull Url> self;
+        @NonNull Optional<@NonNull Url> prev;
+        @NonNull Optional<@NonNull Url> next;
+    }
+
+    /**
+     * Parse the given <code>Link</code> header.
+     *
+     * @param linkHeader the header to parse
+     * @return the self, prev and next targets found in the header
+     */
+    static @NonNull Links parse(@NonNull HttpHeader linkHeader) {
+        final LinkHeaderParser parser = new LinkHeaderParser();
+        for (String value : linkHeader.values()) {
+            parser.parseValue(value);
+        }
+        return new Links(Optional.ofNullable(parser.self),
+                         Optional.ofNullable(parser.prev),
+                         Optional.ofNullable(parser.next));
+    }
+
+    private void parseValue(String headerValue) {
+        value = headerValue;
+        idx = 0;
+        while (idx < value.length()) {
+            parseLink();
+            // skip the comma between links
+            idx++;
+        }
+    }
+
+    private void parseLink() {
+        final int targetStart = idx;
+        scanTarget();
+        final int targetEnd = idx;
+        int relStart = -1;
+        int relEnd = -1;
+        boolean relEscaped = false;
+        while (at(PARAMETER_SEPARATOR)) {
+            idx++;
+            if (parseParameter()) {
+                relStart = parameterValueStart;
+                relEnd = parameterValueEnd;
+                relEscaped = escaped;
+            }
+        }
+        if (relStart >= 0) {
+            if (relEscaped) {
+                final String rel = unescape(value, relStart, relEnd);
+                addLink(rel, 0, rel.length(), targetStart, targetEnd);
+            } else {
+                addLink(value, relStart, relEnd, targetStart, targetEnd);
+            }
+        }
+    }
+
+    /**
+     * Scan the link target: everything up to the first parameter or the next link. A <code>&lt;...&gt;</code>
+     * URI reference may contain both delimiters.
+     */
+    private void scanTarget() {
+        boolean inBrackets = false;
+        while (idx < value.length()) {
+            final char c = value.charAt(idx);
+            if (c == TARGET_START) {
+                inBrackets = true;
+            } else if (c == TARGET_END) {
+                inBrackets = false;
+            } else if (!inBrackets && isParameterDelimiter(c)) {
+                return;
+            }
+            idx++;
+        }
+    }
+
+    /**
+     * Scan a parameter and store its value's range in {@link #parameterValueStart} and {@link #parameterValueEnd}.
+     *
+     * @return true if it's a <code>rel</code> parameter with a value
+     */
+    private boolean parseParameter() {
+        idx = skipWhitespace(value, idx);
+        final int nameStart = idx;
+        final int nameEnd = scanParameterName();
+        if (!at(EQUALS)) {
+            // a parameter without value: skip it
+            return false;
+        }
+        idx = skipWhitespace(value, idx + 1);
+        if (at(QUOTE)) {
+            idx++;
+            parameterValueStart = idx;
+            parameterValueEnd = scanQuotedValue();
+        } else {
+            parameterValueStart = idx;
+            parameterValueEnd = scanTokenValue();
+        }
+        return nameEnd - nameStart == REL.length() && value.regionMatches(true, nameStart, REL, 0, REL.length());
+    }
+
+    /**
+     * @return the end of the parameter name without trailing whitespace
+     */
+    private int scanParameterName() {
+        final int nameStart = idx;
+        while (idx < value.length() && !isParameterDelimiter(value.charAt(idx)) && value.charAt(idx) != EQUALS) {
+            idx++;
+        }
+        return trimEnd(value, nameStart, idx);
+    }
+
+    /**
+     * Scan a quoted value whose opening quote has already been skipped, and anything after the closing quote up to
+     * the next delimiter.
+     *
+     * @return the end of the value, before the closing quote
+     */
+    private int scanQuotedValue() {
+        escaped = false;
+        while (idx < value.length() && value.charAt(idx) != QUOTE) {
+            if (value.charAt(idx) == ESCAPE) {
+                escaped = true;
+                idx++;
+            }
+            idx++;
+        }
+        final int valueEnd = Math.min(idx, value.length());
+        skipToParameterDelimiter();
+        return valueEnd;
+    }
+
+    /**
+     * @return the end of the unquoted value without trailing whitespace
+     */
+    private int scanTokenValue() {
+        escaped = false;
+        final int valueStart = idx;
+        skipToParameterDelimiter();
+        return trimEnd(value, valueStart, idx);
+    }
+
+    private void skipToParameterDelimiter() {
+        while (idx < value.length() && !isParameterDelimiter(value.charAt(idx))) {
+            idx++;
+        }
+    }
+
+    private boolean at(char c) {
+        return idx < value.length() && value.charAt(idx) == c;
+    }
+
+    private void addLink(String rel, int start, int end, int targetStart, int targetEnd) {
+        int i = start;
+        while (i < end) {
+            i = skipWhitespace(rel, i);
+            final int typeStart = i;
+            while (i < end && !Character.isWhitespace(rel.charAt(i))) {
+                i++;
+            }
+            addRelationType(rel, typeStart, i - typeStart, targetStart, targetEnd);
+        }
+    }
+
+    private void addRelationType(String rel, int typeStart, int typeLength, int targetStart, int targetEnd) {
+        if (!selfFound && isRelationType(rel, typeStart, typeLength, SELF)) {
+            selfFound = true;
+            self = toUrl(value, targetStart, targetEnd);
+        } else if (!prevFound && isRelationType(rel, typeStart, typeLength, PREV)) {
+            prevFound = true;
+            prev = toUrl(value, targetStart, targetEnd);
+        } else if (!nextFound && isRelationType(rel, typeStart, typeLength, NEXT)) {
+            nextFound = true;
+            next = toUrl(value, targetStart, targetEnd);
+        }
+    }
+
+    private static boolean isRelationType(String rel, int start, int length, String type) {
+        return length == type.length() && rel.startsWith(type, start);
+    }
+
+    /**
+     * @return the target without surrounding whitespace and angle brackets, or null if it's blank
+     */
+    private static Url toUrl(String value, int start, int end) {
+        int urlStart = skipWhitespace(value, start);
+        int urlEnd = trimEnd(value, urlStart, end);
+        if (urlStart < urlEnd && value.charAt(urlStart) == TARGET_START) {
+            urlStart++;
+        }
+        if (urlStart < urlEnd && value.charAt(urlEnd - 1) == TARGET_END) {
+            urlEnd--;
+        }
+        if (skipWhitespace(value, urlStart) >= urlEnd) {
+            return null;
+        }
+        return Url.of(value.substring(urlStart, urlEnd));
+    }
+
+    private static String unescape(String value, int start, int end) {
+        final StringBuilder unescaped = new StringBuilder(end - start);
+        int i = start;
+        while (i < end) {
+            if (value.charAt(i) == ESCAPE && i + 1 < end) {
+                i++;
+            }
+            unescaped.append(value.charAt(i));
+            i++;
+        }
+        return unescaped.toString();
+    }
+
+    private static boolean isParameterDelimiter(char c) {
+        return c == PARAMETER_SEPARATOR || c == LINK_SEPARATOR;
+    }
+
+    private static int skipWhitespace(String value, int idx) {
+        int i = idx;
+        while (i < value.length() && Character.isWhitespace(value.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimEnd(String value, int start, int end) {
+        int i = end;
+        while (i > start && Character.isWhitespace(value.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+}
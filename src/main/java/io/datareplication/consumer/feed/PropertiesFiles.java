@@ -0,0 +1,43 @@
+package io.datareplication.consumer.feed;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Helpers for the small properties files that the feed consumer keeps on disk.
+ */
+final class PropertiesFiles {
+    private PropertiesFiles() {
+    }
+
+    /**
+     * Write the properties to the given file so that readers only ever see the old or the new content: write them to
+     * a temporary file in the same directory first and then move it over the target, atomically where the file system
+     * supports it.
+     *
+     * @param file       the file to write
+     * @param properties the properties to store
+     * @throws IOException if the file can't be written
+     */
+    static void writeAtomically(Path file, Properties properties) throws IOException {
+        final Path directory = file.toAbsolutePath().getParent();
+        final Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temporaryFile)) {
+                properties.store(output, null);
+            }
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+}
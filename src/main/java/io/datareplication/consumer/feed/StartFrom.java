@@ -27,6 +27,17 @@ public class StartFrom {
         @NonNull Instant timestamp;
     }
 
+    /**
+     * Resume directly from the page of a {@link FeedCheckpoint}, after the entity it points to, without crawling the
+     * feed.
+     */
+    @Value
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @EqualsAndHashCode(callSuper = false)
+    public static class Checkpoint extends StartFrom {
+        @NonNull FeedCheckpoint checkpoint;
+    }
+
     @Value
     @AllArgsConstructor(access = AccessLevel.PRIVATE)
     @EqualsAndHashCode(callSuper = false)
@@ -43,6 +54,10 @@ public class StartFrom {
         return new ContentId(contentId, timestamp);
     }
 
+    public static @NonNull Checkpoint checkpoint(@NonNull FeedCheckpoint checkpoint) {
+        return new Checkpoint(checkpoint);
+    }
+
     public static @NonNull Beginning beginning() {
         return Beginning.INSTANCE;
     }
@@ -7,11 +7,16 @@ import io.datareplication.consumer.PageFormatException;
 import io.datareplication.consumer.StreamingPage;
 import io.datareplication.internal.http.AuthSupplier;
 import io.datareplication.internal.http.HttpClient;
+import io.datareplication.internal.page.EntityBufferingOptions;
 import io.datareplication.internal.page.PageLoader;
+import io.datareplication.internal.page.ToCompleteEntitiesTransformer;
+import io.datareplication.internal.pool.BufferPool;
 import io.datareplication.model.Body;
+import io.datareplication.model.CloseableBody;
 import io.datareplication.model.Entity;
 import io.datareplication.model.HttpHeader;
 import io.datareplication.model.HttpHeaders;
+import io.datareplication.model.ReferenceCountedBody;
 import io.datareplication.model.Url;
 import io.datareplication.model.snapshot.SnapshotEntityHeader;
 import io.datareplication.model.snapshot.SnapshotIndex;
@@ -20,12 +25,14 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Flow;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
@@ -147,6 +154,13 @@ public interface SnapshotConsumer {
         private AuthSupplier authSupplier;
         private int networkConcurrency;
         private boolean delayErrors;
+        private boolean useEntityContentLength;
+        private long maxEntitySize;
+        private long spillThreshold;
+        private Optional<Path> spillDirectory;
+        private Optional<Long> bodyPoolCapacity;
+        private boolean detectBodyLeaks;
+        private Predicate<? super SnapshotEntityHeader> entityFilter;
 
         // TODO: HTTP timeouts
 
@@ -226,6 +240,146 @@ public interface SnapshotConsumer {
             return this;
         }
 
+        /**
+         * <p>When enabled, use the <code>Content-Length</code> header of each entity in a page to read exactly that
+         * many body bytes. Defaults to false.</p>
+         *
+         * <p>The body is still checked for the multipart delimiter, so the declared lengths aren't trusted blindly:
+         * entities without a valid <code>Content-Length</code> header, or whose body isn't followed by a delimiter,
+         * are scanned as usual, and a <code>Content-Length</code> that is too large fails the page with a
+         * {@link io.datareplication.consumer.PageFormatException} rather than merging entities. Pages produced by
+         * this library always have correct lengths.</p>
+         *
+         * @param useEntityContentLength when true, slice entity bodies using their <code>Content-Length</code> header
+         * @return this builder
+         */
+        public @NonNull Builder useEntityContentLength(boolean useEntityContentLength) {
+            this.useEntityContentLength = useEntityContentLength;
+            return this;
+        }
+
+        /**
+         * <p>Set the maximum size in bytes of an entity body that is downloaded completely, i.e. by
+         * {@link StreamingPage#toCompleteEntities()}, {@link StreamingPage#toCompletePage()} and
+         * {@link SnapshotConsumer#streamEntities(SnapshotIndex)}. Defaults to no limit.</p>
+         *
+         * <p>Since complete entities are kept in memory, this protects against pages with huge (or hostile) entities
+         * exhausting the heap. An entity whose <code>Content-Length</code> header exceeds the limit fails as soon as
+         * its headers are parsed; entities without a <code>Content-Length</code> fail as soon as their body exceeds
+         * the limit. In both cases, a {@link PageFormatException.EntityTooLarge} error is raised. Streaming entity
+         * bodies chunk by chunk is not affected by this limit.</p>
+         *
+         * @param maxEntitySize the maximum size of an entity body in bytes
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is &lt;= 0
+         */
+        public @NonNull Builder maxEntitySize(long maxEntitySize) {
+            if (maxEntitySize <= 0) {
+                throw new IllegalArgumentException("maxEntitySize must be >= 1");
+            }
+            this.maxEntitySize = maxEntitySize;
+            return this;
+        }
+
+        /**
+         * <p>Write entity bodies larger than the given threshold to temporary files instead of keeping them in memory.
+         * This applies to entities that are downloaded completely, i.e. by
+         * {@link StreamingPage#toCompleteEntities()}, {@link StreamingPage#toCompletePage()} and
+         * {@link SnapshotConsumer#streamEntities(SnapshotIndex)}. Defaults to keeping all entities in memory.</p>
+         *
+         * <p>Entities whose <code>Content-Length</code> header is above the threshold are written to disk right away;
+         * others are buffered in memory until they grow past the threshold. Either way, at most
+         * <code>threshold</code> bytes of an entity body are held in memory at once. Spilled entities have a
+         * {@link CloseableBody} which deletes its file when closed, so close the bodies of entities you're done with
+         * (files of unclosed bodies are only deleted once the body is garbage collected). Entities below the threshold
+         * are kept in memory as usual.</p>
+         *
+         * @param threshold the size in bytes above which entity bodies are written to disk
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is &lt; 0
+         */
+        public @NonNull Builder spillToDisk(long threshold) {
+            if (threshold < 0) {
+                throw new IllegalArgumentException("spill threshold must be >= 0");
+            }
+            this.spillThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Like {@link #spillToDisk(long)}, but create the temporary files in the given directory instead of the
+         * default temporary-file directory.
+         *
+         * @param threshold the size in bytes above which entity bodies are written to disk
+         * @param directory the directory for temporary files
+         * @return this builder
+         * @throws IllegalArgumentException if the threshold is &lt; 0
+         */
+        public @NonNull Builder spillToDisk(long threshold, @NonNull Path directory) {
+            spillToDisk(threshold);
+            this.spillDirectory = Optional.of(directory);
+            return this;
+        }
+
+        /**
+         * <p>Keep the bodies of entities that are downloaded completely in pooled off-heap buffers instead of the heap
+         * buffers they were downloaded into. This applies to {@link StreamingPage#toCompleteEntities()},
+         * {@link StreamingPage#toCompletePage()} and {@link SnapshotConsumer#streamEntities(SnapshotIndex)}.
+         * Disabled by default.</p>
+         *
+         * <p>Entity bodies are copied into direct buffers from a pool with power-of-two size classes between 4 KiB
+         * and 1 MiB, sized by their <code>Content-Length</code> where it's known. The heap buffers of the download
+         * then become garbage right away instead of living as long as the entities, which keeps them out of the old
+         * generation at high ingest rates.</p>
+         *
+         * <p>Entities get a {@link ReferenceCountedBody}: <strong>release it (or close it) when you're done with the
+         * entity</strong> so that its buffers can be reused. Bodies that are never released are garbage collected
+         * like any other object, but their buffers don't go back to the pool. Use {@link #detectBodyLeaks(boolean)}
+         * to find them. Entities that are spilled to disk (see {@link #spillToDisk(long)}) don't use the pool.</p>
+         *
+         * @param poolCapacity the maximum number of bytes in idle buffers that the pool keeps for reuse
+         * @return this builder
+         * @throws IllegalArgumentException if the argument is &lt; 0
+         */
+        public @NonNull Builder pooledBodies(long poolCapacity) {
+            if (poolCapacity < 0) {
+                throw new IllegalArgumentException("poolCapacity must be >= 0");
+            }
+            this.bodyPoolCapacity = Optional.of(poolCapacity);
+            return this;
+        }
+
+        /**
+         * <p>When enabled, log an error for every pooled entity body that is garbage collected without having been
+         * released, including the stack trace of where it was created, and return its buffers to the pool. Defaults
+         * to false. Only has an effect together with {@link #pooledBodies(long)}.</p>
+         *
+         * <p>This captures a stack trace for every entity, so it's meant for debugging and tests, not for
+         * production.</p>
+         *
+         * @param detectBodyLeaks when true, track pooled bodies that are never released
+         * @return this builder
+         */
+        public @NonNull Builder detectBodyLeaks(boolean detectBodyLeaks) {
+            this.detectBodyLeaks = detectBodyLeaks;
+            return this;
+        }
+
+        /**
+         * Only return entities whose header matches the given predicate from
+         * {@link SnapshotConsumer#streamEntities(SnapshotIndex)}. The predicate is tested as soon as an entity's
+         * headers have been parsed; the body of a rejected entity is skipped without being buffered, so filtering out
+         * most of a snapshot is much cheaper than filtering the returned entities. {@link #streamPages} is not
+         * affected. Defaults to accepting every entity.
+         *
+         * @param filter returns true for the entities to return
+         * @return this builder
+         */
+        public @NonNull Builder entityFilter(@NonNull Predicate<? super SnapshotEntityHeader> filter) {
+            this.entityFilter = filter;
+            return this;
+        }
+
         /**
          * Build a new {@link SnapshotConsumer} with the parameters set on this builder.
          *
@@ -236,11 +390,18 @@ public interface SnapshotConsumer {
                                                   HttpHeaders.of(additionalHeaders),
                                                   Optional.empty(),
                                                   Optional.empty());
-            final var pageLoader = new PageLoader(httpClient);
+            final var pageLoader = new PageLoader(httpClient, useEntityContentLength);
+            final EntityBufferingOptions entityBuffering = new EntityBufferingOptions(
+                maxEntitySize,
+                spillThreshold,
+                spillDirectory,
+                bodyPoolCapacity.map(capacity -> new BufferPool(capacity, detectBodyLeaks)));
             return new SnapshotConsumerImpl(httpClient,
                                             pageLoader,
                                             networkConcurrency,
-                                            delayErrors);
+                                            delayErrors,
+                                            entityBuffering,
+                                            entityFilter);
         }
     }
 
@@ -254,6 +415,13 @@ public interface SnapshotConsumer {
         return new Builder(new ArrayList<>(),
                            AuthSupplier.none(),
                            2,
-                           false);
+                           false,
+                           false,
+                           ToCompleteEntitiesTransformer.UNLIMITED,
+                           ToCompleteEntitiesTransformer.UNLIMITED,
+                           Optional.empty(),
+                           Optional.empty(),
+                           false,
+                           header -> true);
     }
 }
@@ -3,7 +3,9 @@ package io.datareplication.consumer.snapshot;
 import io.datareplication.consumer.ConsumerException;
 import io.datareplication.consumer.StreamingPage;
 import io.datareplication.internal.http.HttpClient;
+import io.datareplication.internal.page.EntityBufferingOptions;
 import io.datareplication.internal.page.PageLoader;
+import io.datareplication.internal.page.ToCompleteEntitiesTransformer;
 import io.datareplication.internal.page.WrappedStreamingPage;
 import io.datareplication.model.Body;
 import io.datareplication.model.ContentType;
@@ -25,6 +27,7 @@ import java.net.http.HttpResponse;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Flow;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
 class SnapshotConsumerImpl implements SnapshotConsumer {
@@ -34,6 +37,8 @@ class SnapshotConsumerImpl implements SnapshotConsumer {
     private final PageLoader pageLoader;
     private final int networkConcurrency;
     private final boolean delayErrors;
+    private final EntityBufferingOptions entityBuffering;
+    private final Predicate<? super SnapshotEntityHeader> entityFilter;
 
     @Override
     public @NonNull CompletionStage<@NonNull SnapshotIndex> loadSnapshotIndex(@NonNull final Url url) {
@@ -66,7 +71,8 @@ class SnapshotConsumerImpl implements SnapshotConsumer {
         @NonNull Entity<@NonNull SnapshotEntityHeader>
         > streamEntities(@NonNull final SnapshotIndex snapshotIndex) {
         final var entities = streamPagesInternal(snapshotIndex, networkConcurrency)
-            .map(page -> JdkFlowAdapter.flowPublisherToFlux(page.toCompleteEntities()));
+            .map(page -> JdkFlowAdapter.flowPublisherToFlux(
+                ToCompleteEntitiesTransformer.toCompleteEntities(page, entityBuffering, entityFilter)));
         // Not sure about prefetch here, maybe this needs to be tuned?
         final var flux = (delayErrors
             ? entities.flatMapDelayError(Function.identity(), networkConcurrency, 1)
@@ -93,7 +99,8 @@ class SnapshotConsumerImpl implements SnapshotConsumer {
     ) {
         return new WrappedStreamingPage<>(page,
             new SnapshotPageHeader(page.header()),
-            (index, httpHeaders) -> new SnapshotEntityHeader(httpHeaders));
+            (index, httpHeaders) -> new SnapshotEntityHeader(httpHeaders),
+            entityBuffering);
     }
 
     private <T> Flux<T> rewrapCompositeErrors(Throwable exception) {
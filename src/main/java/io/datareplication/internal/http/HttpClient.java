@@ -74,9 +74,31 @@ public class HttpClient {
     @NonNull
     public <T> Mono<@NonNull HttpResponse<T>> get(@NonNull Url url,
                                                   @NonNull HttpResponse.BodyHandler<T> bodyHandler) {
+        return get(url, HttpHeaders.EMPTY, bodyHandler);
+    }
+
+    /**
+     * Perform a GET request with additional headers for just this request, e.g. the validators of a conditional
+     * request. Error handling is the same as for {@link #get(Url, HttpResponse.BodyHandler)}.
+     *
+     * @param url            the URL to request
+     * @param requestHeaders headers to add to this request
+     * @param bodyHandler    how to return the response body
+     * @param <T>            the type of the response body
+     * @return the response if the request was successful
+     */
+    @NonNull
+    public <T> Mono<@NonNull HttpResponse<T>> get(@NonNull Url url,
+                                                  @NonNull HttpHeaders requestHeaders,
+                                                  @NonNull HttpResponse.BodyHandler<T> bodyHandler) {
         return Mono
             .fromSupplier(() -> newRequest(url))
-            .map(req -> req.GET().build())
+            .map(req -> {
+                for (HttpHeader header : requestHeaders) {
+                    addHeader(req, header);
+                }
+                return req.GET().build();
+            })
             .flatMap(request -> send(url, request, bodyHandler));
     }
 
@@ -0,0 +1,146 @@
+package io.datareplication.internal.http;
+
+import lombok.NonNull;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * <p>Parse HTTP dates like <code>Sun, 06 Nov 1994 08:49:37 GMT</code>, the IMF-fixdate format that the
+ * <code>Last-Modified</code> headers of feeds are written in. Formatting is done by
+ * {@link io.datareplication.model.HttpHeader#lastModified(Instant)}.</p>
+ *
+ * <p>IMF-fixdates are read directly from their characters instead of going through a {@link DateTimeFormatter}, and
+ * the most recently parsed value is cached since neighbouring entities of a feed often share a timestamp. Anything
+ * that isn't an IMF-fixdate (e.g. single-digit days or numeric offsets) is handed to
+ * {@link DateTimeFormatter#RFC_1123_DATE_TIME}, so the results are always the same as those of the full parser.</p>
+ */
+public final class HttpDates {
+    private static final int IMF_FIXDATE_LENGTH = 29;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int MAX_HOUR = 23;
+    private static final int MAX_MINUTE = 59;
+    private static final int MAX_SECOND = 59;
+    private static final int INVALID = -1;
+    // indexed by DayOfWeek.ordinal() and Month.ordinal(); HttpHeader.lastModified writes the same names
+    private static final String[] DAY_NAMES = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    private static final String[] MONTH_NAMES = {
+        "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec",
+    };
+
+    // Written and read from any thread; Parsed only has final fields, so a racy read sees a complete object.
+    private static volatile Parsed lastParsed = new Parsed("Thu, 01 Jan 1970 00:00:00 GMT", Instant.EPOCH);
+
+    private HttpDates() {
+    }
+
+    /**
+     * Parse an HTTP date with the same result as {@link DateTimeFormatter#RFC_1123_DATE_TIME}.
+     *
+     * @param text the date to parse
+     * @return the parsed timestamp
+     * @throws DateTimeParseException if the text isn't a valid RFC 1123 date
+     */
+    public static @NonNull Instant parse(@NonNull String text) {
+        final Parsed cached = lastParsed;
+        if (cached.text.equals(text)) {
+            return cached.instant;
+        }
+        final long epochSecond = parseImfFixdate(text);
+        final Instant instant = epochSecond == Long.MIN_VALUE
+            ? Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(text))
+            : Instant.ofEpochSecond(epochSecond);
+        lastParsed = new Parsed(text, instant);
+        return instant;
+    }
+
+    /**
+     * @return the epoch second of the IMF-fixdate, or {@link Long#MIN_VALUE} if the text isn't a valid IMF-fixdate
+     */
+    private static long parseImfFixdate(String text) {
+        if (!hasImfFixdateLayout(text)) {
+            return Long.MIN_VALUE;
+        }
+        final LocalDate date = date(text);
+        final int hour = digits(text, 17, 2, MAX_HOUR);
+        final int minute = digits(text, 20, 2, MAX_MINUTE);
+        final int second = digits(text, 23, 2, MAX_SECOND);
+        if (date == null || hour == INVALID || minute == INVALID || second == INVALID) {
+            return Long.MIN_VALUE;
+        }
+        return date.toEpochDay() * SECONDS_PER_DAY + hour * SECONDS_PER_HOUR + minute * SECONDS_PER_MINUTE + second;
+    }
+
+    /**
+     * Check the length and the separators of an IMF-fixdate, but not the fields between them.
+     */
+    private static boolean hasImfFixdateLayout(String text) {
+        return text.length() == IMF_FIXDATE_LENGTH
+            && text.charAt(3) == ','
+            && text.charAt(4) == ' '
+            && text.charAt(7) == ' '
+            && text.charAt(11) == ' '
+            && text.charAt(16) == ' '
+            && text.charAt(19) == ':'
+            && text.charAt(22) == ':'
+            && text.charAt(25) == ' '
+            && text.startsWith("GMT", 26);
+    }
+
+    /**
+     * @return the date of an IMF-fixdate, or null if it's not a valid date or doesn't match the day name
+     */
+    private static LocalDate date(String text) {
+        final int day = digits(text, 5, 2, Integer.MAX_VALUE);
+        final int month = monthNumber(text);
+        final int year = digits(text, 12, 4, Integer.MAX_VALUE);
+        if (day < 1 || month == INVALID || year == INVALID) {
+            return null;
+        }
+        final LocalDate firstOfMonth = LocalDate.of(year, month, 1);
+        if (day > firstOfMonth.lengthOfMonth()) {
+            return null;
+        }
+        final LocalDate date = firstOfMonth.withDayOfMonth(day);
+        return text.startsWith(DAY_NAMES[date.getDayOfWeek().ordinal()]) ? date : null;
+    }
+
+    /**
+     * @return the number written with the given count of digits, or {@link #INVALID} if there's a non-digit or the
+     *     number is larger than max
+     */
+    private static int digits(String text, int start, int count, int max) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            final int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+        }
+        return value > max ? INVALID : value;
+    }
+
+    private static int monthNumber(String text) {
+        for (int i = 0; i < MONTH_NAMES.length; i++) {
+            if (text.startsWith(MONTH_NAMES[i], 8)) {
+                return i + 1;
+            }
+        }
+        return INVALID;
+    }
+
+    private static final class Parsed {
+        private final String text;
+        private final Instant instant;
+
+        private Parsed(String text, Instant instant) {
+            this.text = text;
+            this.instant = instant;
+        }
+    }
+}
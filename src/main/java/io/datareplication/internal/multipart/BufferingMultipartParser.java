@@ -1,19 +1,39 @@
 package io.datareplication.internal.multipart;
 
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Parse a multipart document, internally buffering bytes that haven't been consumed yet.
  * {@link #parse(ByteBuffer)} internally calls {@link MultipartParser#parse(ByteBuffer)} until the input is exhausted
  * or the parser requests more input, then buffers any leftover bytes internally.
+ *
+ * <p>Leftover bytes are kept in a carry buffer that's reused across calls. When the next buffer comes in, only as much
+ * of it is appended to the carry buffer as is needed to parse the token that straddles the two buffers; everything
+ * after that is parsed from the new buffer directly. This means the number of copied bytes depends on the size of
+ * the straddling tokens (i.e. headers and delimiters), not on the size of the input buffers. Since the carry buffer
+ * is reused, {@link Token.Data} parsed from it is copied before it's handed out ("copy-on-retain"); data parsed
+ * directly from an input buffer is a slice of that buffer like before.</p>
  */
 public class BufferingMultipartParser {
+    private static final int MIN_APPEND_BYTES = 128;
+
     private final MultipartParser parser;
+    // reused by the pull-style parse method
+    private final TokenCollector collector = new TokenCollector();
     private long offset;
+    private boolean parsedAny;
+
+    /**
+     * Leftover input between position and limit. The backing array is reused, so no slices of it must escape.
+     */
+    private ByteBuffer carry = ByteBuffer.allocate(0);
 
-    private ByteBuffer buffer = ByteBuffer.allocate(0);
+    private enum Outcome {
+        EXHAUSTED,
+        NEED_INPUT,
+        FAILED,
+    }
 
     public BufferingMultipartParser(final MultipartParser parser) {
         this.parser = parser;
@@ -27,20 +47,41 @@ public class BufferingMultipartParser {
      * @return all tokens that could be fully parsed
      */
     public List<Token> parse(ByteBuffer next) {
-        if (buffer.hasRemaining()) {
-            // NB: we probably have to allocate a new buffer each time: since ByteBuffer is mutable, reusing an existing
-            // buffer likely breaks references to input we handed out previously (i.e. Elem.Data)
-            final ByteBuffer newBuffer = ByteBuffer.allocate(buffer.remaining() + next.remaining());
-            newBuffer.put(buffer);
-            newBuffer.put(next.slice());
-            newBuffer.position(0);
-            buffer = newBuffer;
-        } else {
-            buffer = next.slice();
-        }
-        return parseAll();
+        collector.clear();
+        parse(next, collector);
+        return collector.drain();
     }
 
+    /**
+     * Feed a buffer of input and push as many tokens as can be parsed from the new buffer and any leftover buffered
+     * input into the given sink. This is the push-style counterpart to {@link #parse(ByteBuffer)}: no {@link Token}
+     * objects or intermediate lists are created.
+     *
+     * @param next a new buffer of bytes to append to the parser input
+     * @param sink receives all tokens that could be fully parsed
+     */
+    public void parse(ByteBuffer next, TokenSink sink) {
+        final ByteBuffer input = next.slice();
+        parsedAny = false;
+        Outcome outcome = Outcome.EXHAUSTED;
+        if (carry.hasRemaining()) {
+            final TokenSink copyingSink = new CopyOnRetainSink(sink);
+            while (carry.hasRemaining() && input.hasRemaining() && outcome != Outcome.FAILED) {
+                final int appended = appendToCarry(input, Math.max(carry.remaining(), MIN_APPEND_BYTES));
+                outcome = parseAll(carry, copyingSink);
+                if (outcome != Outcome.FAILED && carry.remaining() <= appended) {
+                    // Everything that was carried over has been consumed. The rest is still in the input buffer, so
+                    // we continue there instead of copying it.
+                    input.position(input.position() - carry.remaining());
+                    carry.position(carry.limit());
+                }
+            }
+        }
+        if (!carry.hasRemaining() && outcome != Outcome.FAILED) {
+            parseAll(input, sink);
+        }
+        appendToCarry(input, input.remaining());
+    }
     /**
      * Verify that the parser is "at end", i.e. the given input formed a complete multipart document.
      *
@@ -50,7 +91,7 @@ public class BufferingMultipartParser {
      *                            called again, then finish() will throw that exception.
      */
     public void finish() {
-        if (buffer.hasRemaining()) {
+        if (carry.hasRemaining()) {
             // finish() being called with input remaining can have one of two reasons:
             //  - The final input block had a syntax problem and parseAll() returned all tokens that it could
             //    successfully parse, leaving the problem area in the buffer. In this case, we want to throw the
@@ -59,7 +100,7 @@ public class BufferingMultipartParser {
             // To figure out which case it is, we call parse() once, rethrow any MultipartException, and throw
             // UnexpectedEndOfInput otherwise.
             try {
-                parser.parse(buffer);
+                parser.parse(carry);
             } catch (RequestInput ignored) {
             }
             throw new MultipartException.UnexpectedEndOfInput(offset);
@@ -70,27 +111,105 @@ public class BufferingMultipartParser {
         }
     }
 
-    private List<Token> parseAll() {
-        final ArrayList<Token> parsed = new ArrayList<>();
+    private Outcome parseAll(ByteBuffer buffer, TokenSink sink) {
         while (buffer.hasRemaining()) {
             try {
-                final MultipartParser.Result result = parser.parse(buffer);
-                parsed.add(result.token());
-                offset += result.consumedBytes();
-                buffer.position(buffer.position() + result.consumedBytes());
+                final int consumedBytes = parser.parse(buffer, sink);
+                parsedAny = true;
+                offset += consumedBytes;
+                buffer.position(buffer.position() + consumedBytes);
             } catch (MultipartException exc) {
                 // If we have already parsed some tokens, we return those. Since we remember our position, the
                 // exception we swallow here will be thrown when this method is called again or when finish() is
                 // called. This allows us to parse as much as possible even in the face of invalid input.
-                if (parsed.isEmpty()) {
-                    throw exc;
+                if (parsedAny) {
+                    return Outcome.FAILED;
                 } else {
-                    break;
+                    throw exc;
                 }
             } catch (RequestInput r) {
-                break;
+                return Outcome.NEED_INPUT;
             }
         }
-        return parsed;
+        return Outcome.EXHAUSTED;
+    }
+
+    /**
+     * Move up to <code>maxBytes</code> bytes from the input to the end of the carry buffer, growing it if needed.
+     *
+     * @return the number of bytes moved
+     */
+    private int appendToCarry(ByteBuffer input, int maxBytes) {
+        final int count = Math.min(maxBytes, input.remaining());
+        if (count == 0) {
+            return 0;
+        }
+        if (carry.capacity() - carry.limit() < count) {
+            final int needed = carry.remaining() + count;
+            if (needed > carry.capacity()) {
+                final ByteBuffer grown = ByteBuffer.allocate(Math.max(needed, 2 * carry.capacity()));
+                grown.put(carry);
+                carry = grown;
+            } else {
+                carry.compact();
+            }
+            carry.flip();
+        }
+        final int end = carry.limit();
+        carry.limit(end + count);
+        final ByteBuffer chunk = input.duplicate();
+        chunk.limit(chunk.position() + count);
+        carry.duplicate().position(end).put(chunk);
+        input.position(chunk.position());
+        return count;
+    }
+
+    /**
+     * Copies {@link Token.Data} parsed from the carry buffer so that the reused buffer doesn't leak to the sink.
+     */
+    private static final class CopyOnRetainSink implements TokenSink {
+        private final TokenSink delegate;
+
+        private CopyOnRetainSink(TokenSink delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onContinue() {
+            delegate.onContinue();
+        }
+
+        @Override
+        public void onPartBegin() {
+            delegate.onPartBegin();
+        }
+
+        @Override
+        public void onHeader(String name, String value) {
+            delegate.onHeader(name, value);
+        }
+
+        @Override
+        public void onDataBegin() {
+            delegate.onDataBegin();
+        }
+
+        @Override
+        public long expectedBodyLength() {
+            return delegate.expectedBodyLength();
+        }
+
+        @Override
+        public void onData(ByteBuffer data) {
+            final ByteBuffer copy = ByteBuffer.allocate(data.remaining());
+            copy.put(data);
+            copy.flip();
+            delegate.onData(copy);
+        }
+
+        @Override
+        public void onPartEnd() {
+            delegate.onPartEnd();
+        }
     }
 }
@@ -28,7 +28,7 @@ class Combinators {
         return (ByteBuffer input, int start) -> {
             for (int i = 0; i < tag.capacity(); i++) {
                 int inputIdx = start + i;
-                if (inputIdx >= input.capacity()) {
+                if (inputIdx >= input.limit()) {
                     throw new RequestInput();
                 }
                 byte needleByte = tag.get(i);
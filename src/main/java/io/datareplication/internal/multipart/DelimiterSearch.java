@@ -0,0 +1,124 @@
+package io.datareplication.internal.multipart;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>Strategies for finding line endings in multipart input. Every multipart delimiter starts with a line ending, so
+ * the positions found here are the candidate delimiter positions that {@link MultipartParser} has to look at.</p>
+ *
+ * <p>All strategies find exactly the same positions and throw {@link RequestInput} in exactly the same situations (a
+ * <code>'\r'</code> as the final input byte that may or may not turn out to be part of a CRLF). They only differ in
+ * how fast they get there.</p>
+ */
+public enum DelimiterSearch {
+    /**
+     * Reference implementation based on {@link Combinators}: tries to match a line ending at every single offset.
+     */
+    SCAN {
+        @Override
+        int findEol(ByteBuffer input, int from) {
+            return Combinators
+                .scan(Combinators.eol())
+                .parse(input, from)
+                .map(Combinators.Pos::start)
+                .orElse(NOT_FOUND);
+        }
+    },
+    /**
+     * Look at eight bytes at a time ("SIMD within a register") and only inspect individual bytes once a word contains
+     * a <code>'\r'</code> or <code>'\n'</code>. Doesn't allocate.
+     */
+    SWAR {
+        @Override
+        int findEol(ByteBuffer input, int from) {
+            final int limit = input.limit();
+            final boolean bigEndian = input.order() == ByteOrder.BIG_ENDIAN;
+            int idx = from;
+            while (idx + Long.BYTES <= limit) {
+                long word = input.getLong(idx);
+                if (bigEndian) {
+                    // we want the first byte in the buffer to be the least significant byte in the word so that the
+                    // lowest match bit belongs to the first match; see matchMask
+                    word = Long.reverseBytes(word);
+                }
+                final long matches = matchMask(word, LF_WORD) | matchMask(word, CR_WORD);
+                if (matches == 0) {
+                    idx += Long.BYTES;
+                } else {
+                    idx += Long.numberOfTrailingZeros(matches) >>> 3;
+                    if (isEolAt(input, idx)) {
+                        return idx;
+                    }
+                    // lone '\r', keep going from the byte after it
+                    idx++;
+                }
+            }
+            for (; idx < limit; idx++) {
+                if (isEolAt(input, idx)) {
+                    return idx;
+                }
+            }
+            return NOT_FOUND;
+        }
+    };
+
+    /**
+     * Returned by {@link #findEol(ByteBuffer, int)} when there is no line ending in the input.
+     */
+    static final int NOT_FOUND = -1;
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final long ONES = 0x0101_0101_0101_0101L;
+    private static final long HIGH_BITS = 0x8080_8080_8080_8080L;
+    private static final long CR_WORD = ONES * CR;
+    private static final long LF_WORD = ONES * LF;
+
+    /**
+     * Find the start of the first line ending (<code>"\r\n"</code> or <code>"\n"</code>) between <code>from</code>
+     * and the input's limit.
+     *
+     * @param input the input buffer; absolute indices are used, position is ignored
+     * @param from  the index to start searching at
+     * @return the index of the first line ending or {@link #NOT_FOUND}
+     * @throws RequestInput if a <code>'\r'</code> is the final byte of the input before any line ending was found
+     */
+    abstract int findEol(ByteBuffer input, int from);
+
+    /**
+     * Return the length of the line ending starting at the given index, which must be a position returned by
+     * {@link #findEol(ByteBuffer, int)}.
+     *
+     * @param input the input buffer
+     * @param eol   the start index of the line ending
+     * @return 2 for CRLF, 1 for LF
+     */
+    static int eolLength(ByteBuffer input, int eol) {
+        return input.get(eol) == CR ? 2 : 1;
+    }
+
+    /**
+     * The classic "has zero byte" trick applied to <code>word ^ pattern</code>: sets the high bit of every byte in
+     * <code>word</code> that's equal to the byte repeated in <code>pattern</code>. Bytes following (i.e. more
+     * significant than) a match can produce false positives, but the lowest set bit always marks a genuine match.
+     */
+    private static long matchMask(long word, long pattern) {
+        final long x = word ^ pattern;
+        return (x - ONES) & ~x & HIGH_BITS;
+    }
+
+    private static boolean isEolAt(ByteBuffer input, int idx) {
+        final byte b = input.get(idx);
+        if (b == LF) {
+            return true;
+        } else if (b == CR) {
+            if (idx + 1 >= input.limit()) {
+                throw new RequestInput();
+            }
+            return input.get(idx + 1) == LF;
+        } else {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.datareplication.internal.multipart;
+
+import io.datareplication.model.HttpHeader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>Split pure-ASCII header lines into name and value without going through a
+ * {@link java.nio.charset.CharsetDecoder}. Only valid for charsets that are ASCII-compatible, i.e. that decode bytes
+ * below 0x80 to the same characters as ASCII does.</p>
+ *
+ * <p>Well-known header names that appear in every entity are mapped to the name constants in {@link HttpHeader}
+ * (when they match exactly, including capitalization) so that they aren't allocated over and over again and so that
+ * {@link HttpHeader} can look up their normalized form without lowercasing them.</p>
+ */
+final class HeaderTokenizer {
+    private static final String[] WELL_KNOWN_NAMES = {
+        HttpHeader.CONTENT_TYPE,
+        HttpHeader.CONTENT_ID,
+        HttpHeader.CONTENT_LENGTH,
+        HttpHeader.LAST_MODIFIED,
+        HttpHeader.OPERATION_TYPE,
+    };
+    private static final int ASCII_MASK = 0x80;
+    private static final int NO_COLON = -1;
+    private static final int NON_ASCII = -2;
+
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Tokenize the header line between <code>start</code> and <code>end</code> and push the result into the sink.
+     *
+     * @param input  the input buffer; absolute indices are used
+     * @param start  the start of the header line
+     * @param end    the end of the header line, excluding the line ending
+     * @param offset the offset of the line in the document, for error messages
+     * @param sink   receives the header if the line could be tokenized
+     * @return false if the line contains non-ASCII bytes and needs to be decoded properly; nothing is pushed into the
+     *     sink in this case
+     * @throws MultipartException.InvalidHeader if the line doesn't contain a <code>':'</code>
+     */
+    boolean tokenize(ByteBuffer input, int start, int end, long offset, TokenSink sink) {
+        final int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, 2 * scratch.length)];
+        }
+        final byte[] bytes = scratch;
+        input.duplicate().position(start).get(bytes, 0, length);
+        final int colon = findColon(bytes, length);
+        if (colon == NON_ASCII) {
+            return false;
+        } else if (colon == NO_COLON) {
+            throw new MultipartException.InvalidHeader(new String(bytes, 0, length, StandardCharsets.US_ASCII), offset);
+        }
+
+        // same semantics as String.trim(), which the decoding path uses
+        final int nameStart = skipLeadingWhitespace(bytes, 0, colon);
+        final int nameEnd = skipTrailingWhitespace(bytes, nameStart, colon);
+        final int valueStart = skipLeadingWhitespace(bytes, colon + 1, length);
+        final int valueEnd = skipTrailingWhitespace(bytes, valueStart, length);
+
+        final String name = name(bytes, nameStart, nameEnd);
+        final String value = new String(bytes, valueStart, valueEnd - valueStart, StandardCharsets.US_ASCII);
+        sink.onHeader(name, value);
+        return true;
+    }
+
+    /**
+     * @return the index of the first <code>':'</code>, {@link #NO_COLON} if there is none, or {@link #NON_ASCII} if
+     *     the line contains a non-ASCII byte
+     */
+    private static int findColon(byte[] bytes, int length) {
+        int colon = NO_COLON;
+        for (int i = 0; i < length; i++) {
+            final byte b = bytes[i];
+            if ((b & ASCII_MASK) != 0) {
+                return NON_ASCII;
+            }
+            if (b == ':' && colon == NO_COLON) {
+                colon = i;
+            }
+        }
+        return colon;
+    }
+
+    private static int skipLeadingWhitespace(byte[] bytes, int start, int end) {
+        int index = start;
+        while (index < end && bytes[index] <= ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipTrailingWhitespace(byte[] bytes, int start, int end) {
+        int index = end;
+        while (index > start && bytes[index - 1] <= ' ') {
+            index--;
+        }
+        return index;
+    }
+
+    private static String name(byte[] bytes, int start, int end) {
+        for (String candidate : WELL_KNOWN_NAMES) {
+            if (matches(bytes, start, end, candidate)) {
+                return candidate;
+            }
+        }
+        return new String(bytes, start, end - start, StandardCharsets.US_ASCII);
+    }
+
+    private static boolean matches(byte[] bytes, int start, int end, String candidate) {
+        if (end - start != candidate.length()) {
+            return false;
+        }
+        for (int i = 0; i < candidate.length(); i++) {
+            if (bytes[start + i] != candidate.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
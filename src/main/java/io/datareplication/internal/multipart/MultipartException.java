@@ -43,6 +43,16 @@ public abstract class MultipartException extends RuntimeException {
         }
     }
 
+    @EqualsAndHashCode(callSuper = false)
+    public static final class InvalidBodyLength extends MultipartException {
+        private final long offset;
+
+        public InvalidBodyLength(long offset) {
+            super(String.format("multipart delimiter within the declared length of the part body at %d", offset));
+            this.offset = offset;
+        }
+    }
+
     @EqualsAndHashCode(callSuper = false)
     public static final class UnexpectedEndOfInput extends MultipartException {
         private final long offset;
@@ -9,10 +9,9 @@ import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
-import java.util.Optional;
 
 /**
-  * Parse a multipart document into {@link Token Tokens}. Somewhat faithfully implements
+ * Parse a multipart document into {@link Token Tokens}. Somewhat faithfully implements
  * <a href="https://datatracker.ietf.org/doc/html/rfc2046#page-22">RFC 2046</a>.
  */
 public class MultipartParser {
@@ -20,17 +19,22 @@ public class MultipartParser {
     private long offset;
     private final ByteBuffer dashBoundary;
     private final CharsetDecoder headerDecoder;
+    private final boolean asciiCompatibleHeaders;
+    private final HeaderTokenizer headerTokenizer = new HeaderTokenizer();
+    // reused by the pull-style parse method
+    private final TokenCollector collector = new TokenCollector();
+    private final DelimiterSearch delimiterSearch;
+    private final boolean lengthDirected;
+    private long remainingBodyBytes = TokenSink.UNKNOWN_LENGTH;
 
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
     private static final ByteBuffer CLOSE_DELIMITER = ByteBuffer.wrap("--".getBytes(StandardCharsets.US_ASCII));
 
     @Value
     public static class Result {
         @NonNull Token token;
         int consumedBytes;
-
-        private static Result data(ByteBuffer data) {
-            return new Result(new Token.Data(data), data.limit());
-        }
     }
 
     private enum State {
@@ -41,17 +45,50 @@ public class MultipartParser {
         EPILOGUE,
     }
 
-    public MultipartParser(@NonNull ByteBuffer boundary, @NonNull Charset headerCharset) {
+    /**
+     * @param boundary        the multipart boundary, without leading dashes
+     * @param headerCharset   the charset to decode part headers with
+     * @param delimiterSearch the strategy to find delimiter candidates in part bodies with
+     * @param lengthDirected  when true, ask the sink for the body length of each part
+     *                        ({@link TokenSink#expectedBodyLength()}) and, if it's known, return the body in slices
+     *                        of that length without holding back line endings that may start a delimiter. If the
+     *                        delimiter isn't at the end of the body, the parser falls back to scanning for it. The
+     *                        slices are still checked for delimiters, so a length that's too large fails with
+     *                        {@link MultipartException.InvalidBodyLength} instead of merging parts.
+     */
+    public MultipartParser(@NonNull ByteBuffer boundary,
+                           @NonNull Charset headerCharset,
+                           @NonNull DelimiterSearch delimiterSearch,
+                           boolean lengthDirected) {
         state = State.PREAMBLE;
         offset = 0;
         headerDecoder = headerCharset
                 .newDecoder()
                 .onMalformedInput(CodingErrorAction.REPORT)
                 .onUnmappableCharacter(CodingErrorAction.REPORT);
+        asciiCompatibleHeaders = headerCharset.equals(StandardCharsets.UTF_8)
+            || headerCharset.equals(StandardCharsets.US_ASCII)
+            || headerCharset.equals(StandardCharsets.ISO_8859_1);
         dashBoundary = ByteBuffer.allocate(boundary.capacity() + 2);
         dashBoundary.put((byte) '-');
         dashBoundary.put((byte) '-');
         dashBoundary.put(boundary);
+        this.delimiterSearch = delimiterSearch;
+        this.lengthDirected = lengthDirected;
+    }
+
+    public MultipartParser(@NonNull ByteBuffer boundary,
+                           @NonNull Charset headerCharset,
+                           @NonNull DelimiterSearch delimiterSearch) {
+        this(boundary, headerCharset, delimiterSearch, false);
+    }
+
+    public MultipartParser(@NonNull ByteBuffer boundary, @NonNull Charset headerCharset) {
+        this(boundary, headerCharset, DelimiterSearch.SWAR);
+    }
+
+    public MultipartParser(@NonNull ByteBuffer boundary, @NonNull DelimiterSearch delimiterSearch) {
+        this(boundary, StandardCharsets.UTF_8, delimiterSearch);
     }
 
     public MultipartParser(ByteBuffer boundary) {
@@ -60,8 +97,8 @@ public class MultipartParser {
 
     /**
      * Parse the next token from the input
-     * @param input the ByteBuffer; it's sliced before parsing, meaning only bytes between <code>position()</code> and
-     *              <code>limit()</code> are read
+     * @param input the ByteBuffer; only bytes between <code>position()</code> and <code>limit()</code> are read, the
+     *              buffer itself is not modified
      * @throws RequestInput the input doesn't contain enough bytes to unambiguously determine the next token; parse()
      *                      must be called again with a buffer that contains additional input as well as the bytes from
      *                      this call
@@ -70,82 +107,237 @@ public class MultipartParser {
      * @return the parsed result
      */
     public @NonNull Result parse(@NonNull ByteBuffer input) {
-        Result result = parseInternal(input.slice());
-        offset += result.consumedBytes;
-        return result;
+        collector.clear();
+        final int consumedBytes = parse(input, collector);
+        return new Result(collector.takeSingle(), consumedBytes);
+    }
+
+    /**
+     * Parse the next token from the input and push it into the given sink. This does the same as
+     * {@link #parse(ByteBuffer)}, but without allocating a {@link Result} or a {@link Token}. Exactly one method
+     * is called on the sink for each successful call.
+     *
+     * @param input the ByteBuffer; only bytes between <code>position()</code> and <code>limit()</code> are read, the
+     *              buffer itself is not modified
+     * @param sink  receives the parsed token
+     * @throws RequestInput the input doesn't contain enough bytes to unambiguously determine the next token; nothing
+     *                      is pushed into the sink in this case
+     * @throws MultipartException something went wrong
+     *
+     * @return the number of bytes consumed
+     */
+    public int parse(@NonNull ByteBuffer input, @NonNull TokenSink sink) {
+        final int consumedBytes = parseInternal(input, input.position(), sink);
+        offset += consumedBytes;
+        return consumedBytes;
     }
 
-    private Result parseInternal(final ByteBuffer input) {
+    private int parseInternal(final ByteBuffer input, final int start, final TokenSink sink) {
         switch (state) {
             case PREAMBLE:
-                return Combinators
-                        .tag(dashBoundary)
-                        .parse(input, 0)
-                        .map(pos -> {
-                            state = State.PART_BEGIN;
-                            return new Result(Token.Continue.INSTANCE, pos.end());
-                        })
-                        .or(() -> Combinators
-                                .scan(Combinators.eol())
-                                .parse(input, 0)
-                                .map(pos -> new Result(Token.Continue.INSTANCE, pos.end())))
-                        .orElseGet(() -> new Result(Token.Continue.INSTANCE, input.limit()));
+                return parsePreamble(input, start, sink);
             case PART_BEGIN:
-                return Combinators
-                        .eol()
-                        .parse(input, 0)
-                        .map(pos -> {
-                            state = State.HEADERS;
-                            return new Result(Token.PartBegin.INSTANCE, pos.end());
-                        })
-                        .or(() -> Combinators
-                                .tag(CLOSE_DELIMITER)
-                                .parse(input, 0)
-                                .map(pos -> {
-                                    state = State.EPILOGUE;
-                                    return new Result(Token.Continue.INSTANCE, pos.end());
-                                }))
-                        .orElseThrow(() -> new MultipartException.InvalidDelimiter(offset));
+                return parsePartBegin(input, start, sink);
             case HEADERS:
-                final Combinators.Pos eol = Combinators
-                        .scan(Combinators.eol())
-                        .parse(input, 0)
-                        .orElseThrow(RequestInput::new);
-                if (eol.start() == 0) {
-                    // immediate newline, go to body
-                    state = State.DATA;
-                    return new Result(Token.DataBegin.INSTANCE, eol.end());
-                } else {
-                    final ByteBuffer headerLine = input.slice().limit(eol.start());
-                    return new Result(parseHeader(headerLine), eol.end());
-                }
+                return parseHeaders(input, start, sink);
             case DATA:
-                return Combinators
-                        .seq(Combinators.eol(), Combinators.tag(dashBoundary))
-                        .parse(input, 0)
-                        .map(pos -> {
-                            state = State.PART_BEGIN;
-                            return new Result(Token.PartEnd.INSTANCE, pos.end());
-                        })
-                        .or(() -> Combinators
-                                .scan(Combinators.eol())
-                                .parse(input, 0)
-                                // We know that any EOL at index 0 is not a delimiter (because if we're in this branch,
-                                // we already checked for that and didn't find it). This means we can skip past this EOL
-                                // to the next one so we can make some progress.
-                                .flatMap(pos -> pos.start() == 0
-                                        ? Combinators.scan(Combinators.eol()).parse(input, pos.end())
-                                        : Optional.of(pos))
-                                .map(pos -> Result.data(input.slice().limit(pos.start()))))
-                        .orElseGet(() -> Result.data(input.slice()));
+                return parseData(input, start, sink);
             case EPILOGUE:
-                return new Result(Token.Continue.INSTANCE, input.limit());
+                sink.onContinue();
+                return input.limit() - start;
             default:
                 throw new IllegalStateException(String.format("unknown state %s; bug in parser?", state));
         }
     }
 
-    private Token.Header parseHeader(ByteBuffer bytes) {
+    private int parsePreamble(final ByteBuffer input, final int start, final TokenSink sink) {
+        if (tagAt(input, start, dashBoundary)) {
+            state = State.PART_BEGIN;
+            sink.onContinue();
+            return dashBoundary.capacity();
+        }
+        final int eol = delimiterSearch.findEol(input, start);
+        sink.onContinue();
+        if (eol == DelimiterSearch.NOT_FOUND) {
+            return input.limit() - start;
+        } else {
+            return eolEnd(input, eol) - start;
+        }
+    }
+
+    private int parsePartBegin(final ByteBuffer input, final int start, final TokenSink sink) {
+        final int eol = eolAt(input, start);
+        if (eol > 0) {
+            state = State.HEADERS;
+            sink.onPartBegin();
+            return eol;
+        } else if (tagAt(input, start, CLOSE_DELIMITER)) {
+            state = State.EPILOGUE;
+            sink.onContinue();
+            return CLOSE_DELIMITER.capacity();
+        } else {
+            throw new MultipartException.InvalidDelimiter(offset);
+        }
+    }
+
+    private int parseHeaders(final ByteBuffer input, final int start, final TokenSink sink) {
+        final int eol = delimiterSearch.findEol(input, start);
+        if (eol == DelimiterSearch.NOT_FOUND) {
+            throw new RequestInput();
+        } else if (eol == start) {
+            // immediate newline, go to body
+            state = State.DATA;
+            sink.onDataBegin();
+            remainingBodyBytes = lengthDirected ? sink.expectedBodyLength() : TokenSink.UNKNOWN_LENGTH;
+        } else if (!asciiCompatibleHeaders || !headerTokenizer.tokenize(input, start, eol, offset, sink)) {
+            parseHeader(slice(input, start, eol - start), sink);
+        }
+        return eolEnd(input, eol) - start;
+    }
+
+    private int parseData(final ByteBuffer input, final int start, final TokenSink sink) {
+        if (remainingBodyBytes > 0) {
+            return parseLengthDirectedData(input, start, sink);
+        }
+        final int delimiterEol = eolAt(input, start);
+        if (delimiterEol > 0 && tagAt(input, start + delimiterEol, dashBoundary)) {
+            state = State.PART_BEGIN;
+            sink.onPartEnd();
+            return delimiterEol + dashBoundary.capacity();
+        }
+        // Either we don't know the body length or the body didn't end where it was supposed to; scan for the
+        // delimiter from here on.
+        remainingBodyBytes = TokenSink.UNKNOWN_LENGTH;
+        // We know that an EOL at the start is not a delimiter (because we already checked for that above
+        // and didn't find it), so we can skip past it.
+        final int dataEnd = findDataEnd(input, start + delimiterEol, input.limit());
+        sink.onData(slice(input, start, dataEnd - start));
+        return dataEnd - start;
+    }
+
+    private int parseLengthDirectedData(final ByteBuffer input, final int start, final TokenSink sink) {
+        final int end = start + (int) Math.min(remainingBodyBytes, input.limit() - start);
+        // The declared length can't be trusted blindly: a delimiter inside the body means it's too large.
+        final int dataEnd = findDataEnd(input, start, end);
+        if (dataEnd < end && isDelimiterAt(input, dataEnd)) {
+            throw new MultipartException.InvalidBodyLength(offset + dataEnd - start);
+        } else if (dataEnd == start) {
+            // a possible delimiter that needs more input to be decided
+            throw new RequestInput();
+        }
+        final int length = dataEnd - start;
+        remainingBodyBytes -= length;
+        sink.onData(slice(input, start, length));
+        return length;
+    }
+
+    /**
+     * Find the end of the body data starting at <code>from</code>: the first line ending that's followed by the dash
+     * boundary, or by a prefix of it that extends to the end of the input (since that may still turn out to be a
+     * delimiter once more input is available). Line endings that can't start a delimiter don't end the data, so body
+     * data is returned in slices that are as large as possible and at most the delimiter length is held back.
+     *
+     * @param end only delimiter candidates starting before this index are considered
+     * @return the index of the delimiter candidate or <code>end</code> if there is none
+     */
+    private int findDataEnd(ByteBuffer input, int from, int end) {
+        final int limit = input.limit();
+        int idx = from;
+        while (idx < end) {
+            final int eol;
+            try {
+                eol = delimiterSearch.findEol(input, idx);
+            } catch (RequestInput r) {
+                // a '\r' as the last byte, which might be the start of a delimiter
+                return Math.min(limit - 1, end);
+            }
+            if (eol == DelimiterSearch.NOT_FOUND || eol >= end) {
+                return end;
+            }
+            idx = eolEnd(input, eol);
+            if (prefixAt(input, idx, dashBoundary)) {
+                return eol;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Check if a complete delimiter (line ending and dash boundary) starts at the given line ending.
+     */
+    private boolean isDelimiterAt(ByteBuffer input, int eol) {
+        if (eol + 1 >= input.limit() && input.get(eol) == CR) {
+            // a '\r' as the last byte
+            return false;
+        }
+        final int boundaryStart = eolEnd(input, eol);
+        return boundaryStart + dashBoundary.capacity() <= input.limit() && prefixAt(input, boundaryStart, dashBoundary);
+    }
+
+    /**
+     * Check if <code>tag</code> is found at the given index or if the input ends on a prefix of <code>tag</code>.
+     */
+    private static boolean prefixAt(ByteBuffer input, int idx, ByteBuffer tag) {
+        final int length = Math.min(tag.capacity(), input.limit() - idx);
+        for (int i = 0; i < length; i++) {
+            if (tag.get(i) != input.get(idx + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if <code>tag</code> is found at the given index.
+     *
+     * @throws RequestInput if the input ends before the tag could be fully matched
+     */
+    private static boolean tagAt(ByteBuffer input, int idx, ByteBuffer tag) {
+        for (int i = 0; i < tag.capacity(); i++) {
+            if (idx + i >= input.limit()) {
+                throw new RequestInput();
+            }
+            if (tag.get(i) != input.get(idx + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the length of the line ending found at the given index or 0 if there is none.
+     *
+     * @throws RequestInput if the input ends before it's clear whether there's a line ending
+     */
+    private static int eolAt(ByteBuffer input, int idx) {
+        if (idx >= input.limit()) {
+            throw new RequestInput();
+        }
+        final byte b = input.get(idx);
+        if (b == LF) {
+            return 1;
+        } else if (b == CR) {
+            if (idx + 1 >= input.limit()) {
+                throw new RequestInput();
+            }
+            return input.get(idx + 1) == LF ? 2 : 0;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Like <code>ByteBuffer.slice(int, int)</code>, which is only available from Java 13.
+     */
+    private static ByteBuffer slice(ByteBuffer input, int start, int length) {
+        return input.duplicate().position(start).limit(start + length).slice();
+    }
+
+    private static int eolEnd(ByteBuffer input, int eol) {
+        return eol + DelimiterSearch.eolLength(input, eol);
+    }
+
+    private void parseHeader(ByteBuffer bytes, TokenSink sink) {
         final String headerString;
         try {
             headerString = headerDecoder.decode(bytes).toString();
@@ -160,7 +352,7 @@ public class MultipartParser {
         }
         String name = headerString.substring(0, idx).trim();
         String value = headerString.substring(idx + 1).trim();
-        return new Token.Header(name, value);
+        sink.onHeader(name, value);
     }
 
     /**
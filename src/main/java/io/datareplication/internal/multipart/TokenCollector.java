@@ -0,0 +1,79 @@
+package io.datareplication.internal.multipart;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link TokenSink} that turns the pushed parts back into {@link Token} objects and collects them in a list. This is
+ * what the pull-style <code>parse</code> methods are built on. Each parser keeps one collector and reuses it for every
+ * call, so that pulling tokens doesn't allocate more than the tokens themselves and the returned list.
+ */
+final class TokenCollector implements TokenSink {
+    private List<Token> tokens = new ArrayList<>();
+
+    List<Token> tokens() {
+        return tokens;
+    }
+
+    /**
+     * Return the collected tokens and start collecting into a new list.
+     *
+     * @return the tokens collected since the last call
+     */
+    List<Token> drain() {
+        final List<Token> drained = tokens;
+        tokens = new ArrayList<>();
+        return drained;
+    }
+
+    /**
+     * Return the only collected token and start collecting again without allocating a new list.
+     *
+     * @return the token collected since the last call
+     */
+    Token takeSingle() {
+        final Token token = tokens.get(0);
+        tokens.clear();
+        return token;
+    }
+
+    /**
+     * Forget any tokens collected by a call that failed.
+     */
+    void clear() {
+        tokens.clear();
+    }
+
+    @Override
+    public void onContinue() {
+        tokens.add(Token.Continue.INSTANCE);
+    }
+
+    @Override
+    public void onPartBegin() {
+        tokens.add(Token.PartBegin.INSTANCE);
+    }
+
+    @Override
+    public void onHeader(@NonNull String name, @NonNull String value) {
+        tokens.add(new Token.Header(name, value));
+    }
+
+    @Override
+    public void onDataBegin() {
+        tokens.add(Token.DataBegin.INSTANCE);
+    }
+
+    @Override
+    public void onData(@NonNull ByteBuffer data) {
+        tokens.add(new Token.Data(data));
+    }
+
+    @Override
+    public void onPartEnd() {
+        tokens.add(Token.PartEnd.INSTANCE);
+    }
+}
@@ -0,0 +1,69 @@
+package io.datareplication.internal.multipart;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Push-style receiver for the parts of a multipart document. Each method corresponds to one of the {@link Token}
+ * subclasses and is called in the same order the tokens would be returned in, but without allocating a token object
+ * (or any other wrapper) for each of them.</p>
+ *
+ * <p>The parser itself keeps no references to the arguments passed to the sink, so a sink may retain them.</p>
+ *
+ * @see MultipartParser#parse(ByteBuffer, TokenSink)
+ * @see BufferingMultipartParser#parse(ByteBuffer, TokenSink)
+ */
+public interface TokenSink {
+    /**
+     * Returned by {@link #expectedBodyLength()} when the body length of the current part isn't known.
+     */
+    long UNKNOWN_LENGTH = -1;
+
+    /**
+     * See {@link Token.Continue}. Ignored by default.
+     */
+    default void onContinue() {
+    }
+
+    /**
+     * See {@link Token.PartBegin}.
+     */
+    void onPartBegin();
+
+    /**
+     * See {@link Token.Header}.
+     *
+     * @param name  the header name, trimmed
+     * @param value the header value, trimmed
+     */
+    void onHeader(@NonNull String name, @NonNull String value);
+
+    /**
+     * See {@link Token.DataBegin}.
+     */
+    void onDataBegin();
+
+    /**
+     * Return the length of the body of the current part, if known. Only called by length-directed parsers, right after
+     * {@link #onDataBegin()}. Unknown by default, which makes the parser scan for the delimiter instead.
+     *
+     * @return the body length in bytes or {@link #UNKNOWN_LENGTH}
+     * @see MultipartParser#MultipartParser(ByteBuffer, java.nio.charset.Charset, DelimiterSearch, boolean)
+     */
+    default long expectedBodyLength() {
+        return UNKNOWN_LENGTH;
+    }
+
+    /**
+     * See {@link Token.Data}.
+     *
+     * @param data a block of body bytes; a slice that isn't shared with the parser
+     */
+    void onData(@NonNull ByteBuffer data);
+
+    /**
+     * See {@link Token.PartEnd}.
+     */
+    void onPartEnd();
+}
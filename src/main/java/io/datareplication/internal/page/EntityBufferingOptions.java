@@ -0,0 +1,41 @@
+package io.datareplication.internal.page;
+
+import io.datareplication.internal.pool.BufferPool;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Settings for how {@link ToCompleteEntitiesTransformer} keeps the bodies of complete entities.
+ */
+@Value
+public class EntityBufferingOptions {
+    /**
+     * Options that keep every entity in memory, no matter how large.
+     */
+    public static final EntityBufferingOptions DEFAULT = new EntityBufferingOptions(
+        ToCompleteEntitiesTransformer.UNLIMITED,
+        ToCompleteEntitiesTransformer.UNLIMITED,
+        Optional.empty(),
+        Optional.empty());
+
+    /**
+     * Entities with bodies larger than this fail with
+     * {@link io.datareplication.consumer.PageFormatException.EntityTooLarge}.
+     */
+    long maxEntitySize;
+    /**
+     * Entities with bodies larger than this are written to a temporary file instead of being kept in memory.
+     */
+    long spillThreshold;
+    /**
+     * The directory for temporary files; the default temporary-file directory if empty.
+     */
+    @NonNull Optional<@NonNull Path> spillDirectory;
+    /**
+     * Copy in-memory entity bodies into buffers from this pool; keep the parser's buffers if empty.
+     */
+    @NonNull Optional<@NonNull BufferPool> bufferPool;
+}
@@ -5,6 +5,7 @@ import io.datareplication.consumer.PageFormatException;
 import io.datareplication.consumer.StreamingPage;
 import io.datareplication.internal.http.HttpClient;
 import io.datareplication.internal.multipart.BufferingMultipartParser;
+import io.datareplication.internal.multipart.DelimiterSearch;
 import io.datareplication.internal.multipart.MultipartException;
 import io.datareplication.internal.multipart.MultipartParser;
 import io.datareplication.model.HttpHeader;
@@ -28,10 +29,36 @@ import java.util.stream.Stream;
  * Download a page from a URL, parse its multipart body, and return it as a {@link StreamingPage}.
  */
 public class PageLoader {
+    private static final int NOT_MODIFIED = 304;
+
     private final HttpClient httpClient;
+    private final DelimiterSearch delimiterSearch;
+    private final boolean lengthDirected;
 
-    public PageLoader(final HttpClient httpClient) {
+    /**
+     * @param httpClient      the HTTP client to download pages with
+     * @param delimiterSearch the strategy the multipart parser uses to find delimiter candidates in entity bodies
+     * @param lengthDirected  when true, use the <code>Content-Length</code> header of entities to slice their bodies
+     *                        instead of scanning for delimiters (falling back to scanning where it's missing or wrong)
+     */
+    public PageLoader(final HttpClient httpClient,
+                      final DelimiterSearch delimiterSearch,
+                      final boolean lengthDirected) {
         this.httpClient = httpClient;
+        this.delimiterSearch = delimiterSearch;
+        this.lengthDirected = lengthDirected;
+    }
+
+    public PageLoader(final HttpClient httpClient, final DelimiterSearch delimiterSearch) {
+        this(httpClient, delimiterSearch, false);
+    }
+
+    public PageLoader(final HttpClient httpClient, final boolean lengthDirected) {
+        this(httpClient, DelimiterSearch.SWAR, lengthDirected);
+    }
+
+    public PageLoader(final HttpClient httpClient) {
+        this(httpClient, DelimiterSearch.SWAR);
     }
 
     /**
@@ -48,30 +75,60 @@ public class PageLoader {
     public Mono<StreamingPage<HttpHeaders, HttpHeaders>> load(Url url) {
         return httpClient
             .get(url, HttpResponse.BodyHandlers.ofPublisher())
-            .map(response -> {
-                final HttpHeaders httpHeaders = convertHeaders(response);
-                final String contentTypeString = response
-                    .headers()
-                    .firstValue(HttpHeader.CONTENT_TYPE)
-                    .orElseThrow(() -> new PageFormatException.MissingContentTypeHeader(httpHeaders));
-                final MultipartContentType multipartContentType = MultipartContentType.parse(contentTypeString);
-                return parseMultipartPage(url, httpHeaders, multipartContentType.boundary(), response.body());
+            .map(response -> toStreamingPage(url, response));
+    }
+
+    /**
+     * Load a multipart page from the given URL with a conditional request.
+     *
+     * @param url        the URL to download
+     * @param conditions the conditional request headers, e.g. <code>If-None-Match</code> or
+     *                   <code>If-Modified-Since</code>
+     * @return a {@link StreamingPage} for the given URL with unparsed headers, or empty if the server responded with
+     *     304 Not Modified
+     * @throws HttpException       in case of HTTP errors (invalid URL, HTTP error status codes,
+     *                             network errors/timeouts, ...)
+     * @throws PageFormatException if the HTTP response is ok, but the page response is malformed in some way
+     * @see #load(Url)
+     */
+    public Mono<StreamingPage<HttpHeaders, HttpHeaders>> loadIfModified(Url url, HttpHeaders conditions) {
+        return httpClient
+            .get(url, conditions, HttpResponse.BodyHandlers.ofPublisher())
+            .flatMap(response -> {
+                if (response.statusCode() == NOT_MODIFIED) {
+                    // drain the (empty) body so that the connection can be reused
+                    return JdkFlowAdapter.flowPublisherToFlux(response.body()).then(Mono.empty());
+                }
+                return Mono.just(toStreamingPage(url, response));
             });
     }
 
+    private StreamingPage<HttpHeaders, HttpHeaders> toStreamingPage(
+        Url url,
+        HttpResponse<Flow.Publisher<List<ByteBuffer>>> response) {
+        final HttpHeaders httpHeaders = convertHeaders(response);
+        final String contentTypeString = response
+            .headers()
+            .firstValue(HttpHeader.CONTENT_TYPE)
+            .orElseThrow(() -> new PageFormatException.MissingContentTypeHeader(httpHeaders));
+        final MultipartContentType multipartContentType = MultipartContentType.parse(contentTypeString);
+        return parseMultipartPage(url, httpHeaders, multipartContentType.boundary(), response.body());
+    }
+
     private StreamingPage<HttpHeaders, HttpHeaders> parseMultipartPage(Url url,
                                                                        HttpHeaders pageHeader,
                                                                        String boundary,
                                                                        Flow.Publisher<List<ByteBuffer>> input) {
         final BufferingMultipartParser multipartParser = new BufferingMultipartParser(
-            new MultipartParser(ByteBuffer.wrap(boundary.getBytes(StandardCharsets.UTF_8))));
+            new MultipartParser(ByteBuffer.wrap(boundary.getBytes(StandardCharsets.UTF_8)),
+                                StandardCharsets.UTF_8,
+                                delimiterSearch,
+                                lengthDirected));
         final ToStreamingPageChunkTransformer chunkTransformer = new ToStreamingPageChunkTransformer();
         final var chunks = JdkFlowAdapter
             .flowPublisherToFlux(input)
             .flatMapIterable(list -> list)
-            .flatMapIterable(multipartParser::parse)
-            .map(chunkTransformer::transform)
-            .flatMap(Mono::justOrEmpty)
+            .flatMapIterable(buffer -> chunkTransformer.transform(multipartParser, buffer))
             .doOnComplete(multipartParser::finish)
             .onErrorResume(exc -> {
                 if (exc instanceof MultipartException) {
@@ -1,30 +1,159 @@
 package io.datareplication.internal.page;
 
+import io.datareplication.consumer.PageFormatException;
 import io.datareplication.consumer.StreamingPage;
+import io.datareplication.internal.pool.PooledBodyWriter;
 import io.datareplication.model.Body;
+import io.datareplication.model.CloseableBody;
+import io.datareplication.model.ContentType;
 import io.datareplication.model.Entity;
+import io.datareplication.model.HttpHeader;
 import io.datareplication.model.ToHttpHeaders;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.FlowAdapters;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Flow;
+import java.util.function.Predicate;
 
 /**
  * Transform a stream of {@link StreamingPage.Chunk} objects into complete {@link Entity Entities}. This class mostly
  * collects body bytes internally until the end of an entity is signaled and then returns the complete entity with its
  * entire body.
  *
+ * <p>Body chunks usually aren't copied: the body of each entity is a
+ * {@link Body#fromByteBuffersUnsafe(List, ContentType)} over the buffers that came out of the parser, which are never
+ * modified after being handed out. Only bodies that are much smaller than the buffers they were sliced from are
+ * copied, so that they don't keep those buffers alive.</p>
+ *
+ * <p>Since complete entities are kept in memory, the size of each entity body can be capped: an entity whose
+ * <code>Content-Length</code> header declares a larger body fails as soon as its header arrives, and an entity
+ * without a usable <code>Content-Length</code> fails as soon as its body grows past the cap.</p>
+ *
+ * <p>Entities that are too large to be kept in memory can be spilled to disk: once an entity body grows past the spill
+ * threshold (or as soon as its header arrives if its <code>Content-Length</code> is above the threshold), the body is
+ * written to a temporary file instead and the entity gets a {@link CloseableBody} over that file which deletes it when
+ * closed. This keeps memory usage bounded by the spill threshold no matter how large entities are. Note that the file
+ * is written on whichever thread delivers the chunks.</p>
+ *
+ * <p>With a {@link io.datareplication.internal.pool.BufferPool}, in-memory bodies are copied into pooled off-heap
+ * buffers (sized by <code>Content-Length</code> where it's known) instead of retaining the parser's buffers, and the
+ * entities get {@link io.datareplication.model.ReferenceCountedBody ReferenceCountedBodies} that return the buffers to
+ * the pool when released. The parser's heap buffers then die young instead of living as long as the entities do.</p>
+ *
+ * <p>Entities can be filtered by their header: the body chunks of entities that the filter rejects are dropped as
+ * they arrive without ever being buffered, so skipping entities doesn't cost memory or copying.</p>
+ *
  * @param <EntityHeader> the header type for the entities; this is just passed through
  */
+@Slf4j
 public class ToCompleteEntitiesTransformer<EntityHeader extends ToHttpHeaders> {
+    /**
+     * Value for the maximum entity size and spill threshold that doesn't limit entity sizes at all.
+     */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    // in-memory bodies are copied when the buffers they're sliced from are more than this many times their size
+    private static final int MAX_RETAINED_FACTOR = 2;
+    private static final String SPILL_FILE_PREFIX = "datareplication-entity-";
+    private static final String SPILL_FILE_SUFFIX = ".tmp";
+
+    private final EntityBufferingOptions options;
+    private final Predicate<? super EntityHeader> filter;
+    private int index;
+    // true while the body chunks of an entity rejected by the filter are being dropped
+    private boolean skipping;
+    private long bodySize;
     // these fields are null on construction, but they get initialized when we start our first entity
     private StreamingPage.Chunk.Header<EntityHeader> currentHeader;
-    private ByteArrayOutputStream bodyStream;
-    private WritableByteChannel bodyChannel;
+    private List<ByteBuffer> bodyBuffers;
+    // only set for in-memory entities when using a buffer pool; bodyBuffers stays empty then
+    private PooledBodyWriter pooledBody;
+    // these are only set while the current entity is being spilled to disk
+    private Path spillFile;
+    private FileChannel spillChannel;
 
-    private static final int INITIAL_BUFFER_SIZE = 4096;
+    /**
+     * Create a transformer that keeps all entities in memory without a limit on their sizes.
+     */
+    public ToCompleteEntitiesTransformer() {
+        this(EntityBufferingOptions.DEFAULT);
+    }
+
+    /**
+     * Create a transformer with the given limits for entity sizes.
+     *
+     * @param options the maximum entity size and spill-to-disk settings
+     */
+    public ToCompleteEntitiesTransformer(final EntityBufferingOptions options) {
+        this(options, header -> true);
+    }
+
+    /**
+     * Create a transformer with the given limits for entity sizes that only returns the entities accepted by the
+     * given filter.
+     *
+     * @param options the maximum entity size and spill-to-disk settings
+     * @param filter  decides by its header whether an entity is returned; the bodies of rejected entities are dropped
+     *                without being buffered
+     */
+    public ToCompleteEntitiesTransformer(final EntityBufferingOptions options,
+                                         final Predicate<? super EntityHeader> filter) {
+        this.options = options;
+        this.filter = filter;
+    }
+
+    /**
+     * Transform the chunks of a page into a stream of complete entities. If the stream fails or is cancelled in the
+     * middle of an entity that's being spilled to disk, its temporary file is deleted.
+     *
+     * @param chunks         the chunks of a page, usually a {@link StreamingPage}
+     * @param options        the maximum entity size and spill-to-disk settings
+     * @param <EntityHeader> the header type for the entities
+     * @return a stream of complete entities
+     */
+    public static <EntityHeader extends ToHttpHeaders> Flow.Publisher<Entity<EntityHeader>> toCompleteEntities(
+        final Flow.Publisher<StreamingPage.Chunk<EntityHeader>> chunks,
+        final EntityBufferingOptions options) {
+        return toCompleteEntities(chunks, options, header -> true);
+    }
+
+    /**
+     * Transform the chunks of a page into a stream of the complete entities accepted by the given filter.
+     *
+     * @param chunks         the chunks of a page, usually a {@link StreamingPage}
+     * @param options        the maximum entity size and spill-to-disk settings
+     * @param filter         decides by its header whether an entity is returned; the bodies of rejected entities are
+     *                       dropped without being buffered
+     * @param <EntityHeader> the header type for the entities
+     * @return a stream of complete entities
+     * @see #toCompleteEntities(Flow.Publisher, EntityBufferingOptions)
+     */
+    public static <EntityHeader extends ToHttpHeaders> Flow.Publisher<Entity<EntityHeader>> toCompleteEntities(
+        final Flow.Publisher<StreamingPage.Chunk<EntityHeader>> chunks,
+        final EntityBufferingOptions options,
+        final Predicate<? super EntityHeader> filter) {
+        final ToCompleteEntitiesTransformer<EntityHeader> transformer =
+            new ToCompleteEntitiesTransformer<>(options, filter);
+        final Flux<Entity<EntityHeader>> flux = JdkFlowAdapter
+            .flowPublisherToFlux(chunks)
+            .map(transformer::transform)
+            .flatMap(Mono::justOrEmpty)
+            .doFinally(signal -> transformer.discard());
+        return FlowAdapters.toFlowPublisher(flux);
+    }
 
     /**
      * <p>Consume a {@link StreamingPage.Chunk} and return a complete {@link Entity} if we finished one.</p>
@@ -34,35 +163,202 @@ public class ToCompleteEntitiesTransformer<EntityHeader extends ToHttpHeaders> {
      *
      * @param chunk a {@link StreamingPage.Chunk}
      * @return an {@link Entity} if this chunk finished one
+     * @throws PageFormatException.EntityTooLarge if the entity body is larger than the maximum entity size
+     * @throws UncheckedIOException if an entity body can't be spilled to disk
      */
     public Optional<Entity<EntityHeader>> transform(StreamingPage.Chunk<EntityHeader> chunk) {
         if (chunk instanceof StreamingPage.Chunk.Header) {
-            currentHeader = (StreamingPage.Chunk.Header<EntityHeader>) chunk;
-            // TODO: Maybe look at content-length header to preallocate the buffer? Could do some special-casing so
-            //       we don't always have to call toHttpHeaders...
-            //       In that case, limit it to avoid the DoS case of huge content-length.
-            bodyStream = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
-            bodyChannel = Channels.newChannel(bodyStream);
+            startEntity((StreamingPage.Chunk.Header<EntityHeader>) chunk);
+            return Optional.empty();
+        } else if (skipping) {
+            skipChunk(chunk);
             return Optional.empty();
         } else if (chunk instanceof StreamingPage.Chunk.BodyChunk) {
-            try {
-                bodyChannel.write(((StreamingPage.Chunk.BodyChunk<EntityHeader>) chunk).data());
-            } catch (IOException e) {
-                throw new IllegalStateException("IOException when writing to in-memory buffer; weird; bug?", e);
-            }
+            appendBody(((StreamingPage.Chunk.BodyChunk<EntityHeader>) chunk).data());
             return Optional.empty();
         } else if (chunk instanceof StreamingPage.Chunk.BodyEnd) {
-            // TODO: Alternative implementation: keep a List<ByteBuffer> and build a Body impl from that. Doesn't
-            //  require a big new allocation, but feels just generally less efficient?
-            // safety: ok because we're discarding the stream so the Body has the only reference
-            final Body body = Body.fromBytesUnsafe(bodyStream.toByteArray(), currentHeader.contentType());
-            final Entity<EntityHeader> entity = new Entity<>(currentHeader.header(), body);
-            // we set the stream to null so that a) no one can touch the internal byte array any more and b) if events
-            // arrive in an unexpected order, we get an NPE rather than silently writing to a stream that should be done
-            bodyStream = null; //NOPMD
-            bodyChannel = null; //NOPMD
-            return Optional.of(entity);
+            return Optional.of(finishEntity());
         }
         throw new IllegalArgumentException(String.format("unknown subclass of StreamingPage.Chunk %s; bug?", chunk));
     }
+
+    private void startEntity(StreamingPage.Chunk.Header<EntityHeader> header) {
+        currentHeader = header;
+        if (!filter.test(currentHeader.header())) {
+            skipping = true;
+            return;
+        }
+        bodyBuffers = new ArrayList<>();
+        bodySize = 0;
+        final long declaredSize = declaredSize();
+        if (options.bufferPool().isPresent()) {
+            pooledBody = new PooledBodyWriter(options.bufferPool().get(), declaredSize);
+        }
+        if (declaredSize > options.maxEntitySize()) {
+            throw new PageFormatException.EntityTooLarge(index, declaredSize, options.maxEntitySize());
+        } else if (declaredSize > options.spillThreshold()) {
+            startSpilling();
+        }
+    }
+
+    private void skipChunk(StreamingPage.Chunk<EntityHeader> chunk) {
+        if (chunk instanceof StreamingPage.Chunk.BodyEnd) {
+            skipping = false;
+            index++;
+        }
+    }
+
+    private void appendBody(ByteBuffer data) {
+        if (!data.hasRemaining()) {
+            return;
+        }
+        bodySize += data.remaining();
+        if (bodySize > options.maxEntitySize()) {
+            discard();
+            throw new PageFormatException.EntityTooLarge(index, bodySize, options.maxEntitySize());
+        }
+        if (spillChannel != null) {
+            spill(data.duplicate());
+            return;
+        } else if (pooledBody != null) {
+            pooledBody.write(data.duplicate());
+        } else {
+            // slice to keep our own position, since the chunk's buffer is shared with whoever else sees it
+            bodyBuffers.add(data.slice());
+        }
+        if (bodySize > options.spillThreshold()) {
+            startSpilling();
+        }
+    }
+
+    private Entity<EntityHeader> finishEntity() {
+        final Body body;
+        if (spillChannel != null) {
+            body = finishSpilling();
+        } else if (pooledBody != null) {
+            body = pooledBody.toBody(currentHeader.contentType());
+            pooledBody = null; //NOPMD
+        } else {
+            body = inMemoryBody();
+        }
+        final Entity<EntityHeader> entity = new Entity<>(currentHeader.header(), body);
+        // we set the list to null so that if events arrive in an unexpected order, we get an NPE rather than
+        // silently adding to an entity that should be done
+        bodyBuffers = null; //NOPMD
+        index++;
+        return entity;
+    }
+
+    /**
+     * The body of an in-memory entity. Small bodies are copied into an array of their own: a slice keeps the whole
+     * buffer it was cut from alive, so a body of a few bytes could otherwise pin the parser's much larger read buffer
+     * for as long as the entity lives.
+     */
+    private Body inMemoryBody() {
+        long retained = 0;
+        for (ByteBuffer buffer : bodyBuffers) {
+            retained += buffer.hasArray() ? buffer.array().length : buffer.capacity();
+        }
+        if (retained <= bodySize * MAX_RETAINED_FACTOR) {
+            // safety: ok because the parser never modifies buffers after handing them out
+            return Body.fromByteBuffersUnsafe(bodyBuffers, currentHeader.contentType());
+        }
+        final byte[] bytes = new byte[(int) bodySize];
+        int offset = 0;
+        for (ByteBuffer buffer : bodyBuffers) {
+            final int length = buffer.remaining();
+            buffer.duplicate().get(bytes, offset, length);
+            offset += length;
+        }
+        // safety: ok because nobody else has a reference to the array
+        return Body.fromBytesUnsafe(bytes, currentHeader.contentType());
+    }
+
+    /**
+     * Close and delete the temporary file of an entity that's currently being spilled to disk, or return the pooled
+     * buffers of an entity that's being kept in memory, if any. This is for when the stream ends in the middle of an
+     * entity; temporary files and buffers of entities that were already returned are owned by their bodies.
+     */
+    public void discard() {
+        if (pooledBody != null) {
+            pooledBody.discard();
+            pooledBody = null; //NOPMD
+        }
+        if (spillFile == null) {
+            return;
+        }
+        try {
+            spillChannel.close();
+            Files.deleteIfExists(spillFile);
+        } catch (IOException e) {
+            // it's a temporary file and we're already cleaning up after a failure or cancellation, so there's
+            // nothing sensible to do but leave it for the OS to clean up
+            log.debug("failed to delete temporary entity file {}", spillFile, e);
+        } finally {
+            spillChannel = null; //NOPMD
+            spillFile = null; //NOPMD
+        }
+    }
+
+    private long declaredSize() {
+        final Optional<HttpHeader> contentLength = currentHeader
+            .header()
+            .toHttpHeaders()
+            .get(HttpHeader.CONTENT_LENGTH);
+        if (contentLength.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentLength.get().values().get(0));
+        } catch (NumberFormatException e) {
+            // an invalid Content-Length doesn't tell us anything, the body size is still checked as it arrives
+            return -1;
+        }
+    }
+
+    private void startSpilling() {
+        try {
+            spillFile = options.spillDirectory().isPresent()
+                ? Files.createTempFile(options.spillDirectory().get(), SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX)
+                : Files.createTempFile(SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX);
+            spillChannel = FileChannel.open(spillFile, StandardOpenOption.WRITE);
+            final List<ByteBuffer> buffered = pooledBody != null ? pooledBody.written() : bodyBuffers;
+            for (ByteBuffer buffer : buffered) {
+                spill(buffer);
+            }
+            bodyBuffers.clear();
+            if (pooledBody != null) {
+                pooledBody.discard();
+                pooledBody = null; //NOPMD
+            }
+        } catch (IOException e) {
+            discard();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void spill(ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                spillChannel.write(buffer);
+            }
+        } catch (IOException e) {
+            discard();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CloseableBody finishSpilling() {
+        try {
+            spillChannel.close();
+            final CloseableBody body = Body.fromTemporaryFile(spillFile, currentHeader.contentType());
+            // the body owns the file now
+            spillChannel = null; //NOPMD
+            spillFile = null; //NOPMD
+            return body;
+        } catch (IOException e) {
+            discard();
+            throw new UncheckedIOException(e);
+        }
+    }
 }
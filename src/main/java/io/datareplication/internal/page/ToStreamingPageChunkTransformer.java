@@ -2,11 +2,15 @@ package io.datareplication.internal.page;
 
 import io.datareplication.consumer.PageFormatException;
 import io.datareplication.consumer.StreamingPage;
+import io.datareplication.internal.multipart.BufferingMultipartParser;
 import io.datareplication.internal.multipart.Token;
+import io.datareplication.internal.multipart.TokenSink;
 import io.datareplication.model.ContentType;
 import io.datareplication.model.HttpHeader;
 import io.datareplication.model.HttpHeaders;
+import lombok.NonNull;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -14,11 +18,17 @@ import java.util.Optional;
 /**
  * Transform a stream of multipart {@link Token Tokens} into higher-level {@link StreamingPage.Chunk} objects. This
  * mostly involves collecting headers into {@link HttpHeaders} and returning them as a block.
+ *
+ * <p>Tokens can either be fed one at a time with {@link #transform(Token)} or pushed directly from the parser with
+ * {@link #transform(BufferingMultipartParser, ByteBuffer)}, which is what {@link PageLoader} does to avoid creating a
+ * token object for every part of the document.</p>
  */
-final class ToStreamingPageChunkTransformer {
+final class ToStreamingPageChunkTransformer implements TokenSink {
     private final List<HttpHeader> headers = new ArrayList<>();
-    private Optional<ContentType> contentType = Optional.empty();
+    private ContentType contentType;
+    private long contentLength = UNKNOWN_LENGTH;
     private int index;
+    private List<StreamingPage.Chunk<HttpHeaders>> output = new ArrayList<>();
 
     /**
      * Consume the given {@link Token} and optionally return a {@link StreamingPage.Chunk}.
@@ -31,30 +41,109 @@ final class ToStreamingPageChunkTransformer {
         if (multipartToken instanceof Token.Continue) {
             return Optional.empty();
         } else if (multipartToken instanceof Token.PartBegin) {
-            headers.clear();
-            contentType = Optional.empty();
+            partBegin();
             return Optional.empty();
         } else if (multipartToken instanceof Token.Header) {
             final Token.Header header = (Token.Header) multipartToken;
-            final HttpHeader httpHeader = HttpHeader.of(header.name(), header.value());
-            if (httpHeader.nameEquals(HttpHeader.CONTENT_TYPE)) {
-                contentType = Optional.of(ContentType.of(header.value()));
-            } else {
-                headers.add(httpHeader);
-            }
+            header(header.name(), header.value());
             return Optional.empty();
         } else if (multipartToken instanceof Token.DataBegin) {
-            return Optional.of(StreamingPage.Chunk.header(
-                    HttpHeaders.of(headers),
-                    contentType.orElseThrow(() -> new PageFormatException.MissingContentTypeInEntity(index))
-            ));
+            return Optional.of(headerChunk());
         } else if (multipartToken instanceof Token.Data) {
             final Token.Data data = (Token.Data) multipartToken;
             return Optional.of(StreamingPage.Chunk.bodyChunk(data.data()));
         } else if (multipartToken instanceof Token.PartEnd) {
-            index++;
-            return Optional.of(StreamingPage.Chunk.bodyEnd());
+            return Optional.of(bodyEnd());
         }
         throw new IllegalArgumentException(String.format("unknown subclass of Token %s; bug?", multipartToken));
     }
+
+    /**
+     * Feed the given input into the parser with this transformer as its {@link TokenSink} and return all chunks that
+     * resulted from it.
+     *
+     * @param parser the multipart parser for the page
+     * @param input  the next buffer of input for the parser
+     * @throws PageFormatException.MissingContentTypeInEntity if an entity doesn't have a content-type header
+     * @return the chunks emitted for the tokens in the input, in order
+     */
+    public List<StreamingPage.Chunk<HttpHeaders>> transform(BufferingMultipartParser parser, ByteBuffer input) {
+        // We need a fresh list for every buffer because the previous one may still be iterated over downstream.
+        output = new ArrayList<>();
+        parser.parse(input, this);
+        return output;
+    }
+
+    @Override
+    public void onPartBegin() {
+        partBegin();
+    }
+
+    @Override
+    public void onHeader(@NonNull String name, @NonNull String value) {
+        header(name, value);
+    }
+
+    @Override
+    public void onDataBegin() {
+        output.add(headerChunk());
+    }
+
+    /**
+     * Return the value of the current entity's <code>Content-Length</code> header so that a length-directed parser can
+     * skip scanning the body for delimiters. Missing or invalid headers mean the length is unknown.
+     */
+    @Override
+    public long expectedBodyLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void onData(@NonNull ByteBuffer data) {
+        output.add(StreamingPage.Chunk.bodyChunk(data));
+    }
+
+    @Override
+    public void onPartEnd() {
+        output.add(bodyEnd());
+    }
+
+    private void partBegin() {
+        headers.clear();
+        contentType = null; //NOPMD
+        contentLength = UNKNOWN_LENGTH;
+    }
+
+    private void header(String name, String value) {
+        final HttpHeader httpHeader = HttpHeader.of(name, value);
+        if (httpHeader.nameEquals(HttpHeader.CONTENT_TYPE)) {
+            contentType = ContentType.of(value);
+        } else {
+            if (httpHeader.nameEquals(HttpHeader.CONTENT_LENGTH)) {
+                contentLength = parseContentLength(value);
+            }
+            headers.add(httpHeader);
+        }
+    }
+
+    private static long parseContentLength(String value) {
+        try {
+            final long length = Long.parseLong(value);
+            return length >= 0 ? length : UNKNOWN_LENGTH;
+        } catch (NumberFormatException e) {
+            return UNKNOWN_LENGTH;
+        }
+    }
+
+    private StreamingPage.Chunk<HttpHeaders> headerChunk() {
+        if (contentType == null) {
+            throw new PageFormatException.MissingContentTypeInEntity(index);
+        }
+        return StreamingPage.Chunk.header(HttpHeaders.of(headers), contentType);
+    }
+
+    private StreamingPage.Chunk<HttpHeaders> bodyEnd() {
+        index++;
+        return StreamingPage.Chunk.bodyEnd();
+    }
 }
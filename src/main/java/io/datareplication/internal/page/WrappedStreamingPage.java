@@ -1,6 +1,7 @@
 package io.datareplication.internal.page;
 
 import io.datareplication.consumer.StreamingPage;
+import io.datareplication.model.Entity;
 import io.datareplication.model.HttpHeaders;
 import io.datareplication.model.ToHttpHeaders;
 import lombok.NonNull;
@@ -12,7 +13,8 @@ import java.util.function.BiFunction;
 
 /**
  * {@link StreamingPage} impl that wraps a StreamingPage containing generic {@link HttpHeaders} with specialized header
- * types using a conversion function.
+ * types using a conversion function. Optionally, entity bodies in {@link #toCompleteEntities()} can be capped or
+ * spilled to disk, see {@link ToCompleteEntitiesTransformer}.
  * @param <PageHeader> the page header output type
  * @param <EntityHeader> the entity header output type
  */
@@ -21,12 +23,21 @@ public class WrappedStreamingPage<PageHeader extends ToHttpHeaders, EntityHeader
     private final PageHeader pageHeader;
     private final String boundary;
     private final Flow.Publisher<StreamingPage.Chunk<EntityHeader>> mappedPublisher;
+    private final EntityBufferingOptions entityBuffering;
 
-    @SuppressWarnings("unchecked")
     public WrappedStreamingPage(final StreamingPage<HttpHeaders, HttpHeaders> underlying,
                                 final PageHeader pageHeader,
                                 final BiFunction<Integer, HttpHeaders, EntityHeader> convertEntityHeader) {
+        this(underlying, pageHeader, convertEntityHeader, EntityBufferingOptions.DEFAULT);
+    }
+
+    @SuppressWarnings("unchecked")
+    public WrappedStreamingPage(final StreamingPage<HttpHeaders, HttpHeaders> underlying,
+                                final PageHeader pageHeader,
+                                final BiFunction<Integer, HttpHeaders, EntityHeader> convertEntityHeader,
+                                final EntityBufferingOptions entityBuffering) {
         this.pageHeader = pageHeader;
+        this.entityBuffering = entityBuffering;
         this.boundary = underlying.boundary();
         final AtomicInteger index = new AtomicInteger();
         var flux = JdkFlowAdapter
@@ -55,6 +66,11 @@ public class WrappedStreamingPage<PageHeader extends ToHttpHeaders, EntityHeader
         return boundary;
     }
 
+    @Override
+    public @NonNull Flow.Publisher<@NonNull Entity<EntityHeader>> toCompleteEntities() {
+        return ToCompleteEntitiesTransformer.toCompleteEntities(this, entityBuffering);
+    }
+
     @Override
     public void subscribe(final Flow.Subscriber<? super Chunk<EntityHeader>> subscriber) {
         mappedPublisher.subscribe(subscriber);
@@ -0,0 +1,121 @@
+package io.datareplication.internal.pool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A thread-safe pool of direct {@link ByteBuffer ByteBuffers} in power-of-two size classes from
+ * {@link #MIN_BUFFER_SIZE} to {@link #MAX_BUFFER_SIZE}. Buffers are allocated on demand; released buffers are kept
+ * for reuse until the pool holds <code>capacity</code> bytes of idle buffers, anything beyond that is left to the
+ * garbage collector.</p>
+ *
+ * <p>With leak detection enabled, {@link PooledBody PooledBodies} that are garbage collected without being released
+ * are logged along with the stack trace of their allocation, and their buffers are returned to the pool. This costs a
+ * stack trace and a {@link java.lang.ref.Cleaner} registration per body, so it's meant for debugging.</p>
+ */
+@Slf4j
+public final class BufferPool {
+    /**
+     * The smallest size class.
+     */
+    public static final int MIN_BUFFER_SIZE = 4 * 1024;
+    /**
+     * The largest size class; larger bodies are made of several buffers.
+     */
+    public static final int MAX_BUFFER_SIZE = 1024 * 1024;
+
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_BUFFER_SIZE)
+        - Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE)
+        + 1;
+
+    private final List<Queue<ByteBuffer>> idle;
+    private final long capacity;
+    private final boolean detectLeaks;
+    private final AtomicLong idleBytes = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+
+    /**
+     * @param capacity    the maximum number of bytes in idle buffers that are kept for reuse
+     * @param detectLeaks whether to track bodies that are never released
+     */
+    public BufferPool(final long capacity, final boolean detectLeaks) {
+        this.capacity = capacity;
+        this.detectLeaks = detectLeaks;
+        this.idle = new ArrayList<>(SIZE_CLASSES);
+        for (int i = 0; i < SIZE_CLASSES; i++) {
+            idle.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Get a buffer of the smallest size class that fits the given size, capped at {@link #MAX_BUFFER_SIZE}. The
+     * buffer is cleared, i.e. its position is 0 and its limit is its capacity.
+     *
+     * @param size the number of bytes that should fit in the buffer
+     * @return a direct buffer of at least <code>min(size, MAX_BUFFER_SIZE)</code> bytes
+     */
+    public ByteBuffer acquire(final long size) {
+        final int sizeClass = sizeClass(size);
+        final ByteBuffer buffer = idle.get(sizeClass).poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(MIN_BUFFER_SIZE << sizeClass);
+        }
+        idleBytes.addAndGet(-buffer.capacity());
+        return buffer.clear();
+    }
+
+    /**
+     * Return a buffer to the pool. The buffer must have been acquired from this pool and must not be used anymore by
+     * the caller.
+     *
+     * @param buffer the buffer
+     */
+    public void release(final ByteBuffer buffer) {
+        final int size = buffer.capacity();
+        if (idleBytes.addAndGet(size) > capacity) {
+            idleBytes.addAndGet(-size);
+            return;
+        }
+        idle.get(sizeClass(size)).offer(buffer);
+    }
+
+    /**
+     * @return the number of bytes in idle buffers currently kept for reuse
+     */
+    public long idleBytes() {
+        return idleBytes.get();
+    }
+
+    /**
+     * @return the number of leaked bodies that were detected so far; always 0 without leak detection
+     */
+    public long leaksDetected() {
+        return leaks.get();
+    }
+
+    boolean detectLeaks() {
+        return detectLeaks;
+    }
+
+    void reportLeak(final Throwable allocationSite) {
+        leaks.incrementAndGet();
+        log.error("LEAK: a pooled entity body was garbage collected without being released", allocationSite);
+    }
+
+    private static int sizeClass(final long size) {
+        if (size <= MIN_BUFFER_SIZE) {
+            return 0;
+        } else if (size >= MAX_BUFFER_SIZE) {
+            return SIZE_CLASSES - 1;
+        }
+        // round up to the next power of two
+        final int bits = 64 - Long.numberOfLeadingZeros(size - 1);
+        return bits - Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,218 @@
+package io.datareplication.internal.pool;
+
+import io.datareplication.model.Body;
+import io.datareplication.model.ContentType;
+import io.datareplication.model.ReferenceCountedBody;
+import lombok.NonNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ReferenceCountedBody} over buffers from a {@link BufferPool}. Reading is delegated to a
+ * {@link Body#fromByteBuffersUnsafe(List, ContentType)} view over the buffers; the buffers go back to the pool when
+ * the last reference is released.
+ *
+ * <p>Unlike the other bodies, pooled bodies are only equal to themselves: their content disappears on release, and an
+ * equality or hash that changed over the body's lifetime would break hash-based collections.</p>
+ *
+ * <p>When leak detection is on, unreleased bodies are freed by a {@link Cleaner} once they become unreachable. The
+ * view's buffers don't reference the body, so everything that reads them keeps the body reachable until it's done:
+ * InputStreams hold a strong reference to the body, and the reading methods end with a reachability fence.</p>
+ */
+public final class PooledBody implements ReferenceCountedBody {
+    private static final Cleaner LEAK_CLEANER = Cleaner.create();
+
+    private final State state;
+    private final Body view;
+    private final Cleaner.Cleanable cleanable;
+
+    /**
+     * The shared state of a body. This is also the leak detector's cleanup action, so it must not reference the body.
+     */
+    private static final class State implements Runnable {
+        private final BufferPool pool;
+        private final List<ByteBuffer> buffers;
+        private final AtomicInteger references = new AtomicInteger(1);
+        private final Throwable allocationSite;
+
+        private State(BufferPool pool, List<ByteBuffer> buffers, Throwable allocationSite) {
+            this.pool = pool;
+            this.buffers = buffers;
+            this.allocationSite = allocationSite;
+        }
+
+        @Override
+        public void run() {
+            // only called by the cleaner when the body was never released: nobody can use the buffers anymore
+            if (references.getAndSet(0) > 0) {
+                pool.reportLeak(allocationSite);
+                free();
+            }
+        }
+
+        private void free() {
+            for (ByteBuffer buffer : buffers) {
+                pool.release(buffer);
+            }
+        }
+    }
+
+    /**
+     * @param pool        the pool the buffers were acquired from
+     * @param buffers     the buffers containing the body between position and limit; owned by the body from now on
+     * @param contentType the content type of the body
+     */
+    PooledBody(final BufferPool pool, final List<ByteBuffer> buffers, final ContentType contentType) {
+        final List<ByteBuffer> readOnly = new ArrayList<>(buffers.size());
+        for (ByteBuffer buffer : buffers) {
+            readOnly.add(buffer.asReadOnlyBuffer());
+        }
+        // safety: ok because nobody writes to the buffers until they're released
+        this.view = Body.fromByteBuffersUnsafe(readOnly, contentType);
+        if (pool.detectLeaks()) {
+            this.state = new State(pool, buffers, new Throwable("pooled entity body allocated here"));
+            this.cleanable = LEAK_CLEANER.register(this, state);
+        } else {
+            this.state = new State(pool, buffers, null);
+            this.cleanable = null;
+        }
+    }
+
+    private boolean released() {
+        return state.references.get() <= 0;
+    }
+
+    private Body view() {
+        if (released()) {
+            throw new IllegalStateException("pooled body has already been released");
+        }
+        return view;
+    }
+
+    @Override
+    public @NonNull InputStream newInputStream() {
+        return new BodyInputStream(view().newInputStream(), this);
+    }
+
+    @Override
+    public long contentLength() {
+        return view().contentLength();
+    }
+
+    @Override
+    public @NonNull ContentType contentType() {
+        return view().contentType();
+    }
+
+    @Override
+    public byte @NonNull [] toBytes() throws IOException {
+        try {
+            return view().toBytes();
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    @Override
+    public long transferTo(@NonNull WritableByteChannel channel) throws IOException {
+        try {
+            return view().transferTo(channel);
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    @Override
+    public @NonNull ReferenceCountedBody retain() {
+        final int previous = state.references.getAndUpdate(count -> count > 0 ? count + 1 : count);
+        if (previous <= 0) {
+            throw new IllegalStateException("pooled body has already been released");
+        }
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        final int previous = state.references.getAndUpdate(count -> count > 0 ? count - 1 : count);
+        if (previous <= 0) {
+            throw new IllegalStateException("pooled body has already been released");
+        } else if (previous > 1) {
+            return false;
+        }
+        if (cleanable != null) {
+            // unregister from the leak detector; the count is already 0, so this doesn't report or free anything
+            cleanable.clean();
+        }
+        state.free();
+        return true;
+    }
+
+    @Override
+    public int referenceCount() {
+        return Math.max(state.references.get(), 0);
+    }
+
+    @Override
+    public void close() {
+        if (state.references.get() > 0) {
+            release();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PooledBody(contentLength=%s, contentType=%s, references=%s)",
+                             view.contentLength(),
+                             view.contentType(),
+                             referenceCount());
+    }
+
+    /**
+     * An InputStream over the view that keeps its body reachable, so that the leak detector doesn't free the buffers
+     * while they're still being read.
+     */
+    private static final class BodyInputStream extends FilterInputStream {
+        private final PooledBody owner;
+
+        private BodyInputStream(InputStream in, PooledBody owner) {
+            super(in);
+            this.owner = owner;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } finally {
+                Reference.reachabilityFence(owner);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } finally {
+                Reference.reachabilityFence(owner);
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            try {
+                return super.skip(n);
+            } finally {
+                Reference.reachabilityFence(owner);
+            }
+        }
+    }
+}
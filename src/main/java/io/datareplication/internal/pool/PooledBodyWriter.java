@@ -0,0 +1,88 @@
+package io.datareplication.internal.pool;
+
+import io.datareplication.model.ContentType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copy an entity body chunk by chunk into buffers from a {@link BufferPool} and turn them into a {@link PooledBody}.
+ * When the size of the body is known upfront, the buffers are sized to fit it exactly (up to the largest size class),
+ * otherwise they're sized to fit the chunks as they arrive.
+ */
+public final class PooledBodyWriter {
+    private final BufferPool pool;
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+    private long remainingHint;
+
+    /**
+     * @param pool     the pool to get buffers from
+     * @param sizeHint the expected size of the body, or a negative number if it isn't known
+     */
+    public PooledBodyWriter(final BufferPool pool, final long sizeHint) {
+        this.pool = pool;
+        this.remainingHint = sizeHint;
+    }
+
+    /**
+     * Copy the remaining bytes of the given buffer into the body. The buffer's position is advanced.
+     *
+     * @param data the bytes to copy
+     */
+    public void write(final ByteBuffer data) {
+        while (data.hasRemaining()) {
+            ByteBuffer current = buffers.isEmpty() ? null : buffers.get(buffers.size() - 1);
+            if (current == null || !current.hasRemaining()) {
+                current = pool.acquire(Math.max(remainingHint, data.remaining()));
+                buffers.add(current);
+            }
+            final int length = Math.min(current.remaining(), data.remaining());
+            final ByteBuffer chunk = data.duplicate();
+            chunk.limit(chunk.position() + length);
+            current.put(chunk);
+            data.position(chunk.position());
+            remainingHint -= length;
+        }
+    }
+
+    /**
+     * Return read-only views of the bytes written so far. The views are only valid until {@link #discard()} or
+     * {@link #toBody(ContentType)} is called.
+     *
+     * @return the bytes written so far
+     */
+    public List<ByteBuffer> written() {
+        final List<ByteBuffer> written = new ArrayList<>(buffers.size());
+        for (ByteBuffer buffer : buffers) {
+            written.add(buffer.asReadOnlyBuffer().flip());
+        }
+        return written;
+    }
+
+    /**
+     * Return all buffers to the pool without creating a body.
+     */
+    public void discard() {
+        for (ByteBuffer buffer : buffers) {
+            pool.release(buffer);
+        }
+        buffers.clear();
+    }
+
+    /**
+     * Create a body over the bytes written so far. The body owns the buffers from now on, so this writer must not be
+     * used anymore.
+     *
+     * @param contentType the content type of the body
+     * @return a new body with a reference count of 1
+     */
+    public PooledBody toBody(final ContentType contentType) {
+        final List<ByteBuffer> body = new ArrayList<>(buffers.size());
+        for (ByteBuffer buffer : buffers) {
+            body.add(buffer.flip());
+        }
+        buffers.clear();
+        return new PooledBody(pool, body, contentType);
+    }
+}
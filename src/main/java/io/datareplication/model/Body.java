@@ -4,10 +4,12 @@ import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.input.ReaderInputStream;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -15,10 +17,20 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 
 /**
  * <p>
@@ -146,13 +158,53 @@ public interface Body extends ToHttpHeaders {
         }
     }
 
+    /**
+     * <p>
+     * Write this byte sequence to the given channel.
+     * </p>
+     *
+     * <p>
+     * The default implementation copies the bytes from {@link #newInputStream()} into the channel. Implementations
+     * that hold their bytes in memory or in a file should override it to hand their bytes to the channel directly,
+     * without intermediate copies. The channel must be in blocking mode.
+     * </p>
+     *
+     * @param channel the channel to write to; it's not closed by this method
+     * @return the number of bytes written
+     * @throws IOException when the channel or the InputStream returned by {@link #newInputStream()} throws an
+     *                     IOException
+     */
+    default long transferTo(@NonNull WritableByteChannel channel) throws IOException {
+        try (InputStream input = newInputStream()) {
+            // not closing the wrapping stream because that would close the channel
+            return input.transferTo(Channels.newOutputStream(channel));
+        }
+    }
+
+    /**
+     * Write all remaining bytes of the buffer to a blocking channel.
+     *
+     * @param buffer  the buffer to write
+     * @param channel the channel to write to
+     * @return the number of bytes written
+     * @throws IOException when the channel throws an IOException
+     */
+    private static long writeFully(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        return written;
+    }
+
     private static int getBufferSize(Body body) {
         return Math.max((int) body.contentLength(), 0);
     }
 
     /**
      * Return a Body over the bytes of the given String encoded as UTF-8. This method retains the String and does not
-     * allocate an additional backing buffer.
+     * allocate an additional backing buffer until the Body is first written with
+     * {@link #transferTo(WritableByteChannel)}; the encoded bytes are kept from then on.
      *
      * @param utf8        the String
      * @param contentType the content type for the created Body
@@ -161,11 +213,20 @@ public interface Body extends ToHttpHeaders {
     static @NonNull Body fromUtf8(@NonNull String utf8, @NonNull ContentType contentType) {
         @EqualsAndHashCode
         @ToString
-        @AllArgsConstructor
         class Utf8Body implements Body {
             private final String utf8;
             private final long contentLength;
             private final ContentType contentType;
+            // encoded on the first transferTo; volatile so that other threads see the array's contents
+            @EqualsAndHashCode.Exclude
+            @ToString.Exclude
+            private volatile byte[] bytes;
+
+            Utf8Body(String utf8, long contentLength, ContentType contentType) {
+                this.utf8 = utf8;
+                this.contentLength = contentLength;
+                this.contentType = contentType;
+            }
 
             @Override
             public @NonNull InputStream newInputStream() {
@@ -196,6 +257,17 @@ public interface Body extends ToHttpHeaders {
             public @NonNull String toUtf8() {
                 return utf8;
             }
+
+            @Override
+            public long transferTo(@NonNull WritableByteChannel channel) throws IOException {
+                byte[] encoded = bytes;
+                if (encoded == null) {
+                    encoded = utf8.getBytes(StandardCharsets.UTF_8);
+                    bytes = encoded;
+                }
+                // read-only so that the channel can't modify our array
+                return writeFully(ByteBuffer.wrap(encoded).asReadOnlyBuffer(), channel);
+            }
         }
         return new Utf8Body(utf8, countUtf8Bytes(utf8), contentType);
     }
@@ -226,16 +298,26 @@ public interface Body extends ToHttpHeaders {
      * @return a Body of the array's bytes
      */
     static @NonNull Body fromBytesUnsafe(byte @NonNull [] bytes, @NonNull ContentType contentType) {
-        @EqualsAndHashCode
         @ToString
-        @AllArgsConstructor
-        class BytesBody implements Body {
+        class BytesBody extends InMemoryBody {
             private final byte[] bytes;
             private final ContentType contentType;
 
+            BytesBody(byte[] bytes, ContentType contentType) {
+                super();
+                // safety: not copied on purpose, the caller promises never to modify the array
+                this.bytes = bytes; //NOPMD
+                this.contentType = contentType;
+            }
+
             @Override
-            public @NonNull InputStream newInputStream() {
-                return new ByteArrayInputStream(bytes);
+            int bufferCount() {
+                return 1;
+            }
+
+            @Override
+            ByteBuffer buffer(int index) {
+                return ByteBuffer.wrap(bytes);
             }
 
             @Override
@@ -243,6 +325,11 @@ public interface Body extends ToHttpHeaders {
                 return bytes.length;
             }
 
+            @Override
+            public @NonNull InputStream newInputStream() {
+                return new ByteArrayInputStream(bytes);
+            }
+
             @Override
             public @NonNull ContentType contentType() {
                 return contentType;
@@ -252,6 +339,12 @@ public interface Body extends ToHttpHeaders {
             public byte @NonNull [] toBytes() {
                 return bytes.clone();
             }
+
+            @Override
+            public long transferTo(@NonNull WritableByteChannel channel) throws IOException {
+                // read-only so that the channel can't modify our array
+                return writeFully(ByteBuffer.wrap(bytes).asReadOnlyBuffer(), channel);
+            }
         }
         return new BytesBody(bytes, contentType);
     }
@@ -303,6 +396,237 @@ public interface Body extends ToHttpHeaders {
         return fromBytesUnsafe(bytes.clone());
     }
 
+    /**
+     * <p>Return a Body over the concatenated remaining bytes of the given buffers.</p>
+     *
+     * <p>This is what fully-buffered consumers use to hold on to the buffers they read entity bodies into without
+     * copying them into one big array. {@link #newInputStream()} reads the buffers in sequence and
+     * {@link #transferTo(WritableByteChannel)} does a gathering write if the channel supports it.</p>
+     *
+     * <p><strong>SAFETY:</strong> this method does not copy the buffers or their contents. It is up to the caller to
+     * ensure that the buffers' contents are <em>NEVER MODIFIED</em> after being passed to this method. Their positions
+     * and limits aren't touched by the returned Body.</p>
+     *
+     * @param buffers     the buffers
+     * @param contentType the content type for the created Body
+     * @return a Body of the buffers' bytes
+     */
+    static @NonNull Body fromByteBuffersUnsafe(@NonNull List<@NonNull ByteBuffer> buffers,
+                                               @NonNull ContentType contentType) {
+        return new ByteBuffersBody(buffers, contentType);
+    }
+
+    /**
+     * <p>Return a Body over the contents of the given file. The file is not read into memory: every
+     * {@link #newInputStream()} opens the file again and {@link #transferTo(WritableByteChannel)} uses
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which lets the operating system copy the bytes
+     * without them ever entering the Java heap.</p>
+     *
+     * <p>The content length is the file size at the time this method is called. The file must not be modified or
+     * deleted while the Body is in use.</p>
+     *
+     * @param path        the file
+     * @param contentType the content type for the created Body
+     * @return a Body of the file's bytes
+     * @throws IOException when the file size can't be determined, e.g. because the file doesn't exist
+     */
+    static @NonNull Body fromFile(@NonNull Path path, @NonNull ContentType contentType) throws IOException {
+        @EqualsAndHashCode
+        @ToString
+        @AllArgsConstructor
+        class FileBody implements Body {
+            private final Path path;
+            private final long contentLength;
+            private final ContentType contentType;
+
+            @Override
+            public @NonNull InputStream newInputStream() {
+                try {
+                    return Files.newInputStream(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public long contentLength() {
+                return contentLength;
+            }
+
+            @Override
+            public @NonNull ContentType contentType() {
+                return contentType;
+            }
+
+            @Override
+            public long transferTo(@NonNull WritableByteChannel channel) throws IOException {
+                try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+                    long position = 0;
+                    while (position < contentLength) {
+                        final long transferred = file.transferTo(position, contentLength - position, channel);
+                        if (transferred == 0 && position >= file.size()) {
+                            throw new EOFException(String.format("%s is shorter than its content length %d",
+                                                                 path,
+                                                                 contentLength));
+                        }
+                        position += transferred;
+                    }
+                    return position;
+                }
+            }
+        }
+        return new FileBody(path, Files.size(path), contentType);
+    }
+
+    /**
+     * Return a Body over the contents of the given file with the default content type
+     * <code>application/octet-stream</code>.
+     *
+     * @param path the file
+     * @return a Body of the file's bytes
+     * @throws IOException when the file size can't be determined, e.g. because the file doesn't exist
+     * @see #fromFile(Path, ContentType)
+     */
+    static @NonNull Body fromFile(@NonNull Path path) throws IOException {
+        return fromFile(path, BodyConstants.DEFAULT_BYTES_CONTENT_TYPE);
+    }
+
+    /**
+     * <p>Return a Body over the contents of the given temporary file which deletes the file when it's closed. This is
+     * what consumers use for entities that are too large to be kept in memory.</p>
+     *
+     * <p>The file is deleted by {@link CloseableBody#close()}, or when the Body is garbage collected if it's never
+     * closed. Other than that, the returned Body behaves like {@link #fromFile(Path, ContentType)}: the file must not
+     * be modified while the Body is in use.</p>
+     *
+     * @param path        the file; it's owned by the returned Body from now on
+     * @param contentType the content type for the created Body
+     * @return a Body of the file's bytes that deletes the file when closed
+     * @throws IOException when the file size can't be determined, e.g. because the file doesn't exist
+     */
+    static @NonNull CloseableBody fromTemporaryFile(@NonNull Path path,
+                                                    @NonNull ContentType contentType) throws IOException {
+        @ToString
+        class TemporaryFileBody implements CloseableBody {
+            private final Body file;
+            @ToString.Exclude
+            private final Cleaner.Cleanable cleanable;
+
+            TemporaryFileBody(Body file) {
+                this.file = file;
+                // the cleanup action must not reference this Body, otherwise it would never become unreachable
+                this.cleanable = BodyCleaner.CLEANER.register(this, () -> BodyCleaner.deleteQuietly(path));
+            }
+
+            @Override
+            public @NonNull InputStream newInputStream() {
+                return file.newInputStream();
+            }
+
+            @Override
+            public long contentLength() {
+                return file.contentLength();
+            }
+
+            @Override
+            public @NonNull ContentType contentType() {
+                return file.contentType();
+            }
+
+            @Override
+            public long transferTo(@NonNull WritableByteChannel channel) throws IOException {
+                return file.transferTo(channel);
+            }
+
+            @Override
+            public void close() {
+                cleanable.clean();
+            }
+        }
+        return new TemporaryFileBody(fromFile(path, contentType));
+    }
+
+    /**
+     * <p>Return a Body over a region of the given file that's mapped into memory read-only. The bytes are served
+     * straight from the mapping (i.e. from the OS page cache) without being copied onto the Java heap.</p>
+     *
+     * <p>The file must not be modified while the Body is in use. The mapping stays valid until the Body is garbage
+     * collected.</p>
+     *
+     * @param path        the file
+     * @param offset      the start of the region in the file
+     * @param length      the length of the region; at most {@link Integer#MAX_VALUE}
+     * @param contentType the content type for the created Body
+     * @return a Body of the bytes in the given region of the file
+     * @throws IOException              when the file can't be opened or mapped
+     * @throws IllegalArgumentException when the region is negative or too large to be mapped
+     */
+    static @NonNull Body fromMappedFile(@NonNull Path path,
+                                        long offset,
+                                        long length,
+                                        @NonNull ContentType contentType) throws IOException {
+        if (offset < 0 || length < 0 || length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("can't map %d bytes at offset %d", length, offset));
+        }
+        @EqualsAndHashCode
+        @ToString
+        @AllArgsConstructor
+        class MappedBody implements Body {
+            private final ByteBuffer buffer;
+            private final ContentType contentType;
+
+            @Override
+            public @NonNull InputStream newInputStream() {
+                return new ByteBufferInputStream(buffer.duplicate());
+            }
+
+            @Override
+            public long contentLength() {
+                return buffer.remaining();
+            }
+
+            @Override
+            public @NonNull ContentType contentType() {
+                return contentType;
+            }
+
+            @Override
+            public byte @NonNull [] toBytes() {
+                final byte[] bytes = new byte[buffer.remaining()];
+                buffer.duplicate().get(bytes);
+                return bytes;
+            }
+
+            @Override
+            public long transferTo(@NonNull WritableByteChannel channel) throws IOException {
+                return writeFully(buffer.duplicate(), channel);
+            }
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (offset + length > file.size()) {
+                throw new IllegalArgumentException(String.format("region of %d bytes at offset %d is outside of %s",
+                                                                 length,
+                                                                 offset,
+                                                                 path));
+            }
+            return new MappedBody(file.map(FileChannel.MapMode.READ_ONLY, offset, length), contentType);
+        }
+    }
+
+    /**
+     * Map the entire given file into memory and return a Body over it.
+     *
+     * @param path        the file
+     * @param contentType the content type for the created Body
+     * @return a Body of the file's bytes
+     * @throws IOException              when the file can't be opened or mapped
+     * @throws IllegalArgumentException when the file is too large to be mapped
+     * @see #fromMappedFile(Path, long, long, ContentType)
+     */
+    static @NonNull Body fromMappedFile(@NonNull Path path, @NonNull ContentType contentType) throws IOException {
+        return fromMappedFile(path, 0, Files.size(path), contentType);
+    }
+
     private static long countUtf8Bytes(String utf8) {
         class CountingOutputStream extends OutputStream {
             private long count;
@@ -338,3 +662,21 @@ class BodyConstants {
     static final ContentType DEFAULT_UTF8_CONTENT_TYPE = ContentType.of("text/plain; charset=utf-8");
     static final ContentType DEFAULT_BYTES_CONTENT_TYPE = ContentType.of("application/octet-stream");
 }
+
+// separate holder so that the cleaner thread is only started once a temporary file body is actually created
+@Slf4j
+final class BodyCleaner {
+    static final Cleaner CLEANER = Cleaner.create();
+
+    private BodyCleaner() {
+    }
+
+    static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // nothing sensible to do here: this runs on close or on the cleaner thread, and the file is temporary
+            log.warn("failed to delete temporary body file {}", path, e);
+        }
+    }
+}
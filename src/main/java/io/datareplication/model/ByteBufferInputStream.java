@@ -0,0 +1,83 @@
+package io.datareplication.model;
+
+import lombok.NonNull;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * An {@link InputStream} reading the remaining bytes of one or more {@link ByteBuffer ByteBuffers} in sequence. The
+ * buffers' positions are advanced while reading, so callers should pass duplicates if they want to keep theirs.
+ */
+final class ByteBufferInputStream extends InputStream {
+    private final List<ByteBuffer> buffers;
+    private int index;
+
+    ByteBufferInputStream(@NonNull ByteBuffer buffer) {
+        this(List.of(buffer));
+    }
+
+    ByteBufferInputStream(@NonNull List<@NonNull ByteBuffer> buffers) {
+        super();
+        this.buffers = buffers;
+    }
+
+    /**
+     * Return the current buffer, skipping over exhausted ones, or null at the end of the stream.
+     */
+    private ByteBuffer current() {
+        while (index < buffers.size()) {
+            final ByteBuffer buffer = buffers.get(index);
+            if (buffer.hasRemaining()) {
+                return buffer;
+            }
+            index++;
+        }
+        return null;
+    }
+
+    @Override
+    public int read() {
+        final ByteBuffer buffer = current();
+        return buffer == null ? -1 : buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte @NonNull [] bytes, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = current();
+        if (buffer == null) {
+            return -1;
+        }
+        int count = 0;
+        while (buffer != null && count < length) {
+            final int n = Math.min(length - count, buffer.remaining());
+            buffer.get(bytes, offset + count, n);
+            count += n;
+            buffer = current();
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = 0;
+        ByteBuffer buffer = current();
+        while (buffer != null && skipped < n) {
+            final int count = (int) Math.min(n - skipped, buffer.remaining());
+            buffer.position(buffer.position() + count);
+            skipped += count;
+            buffer = current();
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        final ByteBuffer buffer = current();
+        return buffer == null ? 0 : buffer.remaining();
+    }
+}
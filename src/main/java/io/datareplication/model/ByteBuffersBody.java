@@ -0,0 +1,101 @@
+package io.datareplication.model;
+
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * The Body returned by {@link Body#fromByteBuffersUnsafe(List, ContentType)}.
+ */
+@ToString
+final class ByteBuffersBody extends InMemoryBody {
+    private final ByteBuffer[] buffers;
+    private final long contentLength;
+    private final ContentType contentType;
+
+    /**
+     * @param buffers     the buffers; they're sliced, so later changes to their positions and limits don't affect the
+     *                    body, but their contents must never be modified
+     * @param contentType the content type
+     */
+    ByteBuffersBody(List<ByteBuffer> buffers, ContentType contentType) {
+        super();
+        this.buffers = new ByteBuffer[buffers.size()];
+        long length = 0;
+        for (int i = 0; i < this.buffers.length; i++) {
+            this.buffers[i] = buffers.get(i).slice();
+            length += this.buffers[i].remaining();
+        }
+        this.contentLength = length;
+        this.contentType = contentType;
+    }
+
+    @Override
+    int bufferCount() {
+        return buffers.length;
+    }
+
+    @Override
+    ByteBuffer buffer(int index) {
+        return buffers[index];
+    }
+
+    private ByteBuffer[] duplicates() {
+        final ByteBuffer[] duplicates = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            duplicates[i] = buffers[i].duplicate();
+        }
+        return duplicates;
+    }
+
+    @Override
+    public @NonNull InputStream newInputStream() {
+        return new ByteBufferInputStream(List.of(duplicates()));
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public @NonNull ContentType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public byte @NonNull [] toBytes() {
+        final byte[] bytes = new byte[(int) contentLength];
+        int offset = 0;
+        for (ByteBuffer buffer : buffers) {
+            final int length = buffer.remaining();
+            buffer.duplicate().get(bytes, offset, length);
+            offset += length;
+        }
+        return bytes;
+    }
+
+    @Override
+    public long transferTo(@NonNull WritableByteChannel channel) throws IOException {
+        final ByteBuffer[] duplicates = duplicates();
+        long written = 0;
+        if (channel instanceof GatheringByteChannel) {
+            while (written < contentLength) {
+                written += ((GatheringByteChannel) channel).write(duplicates);
+            }
+            return written;
+        }
+        for (ByteBuffer buffer : duplicates) {
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,15 @@
+package io.datareplication.model;
+
+/**
+ * <p>A {@link Body} that holds on to a resource (e.g. a temporary file) which should be released as soon as the Body
+ * isn't needed anymore, rather than whenever it happens to be garbage collected.</p>
+ *
+ * <p>After {@link #close()} has been called, the Body must not be used anymore.</p>
+ */
+public interface CloseableBody extends Body, AutoCloseable {
+    /**
+     * Release the resources held by this Body. Closing a Body more than once has no effect.
+     */
+    @Override
+    void close();
+}
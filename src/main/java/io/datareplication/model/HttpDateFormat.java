@@ -0,0 +1,102 @@
+package io.datareplication.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Format timestamps as IMF-fixdates like <code>Sun, 06 Nov 1994 08:49:37 GMT</code> for
+ * {@link HttpHeader#lastModified(Instant)}. The characters are written directly instead of going through a
+ * {@link DateTimeFormatter}, and the most recently formatted value is cached since neighbouring entities of a feed
+ * often share a timestamp. Years outside of 1 to 9999 are handed to the {@link DateTimeFormatter}, so the result is
+ * always the same as with the formatter alone.
+ */
+final class HttpDateFormat {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter
+        .ofPattern("EEE, dd MMM yyyy HH:mm:ss z", Locale.ENGLISH)
+        .withZone(ZoneId.of("GMT"));
+
+    private static final int IMF_FIXDATE_LENGTH = 29;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int MAX_FOUR_DIGIT_YEAR = 9999;
+    // indexed by DayOfWeek.ordinal() and Month.ordinal()
+    private static final String[] DAY_NAMES = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+    private static final String[] MONTH_NAMES = {
+        "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec",
+    };
+    // the range that the formatter writes with exactly four year digits
+    private static final long MIN_FAST_FORMAT_SECOND = LocalDate.of(1, 1, 1).toEpochDay() * SECONDS_PER_DAY;
+    private static final long MAX_FAST_FORMAT_SECOND =
+        (LocalDate.of(MAX_FOUR_DIGIT_YEAR, 12, 31).toEpochDay() + 1) * SECONDS_PER_DAY - 1;
+
+    // Written and read from any thread; Formatted only has final fields, so a racy read sees a complete object.
+    private static volatile Formatted lastFormatted = new Formatted(0, "Thu, 01 Jan 1970 00:00:00 GMT");
+
+    private HttpDateFormat() {
+    }
+
+    /**
+     * Format the given timestamp as an IMF-fixdate, truncated to seconds. Example:
+     * <code>Wed, 04 Oct 2023 08:25:33 GMT</code>
+     *
+     * @param instant the timestamp to format
+     * @return the formatted date
+     */
+    static String format(Instant instant) {
+        final long epochSecond = instant.getEpochSecond();
+        final Formatted cached = lastFormatted;
+        if (cached.epochSecond == epochSecond) {
+            return cached.text;
+        }
+        final String text = epochSecond < MIN_FAST_FORMAT_SECOND || epochSecond > MAX_FAST_FORMAT_SECOND
+            ? FORMATTER.format(instant)
+            : formatImfFixdate(epochSecond);
+        lastFormatted = new Formatted(epochSecond, text);
+        return text;
+    }
+
+    private static String formatImfFixdate(long epochSecond) {
+        final LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(epochSecond, SECONDS_PER_DAY));
+        final int secondOfDay = Math.floorMod(epochSecond, SECONDS_PER_DAY);
+        final char[] chars = new char[IMF_FIXDATE_LENGTH];
+        DAY_NAMES[date.getDayOfWeek().ordinal()].getChars(0, 3, chars, 0);
+        chars[3] = ',';
+        chars[4] = ' ';
+        writeDigits(chars, 5, 2, date.getDayOfMonth());
+        chars[7] = ' ';
+        MONTH_NAMES[date.getMonthValue() - 1].getChars(0, 3, chars, 8);
+        chars[11] = ' ';
+        writeDigits(chars, 12, 4, date.getYear());
+        chars[16] = ' ';
+        writeDigits(chars, 17, 2, secondOfDay / SECONDS_PER_HOUR);
+        chars[19] = ':';
+        writeDigits(chars, 20, 2, secondOfDay / SECONDS_PER_MINUTE % SECONDS_PER_MINUTE);
+        chars[22] = ':';
+        writeDigits(chars, 23, 2, secondOfDay % SECONDS_PER_MINUTE);
+        chars[25] = ' ';
+        "GMT".getChars(0, 3, chars, 26);
+        return new String(chars);
+    }
+
+    private static void writeDigits(char[] chars, int start, int count, int value) {
+        int remaining = value;
+        for (int i = start + count - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+
+    private static final class Formatted {
+        private final long epochSecond;
+        private final String text;
+
+        private Formatted(long epochSecond, String text) {
+            this.epochSecond = epochSecond;
+            this.text = text;
+        }
+    }
+}
@@ -5,8 +5,6 @@ import lombok.NonNull;
 import lombok.Value;
 
 import java.time.Instant;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -42,16 +40,44 @@ public class HttpHeader {
     @NonNull
     public static final String AUTHORIZATION = "Authorization";
 
-    private static final DateTimeFormatter HTTP_HEADER_FORMATTER = DateTimeFormatter
-        .ofPattern("EEE, dd MMM yyyy HH:mm:ss z", Locale.ENGLISH)
-        .withZone(ZoneId.of("GMT"));
+    /**
+     * Well-known header names and their normalized form, so that the normalized name doesn't need to be computed over
+     * and over again. See {@link #normalize(String)}.
+     */
+    private static final String[] WELL_KNOWN_NAMES = {
+        CONTENT_TYPE,
+        CONTENT_ID,
+        CONTENT_LENGTH,
+        LAST_MODIFIED,
+        OPERATION_TYPE,
+        LINK,
+    };
+    private static final String[] WELL_KNOWN_NORMALIZED_NAMES = {
+        "content-type",
+        "content-id",
+        "content-length",
+        "last-modified",
+        "operation-type",
+        "link",
+    };
 
     private HttpHeader(@NonNull String name, @NonNull List<@NonNull String> values) {
         this.displayName = name;
-        this.name = name.toLowerCase(Locale.ENGLISH);
+        this.name = normalize(name);
         this.values = List.copyOf(values);
     }
 
+    private static String normalize(String name) {
+        // The multipart parser hands out the name constants themselves for well-known headers, so an identity check
+        // is enough to find them.
+        for (int i = 0; i < WELL_KNOWN_NAMES.length; i++) {
+            if (WELL_KNOWN_NAMES[i] == name) { //NOPMD
+                return WELL_KNOWN_NORMALIZED_NAMES[i];
+            }
+        }
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
     /**
      * Append a single value to this header.
      *
@@ -137,6 +163,6 @@ public class HttpHeader {
      * @return the <code>Last-Modified</code> HttpHeader
      */
     public static @NonNull HttpHeader lastModified(@NonNull Instant lastModified) {
-        return HttpHeader.of(LAST_MODIFIED, HTTP_HEADER_FORMATTER.format(lastModified));
+        return HttpHeader.of(LAST_MODIFIED, HttpDateFormat.format(lastModified));
     }
 }
@@ -1,38 +1,48 @@
 package io.datareplication.model;
 
-import lombok.EqualsAndHashCode;
 import lombok.NonNull;
-import lombok.ToString;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 /**
  * A collection of multiple {@link HttpHeader} objects. There's only one set of values per name so repeated headers
  * must be merged into a single {@link HttpHeader} with multiple values. The iteration order of headers is not
  * guaranteed and the order is not preserved.
  */
-@EqualsAndHashCode
-@ToString
 public final class HttpHeaders implements Iterable<@NonNull HttpHeader>, ToHttpHeaders {
-    @NonNull
-    private final Map<@NonNull String, @NonNull HttpHeader> headers;
+    /**
+     * Headers are looked up by a linear scan over their (already normalized) names up to this size, which is faster
+     * than hashing for the handful of headers that entities usually have. Larger collections get a hash index.
+     */
+    private static final int MAX_LINEAR_SIZE = 8;
+
+    private final HttpHeader[] headers;
+    // only for collections larger than MAX_LINEAR_SIZE, null otherwise
+    private final Map<@NonNull String, @NonNull HttpHeader> index;
 
     /**
      * An empty HttpHeaders instance.
      */
     @NonNull
-    public static final HttpHeaders EMPTY = new HttpHeaders(Collections.emptyMap());
+    public static final HttpHeaders EMPTY = new HttpHeaders(new HttpHeader[0]);
 
-    private HttpHeaders(@NonNull Map<@NonNull String, @NonNull HttpHeader> headers) {
+    // takes ownership of the array: callers always pass a fresh one, so it's neither copied nor varargs
+    private HttpHeaders(HttpHeader[] headers) { //NOPMD
         this.headers = headers;
+        if (headers.length > MAX_LINEAR_SIZE) {
+            this.index = new HashMap<>(2 * headers.length);
+            for (HttpHeader header : headers) {
+                index.put(header.name(), header);
+            }
+        } else {
+            this.index = null; //NOPMD
+        }
     }
 
     /**
@@ -42,7 +52,7 @@ public final class HttpHeaders implements Iterable<@NonNull HttpHeader>, ToHttpH
      */
     @Override
     public @NonNull Iterator<@NonNull HttpHeader> iterator() {
-        return headers.values().iterator();
+        return Arrays.asList(headers).iterator();
     }
 
     /**
@@ -51,7 +61,7 @@ public final class HttpHeaders implements Iterable<@NonNull HttpHeader>, ToHttpH
      * @return a {@link Stream} over all {@link HttpHeader} values in this collection
      */
     public @NonNull Stream<@NonNull HttpHeader> stream() {
-        return StreamSupport.stream(spliterator(), false);
+        return Arrays.stream(headers);
     }
 
     /**
@@ -62,7 +72,11 @@ public final class HttpHeaders implements Iterable<@NonNull HttpHeader>, ToHttpH
      * @return a new HttpHeaders with the given updates
      */
     public @NonNull HttpHeaders update(@NonNull HttpHeader... headers) {
-        return update(Arrays.stream(headers).iterator());
+        final Builder builder = new Builder(this.headers, headers.length);
+        for (HttpHeader header : headers) {
+            builder.add(header);
+        }
+        return builder.build();
     }
 
     /**
@@ -73,7 +87,7 @@ public final class HttpHeaders implements Iterable<@NonNull HttpHeader>, ToHttpH
      * @return a new HttpHeaders with the given updates
      */
     public @NonNull HttpHeaders update(@NonNull Iterable<@NonNull HttpHeader> headers) {
-        return update(new HashMap<>(this.headers), headers.iterator());
+        return update(headers.iterator());
     }
 
     /**
@@ -84,23 +98,14 @@ public final class HttpHeaders implements Iterable<@NonNull HttpHeader>, ToHttpH
      * @return a new HttpHeaders with the given updates
      */
     public @NonNull HttpHeaders update(@NonNull Iterator<@NonNull HttpHeader> headers) {
-        return update(new HashMap<>(this.headers), headers);
-    }
-
-    private static HttpHeaders update(@NonNull Map<String, HttpHeader> headerMap,
-                                      @NonNull Iterator<HttpHeader> headers) {
-        while (headers.hasNext()) {
-            final HttpHeader header = headers.next();
-            headerMap.merge(header.name(), header, (present, added) -> present.append(added.values()));
-        }
-        return new HttpHeaders(headerMap);
+        return new Builder(this.headers, MAX_LINEAR_SIZE).addAll(headers).build();
     }
 
     /**
      * @return Check if this HttpHeaders is empty.
      */
     public boolean isEmpty() {
-        return headers.isEmpty();
+        return headers.length == 0;
     }
 
     @Override
@@ -109,7 +114,57 @@ public final class HttpHeaders implements Iterable<@NonNull HttpHeader>, ToHttpH
     }
 
     public @NonNull Optional<@NonNull HttpHeader> get(@NonNull String key) {
-        return Optional.ofNullable(headers.get(key.toLowerCase(Locale.ENGLISH)));
+        return Optional.ofNullable(lookup(key.toLowerCase(Locale.ENGLISH)));
+    }
+
+    private HttpHeader lookup(String normalizedName) {
+        if (index != null) {
+            return index.get(normalizedName);
+        }
+        for (HttpHeader header : headers) {
+            if (header.name().equals(normalizedName)) {
+                return header;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Two HttpHeaders are equal if they contain the same headers, regardless of order.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HttpHeaders)) {
+            return false;
+        }
+        final HttpHeaders other = (HttpHeaders) o;
+        if (headers.length != other.headers.length) {
+            return false;
+        }
+        for (HttpHeader header : headers) {
+            if (!header.equals(other.lookup(header.name()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // order-independent like equals
+        int hashCode = 0;
+        for (HttpHeader header : headers) {
+            hashCode += header.hashCode();
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpHeaders(headers=" + Arrays.toString(headers) + ")";
     }
 
     /**
@@ -119,7 +174,7 @@ public final class HttpHeaders implements Iterable<@NonNull HttpHeader>, ToHttpH
      * @return a new HttpHeaders from the given headers.
      */
     public static @NonNull HttpHeaders of(@NonNull HttpHeader... headers) {
-        return update(new HashMap<>(), Arrays.stream(headers).iterator());
+        return EMPTY.update(headers);
     }
 
     /**
@@ -129,7 +184,7 @@ public final class HttpHeaders implements Iterable<@NonNull HttpHeader>, ToHttpH
      * @return a new HttpHeaders from the given headers.
      */
     public static @NonNull HttpHeaders of(@NonNull Iterable<@NonNull HttpHeader> headers) {
-        return update(new HashMap<>(), headers.iterator());
+        return EMPTY.update(headers.iterator());
     }
 
     /**
@@ -139,6 +194,76 @@ public final class HttpHeaders implements Iterable<@NonNull HttpHeader>, ToHttpH
      * @return the HttpHeaders
      */
     public static @NonNull HttpHeaders of(@NonNull Iterator<@NonNull HttpHeader> headers) {
-        return update(new HashMap<>(), headers);
+        return EMPTY.update(headers);
+    }
+
+    /**
+     * Collects headers into a single array that's copied at most once more when building, merging the values of
+     * headers with the same name. Like {@link HttpHeaders}, it switches from linear scans to a hash index once it
+     * gets large.
+     */
+    private static final class Builder {
+        private HttpHeader[] headers;
+        private int size;
+        private Map<String, Integer> positions;
+
+        private Builder(HttpHeader[] initial, int expectedAdditions) {
+            this.headers = Arrays.copyOf(initial, initial.length + expectedAdditions);
+            this.size = initial.length;
+            if (size > MAX_LINEAR_SIZE) {
+                indexPositions();
+            }
+        }
+
+        private Builder addAll(Iterator<HttpHeader> headers) {
+            while (headers.hasNext()) {
+                add(headers.next());
+            }
+            return this;
+        }
+
+        private void add(HttpHeader header) {
+            final int position = positionOf(header.name());
+            if (position >= 0) {
+                headers[position] = headers[position].append(header.values());
+                return;
+            }
+            if (size == headers.length) {
+                headers = Arrays.copyOf(headers, Math.max(MAX_LINEAR_SIZE, 2 * size));
+            }
+            headers[size] = header;
+            size++;
+            if (positions != null) {
+                positions.put(header.name(), size - 1);
+            } else if (size > MAX_LINEAR_SIZE) {
+                indexPositions();
+            }
+        }
+
+        private int positionOf(String name) {
+            if (positions != null) {
+                return positions.getOrDefault(name, -1);
+            }
+            for (int i = 0; i < size; i++) {
+                if (headers[i].name().equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void indexPositions() {
+            positions = new HashMap<>(2 * size);
+            for (int i = 0; i < size; i++) {
+                positions.put(headers[i].name(), i);
+            }
+        }
+
+        private HttpHeaders build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new HttpHeaders(size == headers.length ? headers : Arrays.copyOf(headers, size));
+        }
     }
 }
@@ -0,0 +1,90 @@
+package io.datareplication.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Common base of the bodies that hold their bytes in memory, i.e. {@link Body#fromBytes(byte[], ContentType)} and
+ * {@link Body#fromByteBuffersUnsafe(java.util.List, ContentType)}. Two such bodies are equal if they have the same
+ * content type and the same bytes, no matter how those are split into buffers. Neither comparing nor hashing copies
+ * the content.
+ */
+abstract class InMemoryBody implements Body {
+    // 0 if not computed yet, like String does it; the content is immutable, so racy caching is fine
+    private int hash;
+
+    /**
+     * @return the number of buffers holding the body's bytes
+     */
+    abstract int bufferCount();
+
+    /**
+     * Return one of the buffers holding the body's bytes between its position and limit. This is not a copy: callers
+     * must only use absolute reads and must not modify the buffer.
+     *
+     * @param index the index of the buffer, between 0 and {@link #bufferCount()}
+     * @return the buffer
+     */
+    abstract ByteBuffer buffer(int index);
+
+    @Override
+    public final boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        } else if (!(other instanceof InMemoryBody)) {
+            return false;
+        }
+        final InMemoryBody that = (InMemoryBody) other;
+        return contentLength() == that.contentLength()
+            && contentType().equals(that.contentType())
+            && contentEquals(that);
+    }
+
+    /**
+     * Compare the bytes of two bodies with the same content length.
+     */
+    private boolean contentEquals(InMemoryBody that) {
+        if (bufferCount() == 1 && that.bufferCount() == 1) {
+            return buffer(0).equals(that.buffer(0));
+        } else if (contentLength() == 0) {
+            return true;
+        }
+        int rightIndex = 0;
+        ByteBuffer right = that.buffer(0);
+        int rightOffset = 0;
+        for (int index = 0; index < bufferCount(); index++) {
+            final ByteBuffer buffer = buffer(index);
+            for (int i = buffer.position(); i < buffer.limit(); i++) {
+                while (rightOffset == right.remaining()) {
+                    rightIndex++;
+                    right = that.buffer(rightIndex);
+                    rightOffset = 0;
+                }
+                if (buffer.get(i) != right.get(right.position() + rightOffset)) {
+                    return false;
+                }
+                rightOffset++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The same hash as {@link java.util.Arrays#hashCode(byte[])} of the content, combined with the content type.
+     */
+    @Override
+    public final int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            int contentHash = 1;
+            for (int index = 0; index < bufferCount(); index++) {
+                final ByteBuffer buffer = buffer(index);
+                for (int i = buffer.position(); i < buffer.limit(); i++) {
+                    contentHash = 31 * contentHash + buffer.get(i);
+                }
+            }
+            result = contentHash * 31 + contentType().hashCode();
+            hash = result;
+        }
+        return result;
+    }
+}
@@ -7,8 +7,11 @@ import lombok.NonNull;
 import lombok.ToString;
 import lombok.Value;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.SequenceInputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
@@ -24,7 +27,7 @@ import java.util.List;
  */
 @Value
 public class Page<PageHeader extends ToHttpHeaders, EntityHeader extends ToHttpHeaders> {
-    private static final Body CRLF = Body.fromUtf8("\r\n");
+    private static final Body CRLF = Body.fromBytesUnsafe("\r\n".getBytes(StandardCharsets.UTF_8));
 
     /**
      * The page's headers. This does not include Content-Length and Content-Type which are included in the return value
@@ -61,6 +64,13 @@ public class Page<PageHeader extends ToHttpHeaders, EntityHeader extends ToHttpH
      * by served as part of the HTTP header for the page to be consumable.
      * </p>
      *
+     * <p>
+     * The part headers and delimiters are encoded once when this method is called. To serve the page with as little
+     * copying as possible, use {@link Body#transferTo(WritableByteChannel)} on the returned body: it writes the
+     * encoded headers and each entity body's own {@link Body#transferTo(WritableByteChannel)} to the channel in
+     * sequence without going through any InputStreams.
+     * </p>
+     *
      * @return a Body containing the page's entities as a multipart document
      */
     public @NonNull Body toMultipartBody() {
@@ -80,15 +90,20 @@ public class Page<PageHeader extends ToHttpHeaders, EntityHeader extends ToHttpH
                 }
             }
             partHeader.append("\r\n");
-            chunks.add(Body.fromUtf8(partHeader.toString()));
+            chunks.add(encode(partHeader.toString()));
             chunks.add(entity.body());
             chunks.add(CRLF);
         }
 
-        chunks.add(Body.fromUtf8(String.format("--%s--", boundary)));
+        chunks.add(encode(String.format("--%s--", boundary)));
         return new MultipartBody(MultipartUtils.pageContentType(boundary), chunks);
     }
 
+    private static Body encode(String string) {
+        // safety: the array never leaves this method except through the Body
+        return Body.fromBytesUnsafe(string.getBytes(StandardCharsets.UTF_8));
+    }
+
     @EqualsAndHashCode
     @ToString
     @AllArgsConstructor
@@ -116,6 +131,15 @@ public class Page<PageHeader extends ToHttpHeaders, EntityHeader extends ToHttpH
             return new SequenceInputStream(inputStreamsEnumeration);
         }
 
+        @Override
+        public long transferTo(@NonNull WritableByteChannel channel) throws IOException {
+            long written = 0;
+            for (Body part : bodyParts) {
+                written += part.transferTo(channel);
+            }
+            return written;
+        }
+
         @Override
         public long contentLength() {
             return bodyParts.stream().mapToLong(Body::contentLength).sum();
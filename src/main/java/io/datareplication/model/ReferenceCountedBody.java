@@ -0,0 +1,47 @@
+package io.datareplication.model;
+
+import lombok.NonNull;
+
+/**
+ * <p>A {@link CloseableBody} whose memory is shared between its owners by reference counting. This is what consumers
+ * return for entities when pooled bodies are enabled: the bytes live in pooled off-heap buffers which are handed out
+ * again once every owner is done with the Body.</p>
+ *
+ * <p>A new Body has a reference count of 1. Every additional owner calls {@link #retain()} and every owner calls
+ * {@link #release()} exactly once when it's done. When the count drops to zero, the memory goes back to the pool and
+ * the Body must not be used anymore: its methods throw {@link IllegalStateException}, and InputStreams that were
+ * created earlier may read the bytes of other bodies.</p>
+ *
+ * <p>{@link #close()} releases one reference, but does nothing if the Body has already been released completely, so
+ * that a single owner can use try-with-resources without keeping track of explicit releases.</p>
+ */
+public interface ReferenceCountedBody extends CloseableBody {
+    /**
+     * Increment the reference count for an additional owner.
+     *
+     * @return this Body
+     * @throws IllegalStateException if the Body has already been released completely
+     */
+    @NonNull ReferenceCountedBody retain();
+
+    /**
+     * Decrement the reference count, returning the memory to the pool if this was the last reference.
+     *
+     * @return true if this call released the last reference
+     * @throws IllegalStateException if the Body has already been released completely
+     */
+    boolean release();
+
+    /**
+     * Return the current reference count; 0 once the Body has been released completely.
+     *
+     * @return the reference count
+     */
+    int referenceCount();
+
+    /**
+     * Release one reference unless the Body has already been released completely.
+     */
+    @Override
+    void close();
+}
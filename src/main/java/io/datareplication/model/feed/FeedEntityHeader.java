@@ -42,10 +42,10 @@ public class FeedEntityHeader implements ToHttpHeaders {
 
     @Override
     public @NonNull HttpHeaders toHttpHeaders() {
-        return extraHeaders
-                .update(HttpHeader.lastModified(lastModified))
-                .update(HttpHeader.of(HttpHeader.CONTENT_ID, contentId.value()))
-                .update(operationTypeHeader());
+        return extraHeaders.update(
+                HttpHeader.lastModified(lastModified),
+                HttpHeader.of(HttpHeader.CONTENT_ID, contentId.value()),
+                operationTypeHeader());
     }
 
     private HttpHeader operationTypeHeader() {
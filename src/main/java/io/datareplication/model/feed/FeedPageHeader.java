@@ -50,9 +50,7 @@ public class FeedPageHeader implements ToHttpHeaders {
 
     @Override
     public @NonNull HttpHeaders toHttpHeaders() {
-        return extraHeaders
-                .update(HttpHeader.lastModified(lastModified))
-                .update(linkHeader());
+        return extraHeaders.update(HttpHeader.lastModified(lastModified), linkHeader());
     }
 
     private HttpHeader linkHeader() {
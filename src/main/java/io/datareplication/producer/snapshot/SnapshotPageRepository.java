@@ -22,6 +22,11 @@ public interface SnapshotPageRepository {
      * What parts of the page are stored, and in what format, is up to the implementor. The snapshot producer
      * implementation doesn't define a way to retrieve a page from the repository, so implementations are free to
      * store or not store aspects of the page as needed for how they serve pages over HTTP.
+     * <p>
+     * To write the page out in its multipart form, use {@link Page#toMultipartBody()} and
+     * {@link io.datareplication.model.Body#transferTo(java.nio.channels.WritableByteChannel)}. Entities created with
+     * {@link io.datareplication.model.Body#fromFile(java.nio.file.Path)} are then copied by the operating system
+     * without passing through the Java heap.
      *
      * @param snapshotId the ID of the snapshot this page is part of
      * @param pageId     the ID of this page
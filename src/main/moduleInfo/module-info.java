@@ -8,6 +8,7 @@ module io.datareplication {
     requires reactor.core;
     requires com.google.gson;
     requires org.apache.commons.io;
+    requires org.slf4j;
 
     exports io.datareplication.consumer;
     exports io.datareplication.consumer.feed;
@@ -5,6 +5,7 @@ import io.datareplication.model.HttpHeader;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class FeedConsumerBuilderTest {
     @Test
@@ -16,4 +17,52 @@ class FeedConsumerBuilderTest {
 
         assertThat(feedConsumer).isInstanceOf(FeedConsumerImpl.class);
     }
+
+    @Test
+    void maxEntitySize_shouldNotAllowNegative() {
+        final var builder = FeedConsumer.builder();
+
+        assertThatThrownBy(() -> builder.maxEntitySize(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void spillToDisk_shouldNotAllowNegative() {
+        final var builder = FeedConsumer.builder();
+
+        assertThatThrownBy(() -> builder.spillToDisk(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pooledBodies_shouldNotAllowNegative() {
+        final var builder = FeedConsumer.builder();
+
+        assertThatThrownBy(() -> builder.pooledBodies(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void prefetchPages_shouldNotAllowNegative() {
+        final var builder = FeedConsumer.builder();
+
+        assertThatThrownBy(() -> builder.prefetchPages(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void networkConcurrency_shouldNotAllowZero() {
+        final var builder = FeedConsumer.builder();
+
+        assertThatThrownBy(() -> builder.networkConcurrency(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cachePageHeaders_shouldNotAllowZero() {
+        final var builder = FeedConsumer.builder();
+
+        assertThatThrownBy(() -> builder.cachePageHeaders(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
 }
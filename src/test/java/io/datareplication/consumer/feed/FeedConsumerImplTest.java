@@ -2,8 +2,12 @@ package io.datareplication.consumer.feed;
 
 import io.datareplication.consumer.HttpException;
 import io.datareplication.consumer.StreamingPage;
+import io.datareplication.consumer.TestStreamingPage;
 import io.datareplication.consumer.TestStreamingPage.TestEntityParts;
+import io.datareplication.internal.page.EntityBufferingOptions;
 import io.datareplication.internal.page.PageLoader;
+import io.datareplication.internal.page.ToCompleteEntitiesTransformer;
+import io.datareplication.internal.pool.BufferPool;
 import io.datareplication.model.Body;
 import io.datareplication.model.BodyTestUtil;
 import io.datareplication.model.ContentType;
@@ -21,23 +25,30 @@ import org.assertj.core.api.ListAssert;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.adapter.JdkFlowAdapter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static io.datareplication.consumer.TestStreamingPage.testStreamingPageOf;
 import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,7 +60,6 @@ FeedConsumerImplTest {
     private PageLoader pageLoader;
     @Mock
     private FeedPageHeaderParser feedPageHeaderParser;
-    @InjectMocks
     private FeedConsumerImpl feedConsumer;
 
     private static final String BOUNDARY = "boundary";
@@ -86,6 +96,13 @@ FeedConsumerImplTest {
 
     @BeforeEach
     void setUp() {
+        feedConsumer = new FeedConsumerImpl(pageLoader,
+                                            feedPageCrawler,
+                                            feedPageHeaderParser,
+                                            EntityBufferingOptions.DEFAULT,
+                                            1,
+                                            1,
+                                            header -> true);
         FeedPageHeader feedPageHeader1 = new FeedPageHeader(
             LAST_MODIFIED,
             Link.self(URL_1),
@@ -131,7 +148,7 @@ FeedConsumerImplTest {
 
         when(feedPageHeaderParser.feedPageHeader(PAGE_HTTP_HEADERS_1)).thenReturn(feedPageHeader);
         when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_1)).thenReturn(FEED_ENTITY_HEADER_1);
-        when(feedPageCrawler.crawl(URL_1, StartFrom.beginning())).thenReturn(Mono.just(URL_1));
+        when(feedPageCrawler.crawl(URL_1, StartFrom.beginning())).thenReturn(Mono.just(List.of(URL_1)));
         when(pageLoader.load(URL_1)).thenReturn(Mono.just(page1));
 
         List<@NonNull StreamingPage<@NonNull FeedPageHeader, @NonNull FeedEntityHeader>> pages = JdkFlowAdapter
@@ -164,7 +181,7 @@ FeedConsumerImplTest {
             BOUNDARY,
             TestEntityParts.of(ENTITY_HTTP_HEADERS_3, "third entity")
         );
-        when(feedPageCrawler.crawl(URL_3, StartFrom.beginning())).thenReturn(Mono.just(URL_1));
+        when(feedPageCrawler.crawl(URL_3, StartFrom.beginning())).thenReturn(Mono.just(List.of(URL_1)));
         when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_1)).thenReturn(FEED_ENTITY_HEADER_1);
         when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_2)).thenReturn(FEED_ENTITY_HEADER_2);
         when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_3)).thenReturn(FEED_ENTITY_HEADER_3);
@@ -189,7 +206,7 @@ FeedConsumerImplTest {
 
     @Test
     void streamPage_shouldContainTheSameEntitiesAsStreamEntities() {
-        when(feedPageCrawler.crawl(URL_3, StartFrom.beginning())).thenReturn(Mono.just(URL_1));
+        when(feedPageCrawler.crawl(URL_3, StartFrom.beginning())).thenReturn(Mono.just(List.of(URL_1)));
         when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_1)).thenReturn(FEED_ENTITY_HEADER_1);
         when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_2)).thenReturn(FEED_ENTITY_HEADER_2);
         when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_3)).thenReturn(FEED_ENTITY_HEADER_3);
@@ -211,6 +228,269 @@ FeedConsumerImplTest {
         assertThat(entities).isEqualTo(pageEntities);
     }
 
+    @Test
+    void streamEntities_shouldPrefetchNextPageButKeepFeedOrder() {
+        final Sinks.Many<StreamingPage.Chunk<HttpHeaders>> page1Chunks = Sinks.many().unicast().onBackpressureBuffer();
+        final var page1 = new TestStreamingPage<>(PAGE_HTTP_HEADERS_1, BOUNDARY, page1Chunks.asFlux());
+        final var page2 = testStreamingPageOf(
+            PAGE_HTTP_HEADERS_2,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_2, "second entity")
+        );
+        final var page3 = new TestStreamingPage<HttpHeaders, HttpHeaders>(PAGE_HTTP_HEADERS_3, BOUNDARY, List.of());
+        when(feedPageCrawler.crawl(URL_3, StartFrom.beginning())).thenReturn(Mono.just(List.of(URL_1)));
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_1)).thenReturn(FEED_ENTITY_HEADER_1);
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_2)).thenReturn(FEED_ENTITY_HEADER_2);
+        when(pageLoader.load(URL_1)).thenReturn(Mono.just(page1));
+        when(pageLoader.load(URL_2)).thenReturn(Mono.just(page2));
+        when(pageLoader.load(URL_3)).thenReturn(Mono.just(page3));
+
+        StepVerifier
+            .create(JdkFlowAdapter.flowPublisherToFlux(feedConsumer.streamEntities(URL_3, StartFrom.beginning())))
+            .expectSubscription()
+            // page 2 is completely downloaded already, but page 1 isn't done yet
+            .then(() -> verify(pageLoader).load(URL_2))
+            .then(() -> verify(pageLoader).load(URL_3))
+            .expectNoEvent(Duration.ofMillis(50))
+            .then(() -> {
+                testStreamingPageChunks(ENTITY_HTTP_HEADERS_1, "first entity").forEach(page1Chunks::tryEmitNext);
+                page1Chunks.tryEmitComplete();
+            })
+            .assertNext(entity -> assertThat(entity.header()).isEqualTo(FEED_ENTITY_HEADER_1))
+            .assertNext(entity -> assertThat(entity.header()).isEqualTo(FEED_ENTITY_HEADER_2))
+            .verifyComplete();
+    }
+
+    @Test
+    void streamEntities_shouldNotPrefetch_whenPrefetchPagesIsZero() {
+        feedConsumer = new FeedConsumerImpl(pageLoader,
+                                            feedPageCrawler,
+                                            feedPageHeaderParser,
+                                            EntityBufferingOptions.DEFAULT,
+                                            0,
+                                            1,
+                                            header -> true);
+        final Sinks.Many<StreamingPage.Chunk<HttpHeaders>> page1Chunks = Sinks.many().unicast().onBackpressureBuffer();
+        final var page1 = new TestStreamingPage<>(PAGE_HTTP_HEADERS_1, BOUNDARY, page1Chunks.asFlux());
+        final AtomicBoolean page2Subscribed = new AtomicBoolean();
+        final var page2 = new TestStreamingPage<>(
+            PAGE_HTTP_HEADERS_2,
+            BOUNDARY,
+            Flux
+                .fromIterable(testStreamingPageChunks(ENTITY_HTTP_HEADERS_2, "second entity"))
+                .doOnSubscribe(subscription -> page2Subscribed.set(true)));
+        final var page3 = new TestStreamingPage<HttpHeaders, HttpHeaders>(PAGE_HTTP_HEADERS_3, BOUNDARY, List.of());
+        when(feedPageCrawler.crawl(URL_3, StartFrom.beginning())).thenReturn(Mono.just(List.of(URL_1)));
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_1)).thenReturn(FEED_ENTITY_HEADER_1);
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_2)).thenReturn(FEED_ENTITY_HEADER_2);
+        when(pageLoader.load(URL_1)).thenReturn(Mono.just(page1));
+        when(pageLoader.load(URL_2)).thenReturn(Mono.just(page2));
+        when(pageLoader.load(URL_3)).thenReturn(Mono.just(page3));
+
+        StepVerifier
+            .create(JdkFlowAdapter.flowPublisherToFlux(feedConsumer.streamEntities(URL_3, StartFrom.beginning())))
+            .expectSubscription()
+            .expectNoEvent(Duration.ofMillis(50))
+            // the body of page 2 isn't downloaded until page 1 is done
+            .then(() -> assertThat(page2Subscribed).isFalse())
+            .then(() -> {
+                testStreamingPageChunks(ENTITY_HTTP_HEADERS_1, "first entity").forEach(page1Chunks::tryEmitNext);
+                page1Chunks.tryEmitComplete();
+            })
+            .assertNext(entity -> assertThat(entity.header()).isEqualTo(FEED_ENTITY_HEADER_1))
+            .assertNext(entity -> assertThat(entity.header()).isEqualTo(FEED_ENTITY_HEADER_2))
+            .verifyComplete();
+    }
+
+    @Test
+    void streamEntities_shouldReleaseBodiesOfSkippedEntities() {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        feedConsumer = new FeedConsumerImpl(pageLoader,
+                                            feedPageCrawler,
+                                            feedPageHeaderParser,
+                                            new EntityBufferingOptions(
+                                                ToCompleteEntitiesTransformer.UNLIMITED,
+                                                ToCompleteEntitiesTransformer.UNLIMITED,
+                                                Optional.empty(),
+                                                Optional.of(pool)),
+                                            1,
+                                            1,
+                                            header -> true);
+        final var page = testStreamingPageOf(
+            PAGE_HTTP_HEADERS_3,
+            BOUNDARY,
+            // large enough for a bigger size class than the second entity, which would reuse its buffer otherwise
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_1, "first entity".repeat(500)),
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_2, "second entity")
+        );
+        final StartFrom startFrom = StartFrom.contentId(CONTENT_ID_1, LAST_MODIFIED);
+        when(feedPageCrawler.crawl(URL_3, startFrom)).thenReturn(Mono.just(List.of(URL_3)));
+        when(pageLoader.load(URL_3)).thenReturn(Mono.just(page));
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_1)).thenReturn(FEED_ENTITY_HEADER_1);
+        when(feedPageHeaderParser.feedEntityHeader(1, ENTITY_HTTP_HEADERS_2)).thenReturn(FEED_ENTITY_HEADER_2);
+
+        StepVerifier
+            .create(JdkFlowAdapter.flowPublisherToFlux(feedConsumer.streamEntities(URL_3, startFrom)))
+            .assertNext(entity -> assertThat(entity.header()).isEqualTo(FEED_ENTITY_HEADER_2))
+            .verifyComplete();
+        // the buffer of the skipped first entity went back to the pool
+        assertThat(pool.idleBytes()).isEqualTo(8192);
+    }
+
+    @Test
+    void streamPages_shouldRequestCrawledPagesConcurrentlyButKeepFeedOrder() {
+        feedConsumer = new FeedConsumerImpl(pageLoader,
+                                            feedPageCrawler,
+                                            feedPageHeaderParser,
+                                            EntityBufferingOptions.DEFAULT,
+                                            1,
+                                            3,
+                                            header -> true);
+        final Sinks.One<StreamingPage<HttpHeaders, HttpHeaders>> page1 = Sinks.one();
+        final var page2 = new TestStreamingPage<HttpHeaders, HttpHeaders>(PAGE_HTTP_HEADERS_2, BOUNDARY, List.of());
+        final var page3 = new TestStreamingPage<HttpHeaders, HttpHeaders>(PAGE_HTTP_HEADERS_3, BOUNDARY, List.of());
+        when(feedPageCrawler.crawl(URL_3, StartFrom.beginning())).thenReturn(Mono.just(List.of(URL_1, URL_2, URL_3)));
+        when(pageLoader.load(URL_1)).thenReturn(page1.asMono());
+        when(pageLoader.load(URL_2)).thenReturn(Mono.just(page2));
+        when(pageLoader.load(URL_3)).thenReturn(Mono.just(page3));
+
+        StepVerifier
+            .create(JdkFlowAdapter.flowPublisherToFlux(feedConsumer.streamPages(URL_3, StartFrom.beginning())))
+            .expectSubscription()
+            // page 2 is requested before page 1 has arrived, but it isn't returned before page 1
+            .then(() -> verify(pageLoader).load(URL_2))
+            .expectNoEvent(Duration.ofMillis(50))
+            .then(() -> page1.tryEmitValue(
+                new TestStreamingPage<HttpHeaders, HttpHeaders>(PAGE_HTTP_HEADERS_1, BOUNDARY, List.of())))
+            .assertNext(page -> assertThat(page.header().self()).isEqualTo(Link.self(URL_1)))
+            .assertNext(page -> assertThat(page.header().self()).isEqualTo(Link.self(URL_2)))
+            .assertNext(page -> assertThat(page.header().self()).isEqualTo(Link.self(URL_3)))
+            .verifyComplete();
+        // the next links of the crawled pages aren't followed again
+        verify(pageLoader).load(URL_1);
+        verify(pageLoader).load(URL_2);
+        verify(pageLoader).load(URL_3);
+    }
+
+    @Test
+    void follow_shouldPollNewestPageAndFollowItsNextLink() {
+        final HttpHeaders page1Version1Headers = PAGE_HTTP_HEADERS_1.update(HttpHeader.of("ETag", "\"v1\""));
+        final HttpHeaders page1Version2Headers = PAGE_HTTP_HEADERS_1.update(HttpHeader.of("ETag", "\"v2\""));
+        final var page1Version1 = testStreamingPageOf(
+            page1Version1Headers,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_1, "first entity")
+        );
+        final var page1Version2 = testStreamingPageOf(
+            page1Version2Headers,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_1, "first entity"),
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_2, "second entity")
+        );
+        final var page2 = testStreamingPageOf(
+            PAGE_HTTP_HEADERS_2,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_3, "third entity")
+        );
+        when(feedPageHeaderParser.feedPageHeader(page1Version1Headers))
+            .thenReturn(new FeedPageHeader(LAST_MODIFIED, Link.self(URL_1), Optional.empty(), Optional.empty()));
+        when(feedPageHeaderParser.feedPageHeader(page1Version2Headers))
+            .thenReturn(new FeedPageHeader(
+                LAST_MODIFIED,
+                Link.self(URL_1),
+                Optional.empty(),
+                Optional.of(Link.next(URL_2))));
+        when(feedPageHeaderParser.feedPageHeader(PAGE_HTTP_HEADERS_2))
+            .thenReturn(new FeedPageHeader(
+                LAST_MODIFIED,
+                Link.self(URL_2),
+                Optional.of(Link.prev(URL_1)),
+                Optional.empty()));
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_1)).thenReturn(FEED_ENTITY_HEADER_1);
+        when(feedPageHeaderParser.feedEntityHeader(1, ENTITY_HTTP_HEADERS_2)).thenReturn(FEED_ENTITY_HEADER_2);
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_3)).thenReturn(FEED_ENTITY_HEADER_3);
+        when(feedPageCrawler.crawl(URL_1, StartFrom.beginning())).thenReturn(Mono.just(List.of(URL_1)));
+        when(pageLoader.loadIfModified(URL_1, HttpHeaders.EMPTY)).thenReturn(Mono.just(page1Version1));
+        when(pageLoader.loadIfModified(URL_1, HttpHeaders.of(HttpHeader.of("If-None-Match", "\"v1\""))))
+            .thenReturn(Mono.empty())
+            .thenReturn(Mono.just(page1Version2));
+        when(pageLoader.loadIfModified(URL_2, HttpHeaders.EMPTY)).thenReturn(Mono.just(page2));
+        final FollowOptions options = FollowOptions
+            .builder()
+            .minPollInterval(Duration.ofSeconds(1))
+            .maxPollInterval(Duration.ofSeconds(10))
+            .build();
+
+        StepVerifier
+            .withVirtualTime(() -> JdkFlowAdapter.flowPublisherToFlux(
+                feedConsumer.follow(URL_1, StartFrom.beginning(), options)))
+            .expectSubscription()
+            .expectNextMatches(entity -> BodyTestUtil.bodiesEqual(entity.body(), textBody("first entity")))
+            // first poll after 1s is not modified, the second one backs off to 2s
+            .expectNoEvent(Duration.ofSeconds(3))
+            .expectNextMatches(entity -> BodyTestUtil.bodiesEqual(entity.body(), textBody("second entity")))
+            // page 1 has a next link now, page 2 is requested right away
+            .expectNextMatches(entity -> BodyTestUtil.bodiesEqual(entity.body(), textBody("third entity")))
+            .thenCancel()
+            .verify();
+        verify(pageLoader, times(2))
+            .loadIfModified(URL_1, HttpHeaders.of(HttpHeader.of("If-None-Match", "\"v1\"")));
+    }
+
+    @Test
+    void follow_shouldPollUnconditionally_whenPageOnlyHasLastModified() {
+        // both versions have the same Last-Modified since the second entity was added within the same second
+        final HttpHeaders page1Headers = PAGE_HTTP_HEADERS_1.update(
+            HttpHeader.of(HttpHeader.LAST_MODIFIED, "Thu, 05 Oct 2023 03:00:14 GMT"));
+        final var page1Version1 = testStreamingPageOf(
+            page1Headers,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_1, "first entity")
+        );
+        final var page1Version2 = testStreamingPageOf(
+            page1Headers,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_1, "first entity"),
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_2, "second entity")
+        );
+        when(feedPageHeaderParser.feedPageHeader(page1Headers))
+            .thenReturn(new FeedPageHeader(LAST_MODIFIED, Link.self(URL_1), Optional.empty(), Optional.empty()));
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_1)).thenReturn(FEED_ENTITY_HEADER_1);
+        when(feedPageHeaderParser.feedEntityHeader(1, ENTITY_HTTP_HEADERS_2)).thenReturn(FEED_ENTITY_HEADER_2);
+        when(feedPageCrawler.crawl(URL_1, StartFrom.beginning())).thenReturn(Mono.just(List.of(URL_1)));
+        when(pageLoader.loadIfModified(URL_1, HttpHeaders.EMPTY))
+            .thenReturn(Mono.just(page1Version1))
+            .thenReturn(Mono.just(page1Version2));
+        final FollowOptions options = FollowOptions
+            .builder()
+            .minPollInterval(Duration.ofSeconds(1))
+            .maxPollInterval(Duration.ofSeconds(10))
+            .build();
+
+        StepVerifier
+            .withVirtualTime(() -> JdkFlowAdapter.flowPublisherToFlux(
+                feedConsumer.follow(URL_1, StartFrom.beginning(), options)))
+            .expectSubscription()
+            .expectNextMatches(entity -> BodyTestUtil.bodiesEqual(entity.body(), textBody("first entity")))
+            // the first entity is not emitted again
+            .thenAwait(Duration.ofSeconds(1))
+            .expectNextMatches(entity -> BodyTestUtil.bodiesEqual(entity.body(), textBody("second entity")))
+            .thenCancel()
+            .verify();
+        verify(pageLoader, times(2)).loadIfModified(URL_1, HttpHeaders.EMPTY);
+    }
+
+    private static Body textBody(String body) {
+        return Body.fromUtf8(body, ContentType.of("text/plain"));
+    }
+
+    private static List<StreamingPage.Chunk<HttpHeaders>> testStreamingPageChunks(HttpHeaders headers, String body) {
+        return List.of(
+            StreamingPage.Chunk.header(headers, ContentType.of("text/plain")),
+            StreamingPage.Chunk.bodyChunk(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8))),
+            StreamingPage.Chunk.bodyEnd());
+    }
+
     /**
      * Must be called before {@link #streamPage_shouldContainTheSameEntitiesAsStreamEntities()}.
      * A stream can only be consumed once.
@@ -254,7 +534,7 @@ FeedConsumerImplTest {
     @Test
     void loadPage_shouldThrowHttpException_fromUnderlyingHttpClient() {
         HttpException.NetworkError expectedNetworkError = new HttpException.NetworkError(URL_1, new IOException());
-        when(feedPageCrawler.crawl(URL_1, StartFrom.beginning())).thenReturn(Mono.just(URL_1));
+        when(feedPageCrawler.crawl(URL_1, StartFrom.beginning())).thenReturn(Mono.just(List.of(URL_1)));
         when(pageLoader.load(URL_1)).thenReturn(Mono.error(expectedNetworkError));
 
         final var result = JdkFlowAdapter
@@ -292,7 +572,7 @@ FeedConsumerImplTest {
             .thenReturn(new FeedEntityHeader(LAST_MODIFIED, OperationType.PUT, CONTENT_ID_2));
         when(feedPageHeaderParser.feedEntityHeader(2, ENTITY_HTTP_HEADERS_3))
             .thenReturn(feedEntityHeader);
-        when(feedPageCrawler.crawl(URL_1, startFrom)).thenReturn(Mono.just(URL_1));
+        when(feedPageCrawler.crawl(URL_1, startFrom)).thenReturn(Mono.just(List.of(URL_1)));
         when(pageLoader.load(URL_1)).thenReturn(Mono.just(page1));
 
         List<@NonNull Entity<@NonNull FeedEntityHeader>> entities = JdkFlowAdapter
@@ -307,6 +587,51 @@ FeedConsumerImplTest {
             .containsExactly("new entity", "newer entity");
     }
 
+    @Test
+    void streamEntitiesFromTimestamp_shouldNotParsePagesOlderThanTimestamp() {
+        StartFrom startFrom = StartFrom.timestamp(LAST_MODIFIED);
+        FeedPageHeader feedPageHeader1 = new FeedPageHeader(
+            LAST_MODIFIED_BEFORE,
+            Link.self(URL_1),
+            Optional.empty(),
+            Optional.of(Link.next(URL_2))
+        );
+        FeedPageHeader feedPageHeader2 = new FeedPageHeader(
+            LAST_MODIFIED_AFTER,
+            Link.self(URL_2),
+            Optional.of(Link.prev(URL_1)),
+            Optional.empty()
+        );
+        var page1 = testStreamingPageOf(
+            PAGE_HTTP_HEADERS_1,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_1, "old entity")
+        );
+        var page2 = testStreamingPageOf(
+            PAGE_HTTP_HEADERS_2,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_2, "new entity")
+        );
+        when(feedPageHeaderParser.feedPageHeader(PAGE_HTTP_HEADERS_1)).thenReturn(feedPageHeader1);
+        when(feedPageHeaderParser.feedPageHeader(PAGE_HTTP_HEADERS_2)).thenReturn(feedPageHeader2);
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_2))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED_AFTER, OperationType.PUT, CONTENT_ID_2));
+        when(feedPageCrawler.crawl(URL_2, startFrom)).thenReturn(Mono.just(List.of(URL_1, URL_2)));
+        when(pageLoader.load(URL_1)).thenReturn(Mono.just(page1));
+        when(pageLoader.load(URL_2)).thenReturn(Mono.just(page2));
+
+        List<@NonNull Entity<@NonNull FeedEntityHeader>> entities = JdkFlowAdapter
+            .flowPublisherToFlux(feedConsumer.streamEntities(URL_2, startFrom))
+            .collectList()
+            .single()
+            .block();
+
+        assertThat(entities)
+            .extracting(entity -> entity.body().toUtf8())
+            .containsExactly("new entity");
+        verify(feedPageHeaderParser, never()).feedEntityHeader(0, ENTITY_HTTP_HEADERS_1);
+    }
+
     @Test
     void streamEntitiesFromContentId_shouldOnlyConsumeNewerEntities() {
         StartFrom startFrom = StartFrom.contentId(CONTENT_ID_2, LAST_MODIFIED);
@@ -330,7 +655,92 @@ FeedConsumerImplTest {
             .thenReturn(new FeedEntityHeader(LAST_MODIFIED, OperationType.PUT, CONTENT_ID_2));
         when(feedPageHeaderParser.feedEntityHeader(2, ENTITY_HTTP_HEADERS_3))
             .thenReturn(new FeedEntityHeader(LAST_MODIFIED_AFTER, OperationType.PUT, CONTENT_ID_3));
-        when(feedPageCrawler.crawl(URL_1, startFrom)).thenReturn(Mono.just(URL_1));
+        when(feedPageCrawler.crawl(URL_1, startFrom)).thenReturn(Mono.just(List.of(URL_1)));
+        when(pageLoader.load(URL_1)).thenReturn(Mono.just(page1));
+
+        List<@NonNull Entity<@NonNull FeedEntityHeader>> entities = JdkFlowAdapter
+            .flowPublisherToFlux(feedConsumer.streamEntities(URL_1, startFrom))
+            .collectList()
+            .single()
+            .block();
+
+        assertThat(entities)
+            .hasSize(1)
+            .extracting(entity -> entity.body().toUtf8())
+            .containsExactly("new entity");
+    }
+
+    @Test
+    void streamEntities_shouldSkipEntitiesRejectedByEntityFilter() {
+        feedConsumer = new FeedConsumerImpl(pageLoader,
+                                            feedPageCrawler,
+                                            feedPageHeaderParser,
+                                            EntityBufferingOptions.DEFAULT,
+                                            1,
+                                            1,
+                                            header -> !header.contentId().equals(CONTENT_ID_2));
+        FeedPageHeader feedPageHeader1 = new FeedPageHeader(
+            LAST_MODIFIED,
+            Link.self(URL_1),
+            Optional.empty(),
+            Optional.empty()
+        );
+        var page1 = testStreamingPageOf(
+            PAGE_HTTP_HEADERS_1,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_1, "first entity"),
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_2, "filtered entity"),
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_3, "third entity")
+        );
+        when(feedPageHeaderParser.feedPageHeader(PAGE_HTTP_HEADERS_1)).thenReturn(feedPageHeader1);
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_1))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED, OperationType.PUT, CONTENT_ID_1));
+        when(feedPageHeaderParser.feedEntityHeader(1, ENTITY_HTTP_HEADERS_2))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED, OperationType.PUT, CONTENT_ID_2));
+        when(feedPageHeaderParser.feedEntityHeader(2, ENTITY_HTTP_HEADERS_3))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED, OperationType.PUT, CONTENT_ID_3));
+        when(feedPageCrawler.crawl(URL_1, StartFrom.beginning())).thenReturn(Mono.just(List.of(URL_1)));
+        when(pageLoader.load(URL_1)).thenReturn(Mono.just(page1));
+
+        List<@NonNull Entity<@NonNull FeedEntityHeader>> entities = JdkFlowAdapter
+            .flowPublisherToFlux(feedConsumer.streamEntities(URL_1, StartFrom.beginning()))
+            .collectList()
+            .single()
+            .block();
+
+        assertThat(entities)
+            .extracting(entity -> entity.body().toUtf8())
+            .containsExactly("first entity", "third entity");
+    }
+
+    @Test
+    void streamEntitiesFromContentId_shouldFindStartEntity_whenEntityFilterRejectsIt() {
+        feedConsumer = new FeedConsumerImpl(pageLoader,
+                                            feedPageCrawler,
+                                            feedPageHeaderParser,
+                                            EntityBufferingOptions.DEFAULT,
+                                            1,
+                                            1,
+                                            header -> !header.contentId().equals(CONTENT_ID_2));
+        StartFrom startFrom = StartFrom.contentId(CONTENT_ID_2, LAST_MODIFIED);
+        FeedPageHeader feedPageHeader1 = new FeedPageHeader(
+            LAST_MODIFIED_AFTER,
+            Link.self(URL_1),
+            Optional.empty(),
+            Optional.empty()
+        );
+        var page1 = testStreamingPageOf(
+            PAGE_HTTP_HEADERS_1,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_2, "already consumed ContentId"),
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_3, "new entity")
+        );
+        when(feedPageHeaderParser.feedPageHeader(PAGE_HTTP_HEADERS_1)).thenReturn(feedPageHeader1);
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_2))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED, OperationType.PUT, CONTENT_ID_2));
+        when(feedPageHeaderParser.feedEntityHeader(1, ENTITY_HTTP_HEADERS_3))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED_AFTER, OperationType.PUT, CONTENT_ID_3));
+        when(feedPageCrawler.crawl(URL_1, startFrom)).thenReturn(Mono.just(List.of(URL_1)));
         when(pageLoader.load(URL_1)).thenReturn(Mono.just(page1));
 
         List<@NonNull Entity<@NonNull FeedEntityHeader>> entities = JdkFlowAdapter
@@ -339,6 +749,43 @@ FeedConsumerImplTest {
             .single()
             .block();
 
+        assertThat(entities)
+            .extracting(entity -> entity.body().toUtf8())
+            .containsExactly("new entity");
+    }
+
+    @Test
+    void streamEntitiesFromCheckpoint_shouldOnlyConsumeEntitiesAfterTheCheckpoint() {
+        StartFrom startFrom = StartFrom.checkpoint(new FeedCheckpoint(URL_2, CONTENT_ID_2, LAST_MODIFIED));
+        FeedPageHeader feedPageHeader2 = new FeedPageHeader(
+            LAST_MODIFIED,
+            Link.self(URL_2),
+            Optional.of(Link.prev(URL_1)),
+            Optional.empty()
+        );
+        var page2 = testStreamingPageOf(
+            PAGE_HTTP_HEADERS_2,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_1, "already consumed older timestamp"),
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_2, "already consumed checkpoint"),
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_3, "new entity")
+        );
+        when(feedPageHeaderParser.feedPageHeader(PAGE_HTTP_HEADERS_2)).thenReturn(feedPageHeader2);
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_1))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED_BEFORE, OperationType.PUT, CONTENT_ID_1));
+        when(feedPageHeaderParser.feedEntityHeader(1, ENTITY_HTTP_HEADERS_2))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED, OperationType.PUT, CONTENT_ID_2));
+        when(feedPageHeaderParser.feedEntityHeader(2, ENTITY_HTTP_HEADERS_3))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED_AFTER, OperationType.PUT, CONTENT_ID_3));
+        when(feedPageCrawler.crawl(URL_3, startFrom)).thenReturn(Mono.just(List.of(URL_2)));
+        when(pageLoader.load(URL_2)).thenReturn(Mono.just(page2));
+
+        List<@NonNull Entity<@NonNull FeedEntityHeader>> entities = JdkFlowAdapter
+            .flowPublisherToFlux(feedConsumer.streamEntities(URL_3, startFrom))
+            .collectList()
+            .single()
+            .block();
+
         assertThat(entities)
             .hasSize(1)
             .extracting(entity -> entity.body().toUtf8())
@@ -370,7 +817,52 @@ FeedConsumerImplTest {
             .thenReturn(new FeedEntityHeader(LAST_MODIFIED, OperationType.PUT, CONTENT_ID_2));
         when(feedPageHeaderParser.feedEntityHeader(2, ENTITY_HTTP_HEADERS_3))
             .thenReturn(new FeedEntityHeader(LAST_MODIFIED_AFTER, OperationType.PUT, CONTENT_ID_3));
-        when(feedPageCrawler.crawl(URL_1, startFrom)).thenReturn(Mono.just(URL_1));
+        when(feedPageCrawler.crawl(URL_1, startFrom)).thenReturn(Mono.just(List.of(URL_1)));
+        when(pageLoader.load(URL_1)).thenReturn(Mono.just(page1));
+
+        final var result = JdkFlowAdapter
+            .flowPublisherToFlux(feedConsumer.streamEntities(URL_1, startFrom));
+
+        StepVerifier
+            .create(result)
+            .expectNextCount(0)
+            .expectErrorMatches(expectedException::equals)
+            .verify();
+    }
+
+    @Test
+    void streamEntitiesFromContentId_shouldThrowExceptionWhenTheNewerEntitiesAreFilteredOut() {
+        feedConsumer = new FeedConsumerImpl(pageLoader,
+                                            feedPageCrawler,
+                                            feedPageHeaderParser,
+                                            EntityBufferingOptions.DEFAULT,
+                                            1,
+                                            1,
+                                            header -> !header.contentId().equals(CONTENT_ID_3));
+        var startFrom = StartFrom.contentId(ContentId.of("Unknown"), LAST_MODIFIED);
+        var expectedException = new FeedException.ContentIdNotFound(startFrom, URL_1, LAST_MODIFIED_AFTER);
+
+        FeedPageHeader feedPageHeader1 = new FeedPageHeader(
+            LAST_MODIFIED_AFTER,
+            Link.self(URL_1),
+            Optional.empty(),
+            Optional.empty()
+        );
+        var page1 = testStreamingPageOf(
+            PAGE_HTTP_HEADERS_1,
+            BOUNDARY,
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_1, "before"),
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_2, "matches last modified"),
+            TestEntityParts.of(ENTITY_HTTP_HEADERS_3, "after last modified but filtered out")
+        );
+        when(feedPageHeaderParser.feedPageHeader(PAGE_HTTP_HEADERS_1)).thenReturn(feedPageHeader1);
+        when(feedPageHeaderParser.feedEntityHeader(0, ENTITY_HTTP_HEADERS_1))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED_BEFORE, OperationType.PUT, CONTENT_ID_1));
+        when(feedPageHeaderParser.feedEntityHeader(1, ENTITY_HTTP_HEADERS_2))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED, OperationType.PUT, CONTENT_ID_2));
+        when(feedPageHeaderParser.feedEntityHeader(2, ENTITY_HTTP_HEADERS_3))
+            .thenReturn(new FeedEntityHeader(LAST_MODIFIED_AFTER, OperationType.PUT, CONTENT_ID_3));
+        when(feedPageCrawler.crawl(URL_1, startFrom)).thenReturn(Mono.just(List.of(URL_1)));
         when(pageLoader.load(URL_1)).thenReturn(Mono.just(page1));
 
         final var result = JdkFlowAdapter
@@ -11,29 +11,37 @@ import lombok.NonNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class FeedPageCrawlerTest {
 
-    @InjectMocks
     private FeedPageCrawler feedPageCrawler;
 
     @Mock
     private HeaderLoader headerLoader;
 
+    @Mock
+    private Consumer<CrawlProgress> progressListener;
+
     private static final Instant INSTANT_PAGE_1 = Instant.parse("2023-10-01T00:00:01.000Z");
     private static final Instant INSTANT_PAGE_2 = Instant.parse("2023-10-01T00:00:02.000Z");
     private static final Instant INSTANT_PAGE_3 = Instant.parse("2023-10-01T00:00:03.000Z");
@@ -73,6 +81,7 @@ class FeedPageCrawlerTest {
 
     @BeforeEach
     void setUp() {
+        feedPageCrawler = new FeedPageCrawler(headerLoader, progressListener, Optional.empty());
         lenient()
             .when(headerLoader.load(pageHeader1.self().value()))
             .thenReturn(Mono.just(pageHeader1));
@@ -88,18 +97,93 @@ class FeedPageCrawlerTest {
     void startFromBeginningWithoutPrevLink_shouldStartWithThisPage() {
         Url url = pageHeader1.self().value();
 
-        Mono<@NonNull Url> result = feedPageCrawler.crawl(url, StartFrom.beginning());
+        Mono<@NonNull List<@NonNull Url>> result = feedPageCrawler.crawl(url, StartFrom.beginning());
 
-        assertThat(result.toFuture()).isCompletedWithValue(pageHeader1.self().value());
+        assertThat(result.toFuture()).isCompletedWithValue(List.of(pageHeader1.self().value()));
     }
 
     @Test
     void crawlToBeginning_shouldStartWithPageHeader1() {
         Url url = pageHeader3.self().value();
 
-        Mono<@NonNull Url> result = feedPageCrawler.crawl(url, StartFrom.beginning());
+        Mono<@NonNull List<@NonNull Url>> result = feedPageCrawler.crawl(url, StartFrom.beginning());
+
+        assertThat(result.toFuture()).isCompletedWithValue(List.of(
+            pageHeader1.self().value(),
+            pageHeader2.self().value(),
+            pageHeader3.self().value()
+        ));
+    }
+
+    @Test
+    void crawlToBeginning_shouldReportProgressForEveryPage() {
+        Url url = pageHeader3.self().value();
+
+        feedPageCrawler.crawl(url, StartFrom.beginning()).block();
+
+        InOrder inOrder = inOrder(progressListener);
+        inOrder.verify(progressListener).accept(new CrawlProgress(1, INSTANT_PAGE_3));
+        inOrder.verify(progressListener).accept(new CrawlProgress(2, INSTANT_PAGE_2));
+        inOrder.verify(progressListener).accept(new CrawlProgress(3, INSTANT_PAGE_1));
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void crawlToBeginning_shouldNotGrowTheStackWithTheFeedLength() {
+        int pageCount = 10_000;
+        for (int i = 1; i <= pageCount; i++) {
+            Url self = Url.of("https://example.datareplication.io/long/" + i);
+            Optional<Link.Prev> prev = i == 1
+                ? Optional.empty()
+                : Optional.of(Link.prev(Url.of("https://example.datareplication.io/long/" + (i - 1))));
+            FeedPageHeader pageHeader = new FeedPageHeader(
+                INSTANT_PAGE_1,
+                Link.self(self),
+                prev,
+                Optional.of(Link.next(Url.of("https://example.datareplication.io/long/" + (i + 1)))),
+                HttpHeaders.EMPTY
+            );
+            when(headerLoader.load(self)).thenReturn(Mono.just(pageHeader));
+        }
+
+        List<Url> result = feedPageCrawler
+            .crawl(Url.of("https://example.datareplication.io/long/" + pageCount), StartFrom.beginning())
+            .block();
+
+        assertThat(result).hasSize(pageCount);
+        assertThat(result.get(0)).isEqualTo(Url.of("https://example.datareplication.io/long/1"));
+    }
+
+    @Test
+    void startFromCheckpoint_shouldReturnCheckpointPageWithoutCrawling() {
+        Url url = pageHeader3.self().value();
+        FeedCheckpoint checkpoint = new FeedCheckpoint(pageHeader1.self().value(), ContentId.of("id"), INSTANT_PAGE_1);
+
+        Mono<@NonNull List<@NonNull Url>> result = feedPageCrawler.crawl(url, StartFrom.checkpoint(checkpoint));
+
+        assertThat(result.toFuture()).isCompletedWithValue(List.of(pageHeader1.self().value()));
+        verifyNoInteractions(headerLoader);
+    }
+
+    @Test
+    void crawlToBeginning_withCache_shouldOnlyRequestPagesWithoutNextLinkAgain() {
+        feedPageCrawler = new FeedPageCrawler(
+            headerLoader,
+            progressListener,
+            Optional.of(new FeedPageHeaderCache(10, Optional.empty())));
+        Url url = pageHeader3.self().value();
 
-        assertThat(result.toFuture()).isCompletedWithValue(pageHeader1.self().value());
+        feedPageCrawler.crawl(url, StartFrom.beginning()).block();
+        Mono<@NonNull List<@NonNull Url>> result = feedPageCrawler.crawl(url, StartFrom.beginning());
+
+        assertThat(result.toFuture()).isCompletedWithValue(List.of(
+            pageHeader1.self().value(),
+            pageHeader2.self().value(),
+            pageHeader3.self().value()
+        ));
+        verify(headerLoader, times(1)).load(pageHeader1.self().value());
+        verify(headerLoader, times(1)).load(pageHeader2.self().value());
+        verify(headerLoader, times(2)).load(pageHeader3.self().value());
     }
 
     @Test
@@ -108,7 +192,7 @@ class FeedPageCrawlerTest {
         HttpException.ClientError expectedException = new HttpException.ClientError(url, 404);
         when(headerLoader.load(url)).thenReturn(Mono.error(expectedException));
 
-        Mono<@NonNull Url> result = feedPageCrawler.crawl(url, StartFrom.beginning());
+        Mono<@NonNull List<@NonNull Url>> result = feedPageCrawler.crawl(url, StartFrom.beginning());
 
         assertThat(result.toFuture())
             .isCompletedExceptionally()
@@ -121,26 +205,38 @@ class FeedPageCrawlerTest {
     void startFromTimestamp_shouldStartWithPage2() {
         Url url = pageHeader1.self().value();
 
-        Mono<@NonNull Url> result = feedPageCrawler.crawl(url, StartFrom.timestamp(INSTANT_PAGE_2));
+        Mono<@NonNull List<@NonNull Url>> result = feedPageCrawler.crawl(url, StartFrom.timestamp(INSTANT_PAGE_2));
+
+        assertThat(result.toFuture()).isCompletedWithValue(List.of(pageHeader2.self().value()));
+    }
+
+    @Test
+    void startFromTimestamp_shouldReturnCrawledPagesOldestFirst() {
+        Url url = pageHeader3.self().value();
+
+        Mono<@NonNull List<@NonNull Url>> result = feedPageCrawler.crawl(url, StartFrom.timestamp(INSTANT_PAGE_2));
 
-        assertThat(result.toFuture()).isCompletedWithValue(pageHeader2.self().value());
+        assertThat(result.toFuture()).isCompletedWithValue(List.of(
+            pageHeader2.self().value(),
+            pageHeader3.self().value()
+        ));
     }
 
     @Test
     void startFromContentId_shouldStartWithPage2() {
         Url url = pageHeader1.self().value();
 
-        Mono<@NonNull Url> result =
+        Mono<@NonNull List<@NonNull Url>> result =
             feedPageCrawler.crawl(url, StartFrom.contentId(ContentId.of("any id"), INSTANT_PAGE_2));
 
-        assertThat(result.toFuture()).isCompletedWithValue(pageHeader2.self().value());
+        assertThat(result.toFuture()).isCompletedWithValue(List.of(pageHeader2.self().value()));
     }
 
     @Test
     void startFromTimestamp_withNoOlderPage_shouldThrowException() {
         Url url = pageHeader1.self().value();
 
-        Mono<@NonNull Url> result = feedPageCrawler.crawl(url, StartFrom.timestamp(INSTANT_PAGE_1));
+        Mono<@NonNull List<@NonNull Url>> result = feedPageCrawler.crawl(url, StartFrom.timestamp(INSTANT_PAGE_1));
 
         assertThat(result.toFuture())
             .isCompletedExceptionally()
@@ -157,7 +253,7 @@ class FeedPageCrawlerTest {
 
         Url url = pageHeader3.self().value();
 
-        Mono<@NonNull Url> result = feedPageCrawler.crawl(url, StartFrom.timestamp(INSTANT_PAGE_3));
+        Mono<@NonNull List<@NonNull Url>> result = feedPageCrawler.crawl(url, StartFrom.timestamp(INSTANT_PAGE_3));
 
         assertThat(result.toFuture())
             .isCompletedExceptionally()
@@ -171,7 +267,7 @@ class FeedPageCrawlerTest {
     void startFromContentId_withNoOlderPage_shouldThrowException() {
         Url url = pageHeader1.self().value();
 
-        Mono<@NonNull Url> result =
+        Mono<@NonNull List<@NonNull Url>> result =
             feedPageCrawler.crawl(url, StartFrom.contentId(ContentId.of("any id"), INSTANT_PAGE_1));
 
         assertThat(result.toFuture())
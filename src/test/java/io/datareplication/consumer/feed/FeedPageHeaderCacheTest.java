@@ -0,0 +1,117 @@
+package io.datareplication.consumer.feed;
+
+import io.datareplication.model.HttpHeader;
+import io.datareplication.model.HttpHeaders;
+import io.datareplication.model.Url;
+import io.datareplication.model.feed.FeedPageHeader;
+import io.datareplication.model.feed.Link;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedPageHeaderCacheTest {
+    private static final Url URL_1 = Url.of("https://example.datareplication.io/1");
+    private static final Url URL_2 = Url.of("https://example.datareplication.io/2");
+    private static final Url URL_3 = Url.of("https://example.datareplication.io/3");
+
+    @TempDir
+    private Path tempDir;
+
+    private static FeedPageHeader pageHeader(Url self, Optional<Url> prev, Optional<Url> next) {
+        return new FeedPageHeader(
+            Instant.parse("2023-10-01T00:00:01.500Z"),
+            Link.self(self),
+            prev.map(Link::prev),
+            next.map(Link::next));
+    }
+
+    @Test
+    void shouldReturnCachedPageHeader() {
+        final FeedPageHeaderCache cache = new FeedPageHeaderCache(10, Optional.empty());
+        final FeedPageHeader header = pageHeader(URL_1, Optional.empty(), Optional.of(URL_2));
+
+        cache.put(URL_1, header);
+
+        assertThat(cache.get(URL_1)).contains(header);
+        assertThat(cache.get(URL_2)).isEmpty();
+    }
+
+    @Test
+    void shouldNotCachePageHeaderWithoutNextLink() {
+        final FeedPageHeaderCache cache = new FeedPageHeaderCache(10, Optional.of(tempDir));
+
+        cache.put(URL_1, pageHeader(URL_1, Optional.empty(), Optional.empty()));
+
+        assertThat(cache.get(URL_1)).isEmpty();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedPageHeader() {
+        final FeedPageHeaderCache cache = new FeedPageHeaderCache(2, Optional.empty());
+        cache.put(URL_1, pageHeader(URL_1, Optional.empty(), Optional.of(URL_2)));
+        cache.put(URL_2, pageHeader(URL_2, Optional.of(URL_1), Optional.of(URL_3)));
+
+        cache.get(URL_1);
+        cache.put(URL_3, pageHeader(URL_3, Optional.of(URL_2), Optional.of(URL_1)));
+
+        assertThat(cache.get(URL_1)).isPresent();
+        assertThat(cache.get(URL_2)).isEmpty();
+        assertThat(cache.get(URL_3)).isPresent();
+    }
+
+    @Test
+    void shouldReadEvictedPageHeaderFromDisk() {
+        final FeedPageHeaderCache cache = new FeedPageHeaderCache(1, Optional.of(tempDir));
+        final FeedPageHeader header1 = pageHeader(URL_1, Optional.empty(), Optional.of(URL_2));
+        final FeedPageHeader header2 = pageHeader(URL_2, Optional.of(URL_1), Optional.of(URL_3));
+
+        cache.put(URL_1, header1);
+        cache.put(URL_2, header2);
+
+        assertThat(cache.get(URL_1)).contains(header1);
+        assertThat(cache.get(URL_2)).contains(header2);
+    }
+
+    @Test
+    void shouldReadPageHeaderCachedByPreviousInstance() {
+        final FeedPageHeader header = pageHeader(URL_2, Optional.of(URL_1), Optional.of(URL_3));
+        new FeedPageHeaderCache(10, Optional.of(tempDir)).put(URL_2, header);
+
+        assertThat(new FeedPageHeaderCache(10, Optional.of(tempDir)).get(URL_2)).contains(header);
+    }
+
+    @Test
+    void shouldReadExtraHeadersFromDisk() {
+        final FeedPageHeader header = new FeedPageHeader(
+            Instant.parse("2023-10-01T00:00:01.500Z"),
+            Link.self(URL_2),
+            Optional.of(Link.prev(URL_1)),
+            Optional.of(Link.next(URL_3)),
+            HttpHeaders.of(HttpHeader.of("X-Single", "value"), HttpHeader.of("X-Multi", List.of("a", "b=c"))));
+        new FeedPageHeaderCache(10, Optional.of(tempDir)).put(URL_2, header);
+
+        assertThat(new FeedPageHeaderCache(10, Optional.of(tempDir)).get(URL_2)).contains(header);
+    }
+
+    @Test
+    void shouldTreatInvalidFileAsCacheMiss() throws IOException {
+        final FeedPageHeader header = pageHeader(URL_2, Optional.of(URL_1), Optional.of(URL_3));
+        new FeedPageHeaderCache(10, Optional.of(tempDir)).put(URL_2, header);
+        try (var files = Files.list(tempDir)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.writeString(file, "garbage");
+            }
+        }
+
+        assertThat(new FeedPageHeaderCache(10, Optional.of(tempDir)).get(URL_2)).isEmpty();
+    }
+}
@@ -170,6 +170,27 @@ class FeedPageHeaderParserTest {
         );
     }
 
+    @Test
+    void shouldParseFeedEntityHttpHeaderRegardlessOfCaseAndOtherHeaders() {
+        HttpHeaders httpHeaders = HttpHeaders.of(
+            HttpHeader.of("X-Extra", "extra"),
+            HttpHeader.of("content-id", ANY_CONTENT_ID),
+            HttpHeader.of(HttpHeader.CONTENT_LENGTH, "12"),
+            HttpHeader.of("OPERATION-TYPE", OPERATION_TYPE_PUT),
+            HttpHeader.of("last-Modified", LAST_MODIFIED)
+        );
+
+        FeedEntityHeader feedEntityHeader = feedPageHeaderParser.feedEntityHeader(1, httpHeaders);
+
+        assertThat(feedEntityHeader).isEqualTo(
+            new FeedEntityHeader(
+                Instant.from(RFC_1123_DATE_TIME.parse(LAST_MODIFIED)),
+                OperationType.PUT,
+                ContentId.of(ANY_CONTENT_ID)
+            )
+        );
+    }
+
     @Test
     void missingContentIdShouldThrowException() {
         HttpHeader lastModifiedHttpHeader = HttpHeader.of(HttpHeader.LAST_MODIFIED, LAST_MODIFIED);
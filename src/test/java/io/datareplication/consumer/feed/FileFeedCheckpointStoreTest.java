@@ -0,0 +1,86 @@
+package io.datareplication.consumer.feed;
+
+import io.datareplication.model.Url;
+import io.datareplication.model.feed.ContentId;
+import io.datareplication.model.feed.FeedEntityHeader;
+import io.datareplication.model.feed.FeedPageHeader;
+import io.datareplication.model.feed.Link;
+import io.datareplication.model.feed.OperationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileFeedCheckpointStoreTest {
+    private static final FeedCheckpoint CHECKPOINT = new FeedCheckpoint(
+        Url.of("https://example.datareplication.io/feed/3"),
+        ContentId.of("<3-1@example.datareplication.io>"),
+        Instant.parse("2023-10-01T00:00:03.123Z"));
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void shouldReturnEmpty_whenNothingWasSaved() throws IOException {
+        final FeedCheckpointStore store = FeedCheckpointStore.ofFile(tempDir.resolve("checkpoint"));
+
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    void shouldLoadSavedCheckpoint() throws IOException {
+        final Path path = tempDir.resolve("checkpoint");
+
+        FeedCheckpointStore.ofFile(path).save(CHECKPOINT);
+
+        assertThat(FeedCheckpointStore.ofFile(path).load()).contains(CHECKPOINT);
+    }
+
+    @Test
+    void shouldReplacePreviousCheckpoint() throws IOException {
+        final FeedCheckpointStore store = FeedCheckpointStore.ofFile(tempDir.resolve("checkpoint"));
+        final FeedCheckpoint newer = new FeedCheckpoint(
+            Url.of("https://example.datareplication.io/feed/4"),
+            ContentId.of("<4-1@example.datareplication.io>"),
+            Instant.parse("2023-10-01T00:00:04Z"));
+
+        store.save(CHECKPOINT);
+        store.save(newer);
+
+        assertThat(store.load()).contains(newer);
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(tempDir.resolve("checkpoint"));
+        }
+    }
+
+    @Test
+    void shouldThrow_whenCheckpointFileIsIncomplete() throws IOException {
+        final Path path = tempDir.resolve("checkpoint");
+        Files.writeString(path, "pageUrl=https://example.datareplication.io/feed/3\n");
+
+        assertThatThrownBy(() -> FeedCheckpointStore.ofFile(path).load())
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void checkpointOf_shouldUsePageAndEntityHeaders() {
+        final FeedPageHeader page = new FeedPageHeader(
+            Instant.parse("2023-10-01T00:00:04Z"),
+            Link.self(CHECKPOINT.pageUrl()),
+            Optional.empty(),
+            Optional.empty());
+        final FeedEntityHeader entity = new FeedEntityHeader(
+            CHECKPOINT.timestamp(),
+            OperationType.PUT,
+            CHECKPOINT.contentId());
+
+        assertThat(FeedCheckpoint.of(page, entity)).isEqualTo(CHECKPOINT);
+    }
+}
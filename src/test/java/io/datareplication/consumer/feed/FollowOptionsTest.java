@@ -0,0 +1,46 @@
+package io.datareplication.consumer.feed;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FollowOptionsTest {
+    @Test
+    void shouldBuildWithDefaults() {
+        final FollowOptions options = FollowOptions.defaults();
+
+        assertThat(options.minPollInterval()).isEqualTo(Duration.ofMillis(250));
+        assertThat(options.maxPollInterval()).isEqualTo(Duration.ofSeconds(10));
+        assertThat(options.backoffMultiplier()).isEqualTo(2);
+    }
+
+    @Test
+    void minPollInterval_shouldNotAllowZero() {
+        final var builder = FollowOptions.builder();
+
+        assertThatThrownBy(() -> builder.minPollInterval(Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void backoffMultiplier_shouldNotAllowLessThanOne() {
+        final var builder = FollowOptions.builder();
+
+        assertThatThrownBy(() -> builder.backoffMultiplier(0.5))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void build_shouldNotAllowMaxPollIntervalShorterThanMin() {
+        final var builder = FollowOptions
+            .builder()
+            .minPollInterval(Duration.ofSeconds(5))
+            .maxPollInterval(Duration.ofSeconds(1));
+
+        assertThatThrownBy(builder::build)
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,87 @@
+package io.datareplication.consumer.feed;
+
+import io.datareplication.model.HttpHeader;
+import io.datareplication.model.Url;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LinkHeaderParserTest {
+    private static final Url URL_1 = Url.of("https://example.datareplication.io/1");
+    private static final Url URL_2 = Url.of("https://example.datareplication.io/2");
+    private static final Url URL_3 = Url.of("https://example.datareplication.io/3");
+
+    private static LinkHeaderParser.Links parse(String... values) {
+        return LinkHeaderParser.parse(HttpHeader.of(HttpHeader.LINK, List.of(values)));
+    }
+
+    @Test
+    void shouldParseOneLinkPerValue() {
+        final var links = parse(
+            "<https://example.datareplication.io/2>; rel=self",
+            "<https://example.datareplication.io/1>; rel=prev",
+            "<https://example.datareplication.io/3>; rel=next");
+
+        assertThat(links).isEqualTo(new LinkHeaderParser.Links(Optional.of(URL_2),
+                                                              Optional.of(URL_1),
+                                                              Optional.of(URL_3)));
+    }
+
+    @Test
+    void shouldParseCommaSeparatedLinks() {
+        final var links = parse("<https://example.datareplication.io/3>;rel=next ,  "
+                                    + "<https://example.datareplication.io/2> ; rel=\"self\"; title=\"a, b; c\"");
+
+        assertThat(links).isEqualTo(new LinkHeaderParser.Links(Optional.of(URL_2),
+                                                              Optional.empty(),
+                                                              Optional.of(URL_3)));
+    }
+
+    @Test
+    void shouldKeepCommasAndSemicolonsInTarget() {
+        final var links = parse("<https://example.datareplication.io/a;b,c>; rel=self");
+
+        assertThat(links.self()).hasValue(Url.of("https://example.datareplication.io/a;b,c"));
+    }
+
+    @Test
+    void shouldParseMultipleRelationTypesAndEscapes() {
+        final var links = parse("<https://example.datareplication.io/2>; REL=\"se\\lf  next\"",
+                                "<https://example.datareplication.io/1>; rel=prev");
+
+        assertThat(links).isEqualTo(new LinkHeaderParser.Links(Optional.of(URL_2),
+                                                              Optional.of(URL_1),
+                                                              Optional.of(URL_2)));
+    }
+
+    @Test
+    void shouldUseFirstLinkForEachRelationType() {
+        final var links = parse("<https://example.datareplication.io/1>; rel=self",
+                                "<https://example.datareplication.io/2>; rel=self");
+
+        assertThat(links.self()).hasValue(URL_1);
+    }
+
+    @Test
+    void shouldTreatBlankTargetAsMissing() {
+        final var links = parse("; rel=self", "<https://example.datareplication.io/2>; rel=self", "< >; rel=next");
+
+        assertThat(links).isEqualTo(new LinkHeaderParser.Links(Optional.empty(),
+                                                              Optional.empty(),
+                                                              Optional.empty()));
+    }
+
+    @Test
+    void shouldIgnoreUnknownRelationTypesAndMalformedParameters() {
+        final var links = parse("<https://example.datareplication.io/1>; rel=Self; rel",
+                                "<https://example.datareplication.io/2>; foo; rel=previous",
+                                "<https://example.datareplication.io/3>; anchor; rel=next; =; title=\"unclosed");
+
+        assertThat(links).isEqualTo(new LinkHeaderParser.Links(Optional.empty(),
+                                                              Optional.empty(),
+                                                              Optional.of(URL_3)));
+    }
+}
@@ -20,4 +20,28 @@ class SnapshotConsumerBuilderTest {
         assertThatThrownBy(() -> builder.networkConcurrency(-1))
             .isInstanceOf(IllegalArgumentException.class);
     }
+
+    @Test
+    void maxEntitySize_shouldNotAllowZero() {
+        final var builder = SnapshotConsumer.builder();
+
+        assertThatThrownBy(() -> builder.maxEntitySize(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void spillToDisk_shouldNotAllowNegative() {
+        final var builder = SnapshotConsumer.builder();
+
+        assertThatThrownBy(() -> builder.spillToDisk(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pooledBodies_shouldNotAllowNegative() {
+        final var builder = SnapshotConsumer.builder();
+
+        assertThatThrownBy(() -> builder.pooledBodies(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
 }
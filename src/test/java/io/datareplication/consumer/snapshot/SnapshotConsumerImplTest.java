@@ -6,6 +6,7 @@ import io.datareplication.consumer.StreamingPage;
 import io.datareplication.consumer.TestStreamingPage;
 import io.datareplication.internal.http.HttpClient;
 import io.datareplication.internal.http.TestHttpResponse;
+import io.datareplication.internal.page.EntityBufferingOptions;
 import io.datareplication.internal.page.PageLoader;
 import io.datareplication.model.Body;
 import io.datareplication.model.BodyTestUtil;
@@ -56,7 +57,9 @@ class SnapshotConsumerImplTest {
         snapshotConsumer = new SnapshotConsumerImpl(httpClient,
                                                     pageLoader,
                                                     1,
-                                                    false);
+                                                    false,
+                                                    EntityBufferingOptions.DEFAULT,
+                                                    header -> true);
     }
 
     private static final Url SOME_URL = Url.of("https://example.datareplication.io/snapshotindex.json");
@@ -255,12 +258,63 @@ class SnapshotConsumerImplTest {
             );
     }
 
+    @Test
+    void streamEntities_shouldSkipEntitiesRejectedByEntityFilter() {
+        snapshotConsumer = new SnapshotConsumerImpl(httpClient,
+                                                    pageLoader,
+                                                    1,
+                                                    false,
+                                                    EntityBufferingOptions.DEFAULT,
+                                                    header -> header.extraHeaders().get("skip").isEmpty());
+        final Url url1 = Url.of("https://example.datareplication.io/snapshotpage/1");
+        final HttpHeaders headers1 = HttpHeaders.of(HttpHeader.of("h1", "v1"));
+        final HttpHeaders headers2 = HttpHeaders.of(HttpHeader.of("skip", "yes"));
+        final HttpHeaders headers3 = HttpHeaders.of(HttpHeader.of("h3", "v3"));
+        when(pageLoader.load(url1)).thenReturn(Mono.just(
+            new TestStreamingPage<>(HttpHeaders.EMPTY,
+                                    "",
+                                    List.of(
+                                        StreamingPage.Chunk.header(headers1, ContentType.of("text/plain")),
+                                        StreamingPage.Chunk.bodyChunk(utf8("abc")),
+                                        StreamingPage.Chunk.bodyEnd(),
+                                        StreamingPage.Chunk.header(headers2, ContentType.of("text/plain")),
+                                        StreamingPage.Chunk.bodyChunk(utf8("skipped")),
+                                        StreamingPage.Chunk.bodyChunk(utf8("as well")),
+                                        StreamingPage.Chunk.bodyEnd(),
+                                        StreamingPage.Chunk.header(headers3, ContentType.of("text/plain")),
+                                        StreamingPage.Chunk.bodyChunk(utf8("def")),
+                                        StreamingPage.Chunk.bodyEnd()
+                                    ))
+        ));
+        final SnapshotIndex snapshotIndex = new SnapshotIndex(
+            SnapshotId.of("doesn't matter"),
+            Instant.now(),
+            List.of(url1));
+
+        final var entities = JdkFlowAdapter
+            .flowPublisherToFlux(snapshotConsumer.streamEntities(snapshotIndex))
+            .collectList()
+            .single()
+            .block();
+
+        assertThat(entities)
+            .usingRecursiveFieldByFieldElementComparator(BodyTestUtil.bodyContentsComparator())
+            .containsExactly(
+                new Entity<>(new SnapshotEntityHeader(headers1),
+                             Body.fromUtf8("abc", ContentType.of("text/plain"))),
+                new Entity<>(new SnapshotEntityHeader(headers3),
+                             Body.fromUtf8("def", ContentType.of("text/plain")))
+            );
+    }
+
     @Test
     void streamEntities_shouldLoadAllPagesAndStreamAllEntitiesConcurrently() {
         snapshotConsumer = new SnapshotConsumerImpl(httpClient,
                                                     pageLoader,
                                                     10,
-                                                    false);
+                                                    false,
+                                                    EntityBufferingOptions.DEFAULT,
+                                                    header -> true);
 
         final Url url1 = Url.of("https://example.datareplication.io/snapshotpage/1");
         final Url url2 = Url.of("https://example.datareplication.io/snapshotpage/2");
@@ -366,7 +420,9 @@ class SnapshotConsumerImplTest {
         snapshotConsumer = new SnapshotConsumerImpl(httpClient,
                                                     pageLoader,
                                                     1,
-                                                    true);
+                                                    true,
+                                                    EntityBufferingOptions.DEFAULT,
+                                                    header -> true);
 
         final var url1 = Url.of("https://example.datareplication.io/snapshotpage/1");
         final var url2 = Url.of("https://example.datareplication.io/snapshotpage/2");
@@ -400,7 +456,9 @@ class SnapshotConsumerImplTest {
         snapshotConsumer = new SnapshotConsumerImpl(httpClient,
                                                     pageLoader,
                                                     1,
-                                                    true);
+                                                    true,
+                                                    EntityBufferingOptions.DEFAULT,
+                                                    header -> true);
 
         final var url1 = Url.of("https://example.datareplication.io/snapshotpage/1");
         final var url2 = Url.of("https://example.datareplication.io/snapshotpage/2");
@@ -318,6 +318,30 @@ class HttpClientTest {
         ).isEqualTo("headers");
     }
 
+    @Test
+    void onGet_shouldAddRequestHeadersToRequest() {
+        final HttpClient httpClient = new HttpClient();
+
+        WM.stubFor(
+            get("/")
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(
+                    aResponse()
+                        .withStatus(304)
+                )
+        );
+
+        assertThat(
+            httpClient
+                .get(Url.of(WM.url("/")),
+                     HttpHeaders.of(HttpHeader.of("If-None-Match", "\"v1\"")),
+                     HttpResponse.BodyHandlers.discarding())
+                .map(HttpResponse::statusCode)
+                .single()
+                .block()
+        ).isEqualTo(304);
+    }
+
     @Test
     void onHead_shouldReturnSuccessfulResponse() {
         WM.stubFor(
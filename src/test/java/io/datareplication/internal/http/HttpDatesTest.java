@@ -0,0 +1,78 @@
+package io.datareplication.internal.http;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpDatesTest {
+    private static final DateTimeFormatter REFERENCE_FORMATTER = DateTimeFormatter
+        .ofPattern("EEE, dd MMM yyyy HH:mm:ss z", Locale.ENGLISH)
+        .withZone(ZoneId.of("GMT"));
+    private static final long MIN_SECOND = Instant.parse("0001-01-01T00:00:00Z").getEpochSecond();
+    private static final long MAX_SECOND = Instant.parse("9999-12-31T23:59:59Z").getEpochSecond();
+
+    @Test
+    void shouldParseLikeTheReferenceParser() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            final Instant instant = Instant.ofEpochSecond(
+                MIN_SECOND + (long) (random.nextDouble() * (MAX_SECOND - MIN_SECOND)));
+            final String formatted = REFERENCE_FORMATTER.format(instant);
+
+            assertThat(HttpDates.parse(formatted))
+                .isEqualTo(Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(formatted)));
+        }
+    }
+
+    @Test
+    void shouldReturnTheSameResultForRepeatedValues() {
+        final Instant instant = Instant.parse("2023-10-05T03:00:14Z");
+
+        assertThat(HttpDates.parse("Thu, 05 Oct 2023 03:00:14 GMT")).isEqualTo(instant);
+        assertThat(HttpDates.parse("Thu, 05 Oct 2023 03:00:14 GMT")).isEqualTo(instant);
+        assertThat(HttpDates.parse("Thu, 05 Oct 2023 03:00:15 GMT")).isEqualTo(instant.plusSeconds(1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "Thu, 5 Oct 2023 03:00:14 GMT",
+        "5 Oct 2023 03:00:14 GMT",
+        "Thu, 05 Oct 2023 03:00 GMT",
+        "Thu, 05 Oct 2023 05:00:14 +0200",
+        "thu, 05 oct 2023 03:00:14 gmt",
+        "THU, 05 OCT 2023 03:00:14 GMT",
+    })
+    void shouldFallBackToTheFullParserForOtherFormats(String text) {
+        assertThat(HttpDates.parse(text)).isEqualTo(Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(text)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "not a date",
+        "Fri, 05 Oct 2023 03:00:14 GMT",
+        "Thu, 05 Oct 2023 24:00:14 GMT",
+        "Thu, 05 Oct 2023 03:60:14 GMT",
+        "Thu, 05 Oct 2023 03:00:60 GMT",
+        "Thu, 32 Oct 2023 03:00:14 GMT",
+        "Thu, 05 Okt 2023 03:00:14 GMT",
+        "Thursday, 05-Oct-23 03:00:14 GMT",
+        "Thu Oct  5 03:00:14 2023",
+    })
+    void shouldThrowLikeTheFullParser(String text) {
+        assertThatThrownBy(() -> DateTimeFormatter.RFC_1123_DATE_TIME.parse(text))
+            .isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> HttpDates.parse(text))
+            .isInstanceOf(DateTimeParseException.class);
+    }
+}
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -100,4 +103,86 @@ class BufferingMultipartParserTest {
         assertThatThrownBy(parser::finish)
             .isEqualTo(new MultipartException.UnexpectedEndOfInput(15));
     }
+
+    @Test
+    void shouldPushTokensIntoSink() {
+        final TokenCollector sink = new TokenCollector();
+
+        parser.parse(utf8("--bb\nh: v\n\nbo"), sink);
+        parser.parse(utf8("dy\n--bb--"), sink);
+        parser.finish();
+
+        assertThat(sink.tokens())
+            .containsExactly(Token.Continue.INSTANCE,
+                             Token.PartBegin.INSTANCE,
+                             new Token.Header("h", "v"),
+                             Token.DataBegin.INSTANCE,
+                             new Token.Data(utf8("bo")),
+                             new Token.Data(utf8("dy")),
+                             Token.PartEnd.INSTANCE,
+                             Token.Continue.INSTANCE);
+    }
+
+    @Test
+    void shouldNotShareCarriedOverBytesWithDataTokens() {
+        parser.parse(utf8("--bb\n\nbody\r"));
+        final List<Token> tokens = parser.parse(utf8("\nmore body"));
+        parser.parse(utf8("\n--b"));
+        parser.parse(utf8("b--"));
+        parser.finish();
+
+        assertThat(tokens).contains(new Token.Data(utf8("\r\nmore body")));
+    }
+
+    @Test
+    void shouldParseHeaderSplitAcrossManySmallBuffers() {
+        final String value = "v".repeat(1000);
+        final List<Token> tokens = new ArrayList<>();
+        final byte[] document = ("--bb\nheader: " + value + "\n\n\n--bb--").getBytes(StandardCharsets.UTF_8);
+        for (byte b : document) {
+            tokens.addAll(parser.parse(ByteBuffer.wrap(new byte[] {b})));
+        }
+        parser.finish();
+
+        assertThat(tokens).contains(new Token.Header("header", value));
+    }
+
+    @Test
+    void shouldProduceSameContent_whenInputIsSplitArbitrarily() {
+        final String document = "preamble\r\n--bb\r\na: 1\r\nb: 2\r\n\r\nline 1\nline 2\r\n--b\r\n-bb"
+            + "\r\n--bb\r\nc: 3\r\n\r\n" + "z".repeat(500) + "\r\n--bb--\r\nepilogue";
+        final byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+        final String expected = render(new BufferingMultipartParser(new MultipartParser(utf8("bb")))
+                                           .parse(ByteBuffer.wrap(bytes)));
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 200; i++) {
+            final BufferingMultipartParser splitParser = new BufferingMultipartParser(new MultipartParser(utf8("bb")));
+            final List<Token> tokens = new ArrayList<>();
+            int idx = 0;
+            while (idx < bytes.length) {
+                final int length = Math.min(bytes.length - idx, random.nextInt(20));
+                tokens.addAll(splitParser.parse(ByteBuffer.wrap(bytes, idx, length)));
+                idx += length;
+            }
+            splitParser.finish();
+
+            assertThat(render(tokens)).isEqualTo(expected);
+        }
+    }
+
+    /**
+     * Render tokens to a string where consecutive data tokens are merged, since those may be split differently.
+     */
+    private static String render(List<Token> tokens) {
+        final StringBuilder builder = new StringBuilder();
+        for (Token token : tokens) {
+            if (token instanceof Token.Data) {
+                builder.append(StandardCharsets.UTF_8.decode(((Token.Data) token).data().duplicate()));
+            } else if (!(token instanceof Token.Continue)) {
+                builder.append('<').append(token).append('>');
+            }
+        }
+        return builder.toString();
+    }
 }
@@ -0,0 +1,78 @@
+package io.datareplication.internal.multipart;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DelimiterSearchTest {
+    private static ByteBuffer utf8(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @EnumSource(DelimiterSearch.class)
+    void shouldFindFirstEol(DelimiterSearch search) {
+        assertThat(search.findEol(utf8("abc\ndef\n"), 0)).isEqualTo(3);
+        assertThat(search.findEol(utf8("abc\r\ndef\n"), 0)).isEqualTo(3);
+        assertThat(search.findEol(utf8("\n"), 0)).isZero();
+        assertThat(search.findEol(utf8("0123456789abcdef0123456789\r\n"), 0)).isEqualTo(26);
+        assertThat(search.findEol(utf8("0123456\n89abcdef"), 0)).isEqualTo(7);
+        assertThat(search.findEol(utf8("01234567\n9abcdef"), 0)).isEqualTo(8);
+    }
+
+    @ParameterizedTest
+    @EnumSource(DelimiterSearch.class)
+    void shouldStartSearchingAtOffset(DelimiterSearch search) {
+        assertThat(search.findEol(utf8("\nabc\n"), 1)).isEqualTo(4);
+        assertThat(search.findEol(utf8("\r\n0123456789abcdef\n"), 2)).isEqualTo(18);
+    }
+
+    @ParameterizedTest
+    @EnumSource(DelimiterSearch.class)
+    void shouldSkipLoneCarriageReturns(DelimiterSearch search) {
+        assertThat(search.findEol(utf8("a\rb\rc\r\rdefghijklmn\r\n"), 0)).isEqualTo(18);
+        assertThat(search.findEol(utf8("\r\r\r\r\r\r\r\r\r\r\n"), 0)).isEqualTo(9);
+    }
+
+    @ParameterizedTest
+    @EnumSource(DelimiterSearch.class)
+    void shouldReturnNotFound_whenNoEol(DelimiterSearch search) {
+        assertThat(search.findEol(utf8(""), 0)).isEqualTo(DelimiterSearch.NOT_FOUND);
+        assertThat(search.findEol(utf8("0123456789abcdefghijklmnopqrstuvwxyz"), 0))
+            .isEqualTo(DelimiterSearch.NOT_FOUND);
+        assertThat(search.findEol(utf8("abc\n"), 4)).isEqualTo(DelimiterSearch.NOT_FOUND);
+    }
+
+    @ParameterizedTest
+    @EnumSource(DelimiterSearch.class)
+    void shouldRequestMoreInput_whenCarriageReturnAtEnd(DelimiterSearch search) {
+        assertThatThrownBy(() -> search.findEol(utf8("0123456789abcdef\r"), 0))
+            .isInstanceOf(RequestInput.class);
+        assertThatThrownBy(() -> search.findEol(utf8("\r"), 0))
+            .isInstanceOf(RequestInput.class);
+    }
+
+    @ParameterizedTest
+    @EnumSource(DelimiterSearch.class)
+    void shouldIgnoreByteOrder(DelimiterSearch search) {
+        final ByteBuffer input = utf8("0123\n56789abcdef\n").order(ByteOrder.LITTLE_ENDIAN);
+
+        assertThat(search.findEol(input, 0)).isEqualTo(4);
+        assertThat(search.findEol(input, 5)).isEqualTo(16);
+    }
+
+    @ParameterizedTest
+    @EnumSource(DelimiterSearch.class)
+    void shouldNotReadPastLimit(DelimiterSearch search) {
+        final ByteBuffer input = utf8("0123456789abcdef\n");
+        input.limit(16);
+
+        assertThat(search.findEol(input.slice(), 0)).isEqualTo(DelimiterSearch.NOT_FOUND);
+    }
+}
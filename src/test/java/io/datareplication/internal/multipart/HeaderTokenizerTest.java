@@ -0,0 +1,73 @@
+package io.datareplication.internal.multipart;
+
+import io.datareplication.model.HttpHeader;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HeaderTokenizerTest {
+    private final HeaderTokenizer tokenizer = new HeaderTokenizer();
+    private final TokenCollector sink = new TokenCollector();
+
+    private static ByteBuffer utf8(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldSplitAndTrimHeaderLine() {
+        final ByteBuffer input = utf8("xx  Some-Header \t:  some: value \tyy");
+
+        assertThat(tokenizer.tokenize(input, 2, input.limit() - 2, 0, sink)).isTrue();
+
+        assertThat(sink.tokens()).containsExactly(new Token.Header("Some-Header", "some: value"));
+    }
+
+    @Test
+    void shouldAllowEmptyNameAndValue() {
+        assertThat(tokenizer.tokenize(utf8(":"), 0, 1, 0, sink)).isTrue();
+
+        assertThat(sink.tokens()).containsExactly(new Token.Header("", ""));
+    }
+
+    @Test
+    void shouldReturnWellKnownNameConstants() {
+        tokenizer.tokenize(utf8("Content-Type: text/plain"), 0, 24, 0, sink);
+        tokenizer.tokenize(utf8("Operation-Type: http://example.com/put"), 0, 38, 0, sink);
+        tokenizer.tokenize(utf8("content-type: text/plain"), 0, 24, 0, sink);
+
+        assertThat(((Token.Header) sink.tokens().get(0)).name()).isSameAs(HttpHeader.CONTENT_TYPE);
+        assertThat(((Token.Header) sink.tokens().get(1)).name()).isSameAs(HttpHeader.OPERATION_TYPE);
+        assertThat(((Token.Header) sink.tokens().get(2)).name())
+            .isNotSameAs(HttpHeader.CONTENT_TYPE)
+            .isEqualTo("content-type");
+    }
+
+    @Test
+    void shouldHandleLongLines() {
+        final String value = "v".repeat(10_000);
+        final ByteBuffer input = utf8("h: " + value);
+
+        assertThat(tokenizer.tokenize(input, 0, input.limit(), 0, sink)).isTrue();
+
+        assertThat(sink.tokens()).containsExactly(new Token.Header("h", value));
+    }
+
+    @Test
+    void shouldRefuseNonAsciiLines() {
+        final ByteBuffer input = utf8("h: ä");
+
+        assertThat(tokenizer.tokenize(input, 0, input.limit(), 0, sink)).isFalse();
+
+        assertThat(sink.tokens()).isEmpty();
+    }
+
+    @Test
+    void shouldThrowInvalidHeader_whenNoColon() {
+        assertThatThrownBy(() -> tokenizer.tokenize(utf8("no colon"), 0, 8, 17, sink))
+            .isEqualTo(new MultipartException.InvalidHeader("no colon", 17));
+    }
+}
@@ -47,23 +47,23 @@ public class MultipartIntegrationTest {
         assertThat(result).containsExactly(
             Token.Continue.INSTANCE,
             Token.PartBegin.INSTANCE,
-            new Token.Header("Content-Length", "7"),
             new Token.Header("header", "v1"),
             new Token.Header("Content-Type", "text/plain"),
+            new Token.Header("Content-Length", "7"),
             Token.DataBegin.INSTANCE,
             new Token.Data(utf8("entity1")),
             Token.PartEnd.INSTANCE,
             Token.PartBegin.INSTANCE,
-            new Token.Header("Content-Length", "7"),
             new Token.Header("header", "v2"),
             new Token.Header("Content-Type", "text/html"),
+            new Token.Header("Content-Length", "7"),
             Token.DataBegin.INSTANCE,
             new Token.Data(utf8("entity2")),
             Token.PartEnd.INSTANCE,
             Token.PartBegin.INSTANCE,
-            new Token.Header("Content-Length", "7"),
-            new Token.Header("Content-Type", "audio/mp3"),
             new Token.Header("header2", "v3"),
+            new Token.Header("Content-Type", "audio/mp3"),
+            new Token.Header("Content-Length", "7"),
             Token.DataBegin.INSTANCE,
             new Token.Data(utf8("entity3")),
             Token.PartEnd.INSTANCE,
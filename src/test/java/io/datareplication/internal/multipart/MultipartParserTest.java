@@ -6,6 +6,7 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static io.datareplication.internal.multipart.MultipartParser.Result;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,6 +28,16 @@ class MultipartParserTest {
         return list;
     }
 
+    private static List<Object> parseAllOrError(MultipartParser parser, ByteBuffer input) {
+        final ArrayList<Object> list = new ArrayList<>();
+        try {
+            list.addAll(parseExactly(parser, input));
+        } catch (RequestInput | MultipartException exc) {
+            list.add(exc.getClass());
+        }
+        return list;
+    }
+
     @Test
     void shouldParseMultipartBodyDetailed() {
         MultipartParser parser = new MultipartParser(utf8("_---_boundary"));
@@ -46,8 +57,8 @@ class MultipartParserTest {
         assertThat(parser.parse(utf8("datadatadata")))
                 .isEqualTo(new Result(new Token.Data(utf8("datadatadata")), 12));
         assertThat(parser.parse(utf8("\r\nmore\ndata")))
-                .isEqualTo(new Result(new Token.Data(utf8("\r\nmore")), 6));
-        assertThat(parser.parse(utf8("\ndata")))
+                .isEqualTo(new Result(new Token.Data(utf8("\r\nmore\ndata")), 11));
+        assertThat(parser.parse(utf8("\ndata\r\n--_---_bound")))
                 .isEqualTo(new Result(new Token.Data(utf8("\ndata")), 5));
         assertThat(parser.parse(utf8("\r\n--_---_boundary")))
                 .isEqualTo(new Result(Token.PartEnd.INSTANCE, 17));
@@ -91,9 +102,7 @@ class MultipartParserTest {
                 .containsExactly(Token.Continue.INSTANCE,
                                  Token.PartBegin.INSTANCE,
                                  Token.DataBegin.INSTANCE,
-                                 new Token.Data(utf8("data data")),
-                                 new Token.Data(utf8("\r\n")),
-                                 new Token.Data(utf8("\r\n--_---_boundarz")),
+                                 new Token.Data(utf8("data data\r\n\r\n--_---_boundarz")),
                                  Token.PartEnd.INSTANCE,
                                  Token.Continue.INSTANCE);
         assertThat(parser.isFinished()).isTrue();
@@ -121,9 +130,7 @@ class MultipartParserTest {
             .containsExactly(Token.Continue.INSTANCE,
                              Token.PartBegin.INSTANCE,
                              Token.DataBegin.INSTANCE,
-                             new Token.Data(utf8("\r\n")),
-                             new Token.Data(utf8("\n")),
-                             new Token.Data(utf8("\r\n")),
+                             new Token.Data(utf8("\r\n\n\r\n")),
                              Token.PartEnd.INSTANCE,
                              Token.Continue.INSTANCE);
         assertThat(parser.isFinished()).isTrue();
@@ -238,6 +245,27 @@ class MultipartParserTest {
                 .isEqualTo(new MultipartException.UndecodableHeader(StandardCharsets.US_ASCII, 5));
     }
 
+    @Test
+    void shouldDecodeNonAsciiHeaders() {
+        MultipartParser parser = new MultipartParser(utf8("_b"));
+
+        assertThat(parseExactly(parser, utf8("--_b\nContent-Type: text/plain\nÄ-Header:  äö \n\n\n--_b--")))
+                .contains(new Token.Header("Content-Type", "text/plain"),
+                          new Token.Header("Ä-Header", "äö"));
+    }
+
+    @Test
+    void shouldDecodeHeadersWithNonAsciiCompatibleCharset() {
+        MultipartParser parser = new MultipartParser(utf8("_b"), StandardCharsets.UTF_16BE);
+        final ByteBuffer input = ByteBuffer.allocate(64);
+        input.put("--_b\n".getBytes(StandardCharsets.UTF_8));
+        input.put("h: v".getBytes(StandardCharsets.UTF_16BE));
+        input.put("\n\n\n--_b--".getBytes(StandardCharsets.UTF_8));
+        input.flip();
+
+        assertThat(parseExactly(parser, input)).contains(new Token.Header("h", "v"));
+    }
+
     @Test
     void shouldNotBeFinished_whenInPrologue() {
         MultipartParser parser = new MultipartParser(utf8("_b"));
@@ -277,4 +305,220 @@ class MultipartParserTest {
         parseExactly(parser, utf8("--_b\nh1:v1\n\ndata\n\n--_b"));
         assertThat(parser.isFinished()).isFalse();
     }
+
+    @Test
+    void shouldProduceSameTokensWithEveryDelimiterSearch() {
+        final String alphabet = "\r\n-_bx:";
+        final Random random = new Random(0xb0b);
+        for (int i = 0; i < 2000; i++) {
+            final StringBuilder input = new StringBuilder("--_b\n\n");
+            final int length = random.nextInt(64);
+            for (int j = 0; j < length; j++) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            input.append(random.nextBoolean() ? "\n--_b--" : "");
+            final String multipart = input.toString();
+
+            final List<Object> reference = parseAllOrError(
+                new MultipartParser(utf8("_b"), DelimiterSearch.SCAN),
+                utf8(multipart));
+            for (DelimiterSearch search : DelimiterSearch.values()) {
+                assertThat(parseAllOrError(new MultipartParser(utf8("_b"), search), utf8(multipart)))
+                    .as("%s: %s", search, multipart)
+                    .isEqualTo(reference);
+            }
+        }
+    }
+
+    @Test
+    void shouldPushTokensIntoSink() {
+        MultipartParser parser = new MultipartParser(utf8("_b"));
+        final TokenCollector sink = new TokenCollector();
+        final ByteBuffer input = utf8("--_b\nh1: v1\n\ndata\n--_b--");
+
+        while (input.hasRemaining()) {
+            input.position(input.position() + parser.parse(input, sink));
+        }
+
+        assertThat(sink.tokens())
+            .containsExactly(Token.Continue.INSTANCE,
+                             Token.PartBegin.INSTANCE,
+                             new Token.Header("h1", "v1"),
+                             Token.DataBegin.INSTANCE,
+                             new Token.Data(utf8("data")),
+                             Token.PartEnd.INSTANCE,
+                             Token.Continue.INSTANCE);
+        assertThat(parser.isFinished()).isTrue();
+    }
+
+    @Test
+    void shouldOnlyReadBetweenPositionAndLimit() {
+        MultipartParser parser = new MultipartParser(utf8("_b"));
+        final ByteBuffer input = utf8("xx--_b\n\n\ndatadata");
+        input.position(2).limit(input.limit() - 4);
+
+        assertThat(parseExactly(parser, input))
+            .containsExactly(Token.Continue.INSTANCE,
+                             Token.PartBegin.INSTANCE,
+                             Token.DataBegin.INSTANCE,
+                             new Token.Data(utf8("\ndata")));
+    }
+
+    @Test
+    void shouldReturnBodyUpToDelimiterCandidate() {
+        MultipartParser parser = new MultipartParser(utf8("_b"));
+        parser.parse(utf8("--_b"));
+        parser.parse(utf8("\n"));
+        parser.parse(utf8("\n"));
+
+        assertThat(parser.parse(utf8("line 1\nline 2\n--x\n--_b")))
+            .isEqualTo(new Result(new Token.Data(utf8("line 1\nline 2\n--x")), 17));
+        assertThat(parser.parse(utf8("line 3\r\n--_")))
+            .isEqualTo(new Result(new Token.Data(utf8("line 3")), 6));
+        assertThat(parser.parse(utf8("line 4\r\n-")))
+            .isEqualTo(new Result(new Token.Data(utf8("line 4")), 6));
+        assertThat(parser.parse(utf8("line 5\r")))
+            .isEqualTo(new Result(new Token.Data(utf8("line 5")), 6));
+        assertThat(parser.parse(utf8("line 6\r\n")))
+            .isEqualTo(new Result(new Token.Data(utf8("line 6")), 6));
+        assertThat(parser.parse(utf8("line 7\r\n--_c")))
+            .isEqualTo(new Result(new Token.Data(utf8("line 7\r\n--_c")), 12));
+    }
+
+    @Test
+    void shouldSliceBodyByLength_whenLengthDirected() {
+        final MultipartParser parser = new MultipartParser(utf8("_b"),
+                                                         StandardCharsets.UTF_8,
+                                                         DelimiterSearch.SWAR,
+                                                         true);
+        final TokenSink sink = new FixedLengthSink(9);
+        parser.parse(utf8("--_b"), sink);
+        parser.parse(utf8("\n"), sink);
+        parser.parse(utf8("\n"), sink);
+
+        assertThat(parser.parse(utf8("a\n--_c\nb"), sink)).isEqualTo(8);
+        assertThat(parser.parse(utf8("c\n--_b"), sink)).isEqualTo(1);
+        assertThat(parser.parse(utf8("\n--_b"), sink)).isEqualTo(5);
+        assertThat(parser.isFinished()).isFalse();
+    }
+
+    @Test
+    void shouldFallBackToScanning_whenLengthIsWrong() {
+        final MultipartParser parser = new MultipartParser(utf8("_b"),
+                                                         StandardCharsets.UTF_8,
+                                                         DelimiterSearch.SWAR,
+                                                         true);
+
+        assertThat(parseExactly(parser, utf8("--_b\n\nbody\n--_b--"), new FixedLengthSink(2)))
+            .containsExactly(Token.Continue.INSTANCE,
+                             Token.PartBegin.INSTANCE,
+                             Token.DataBegin.INSTANCE,
+                             new Token.Data(utf8("bo")),
+                             new Token.Data(utf8("dy")),
+                             Token.PartEnd.INSTANCE,
+                             Token.Continue.INSTANCE);
+    }
+
+    @Test
+    void shouldThrow_whenLengthIsTooLarge() {
+        final MultipartParser parser = new MultipartParser(utf8("_b"),
+                                                         StandardCharsets.UTF_8,
+                                                         DelimiterSearch.SWAR,
+                                                         true);
+        final FixedLengthSink sink = new FixedLengthSink(14);
+        final ByteBuffer input = utf8("--_b\n\nbody\n--_b\n\nnext\n--_b--");
+
+        assertThatThrownBy(() -> parseExactly(parser, input, sink))
+            .isEqualTo(new MultipartException.InvalidBodyLength(10));
+        assertThat(sink.collector.tokens()).doesNotContain(new Token.Data(utf8("body\n--_b\n\nnext")));
+    }
+
+    @Test
+    void shouldHoldBackPossibleDelimiter_whenLengthDirected() {
+        final MultipartParser parser = new MultipartParser(utf8("_b"),
+                                                         StandardCharsets.UTF_8,
+                                                         DelimiterSearch.SWAR,
+                                                         true);
+        final TokenSink sink = new FixedLengthSink(100);
+        parser.parse(utf8("--_b"), sink);
+        parser.parse(utf8("\n"), sink);
+        parser.parse(utf8("\n"), sink);
+
+        assertThat(parser.parse(utf8("body\n--"), sink)).isEqualTo(4);
+        assertThatThrownBy(() -> parser.parse(utf8("\n--"), sink)).isInstanceOf(RequestInput.class);
+        assertThatThrownBy(() -> parser.parse(utf8("\n--_b"), sink))
+            .isEqualTo(new MultipartException.InvalidBodyLength(10));
+    }
+
+    @Test
+    void shouldScan_whenLengthIsUnknown() {
+        final MultipartParser parser = new MultipartParser(utf8("_b"),
+                                                         StandardCharsets.UTF_8,
+                                                         DelimiterSearch.SWAR,
+                                                         true);
+
+        final FixedLengthSink sink = new FixedLengthSink(TokenSink.UNKNOWN_LENGTH);
+
+        assertThat(parseExactly(parser, utf8("--_b\n\nbody\n--_b--"), sink))
+            .containsExactly(Token.Continue.INSTANCE,
+                             Token.PartBegin.INSTANCE,
+                             Token.DataBegin.INSTANCE,
+                             new Token.Data(utf8("body")),
+                             Token.PartEnd.INSTANCE,
+                             Token.Continue.INSTANCE);
+    }
+
+    private static List<Token> parseExactly(MultipartParser parser, ByteBuffer input, FixedLengthSink sink) {
+        while (input.hasRemaining()) {
+            input.position(input.position() + parser.parse(input, sink));
+        }
+        return sink.collector.tokens();
+    }
+
+    /**
+     * Collects tokens and claims the same body length for every part.
+     */
+    private static final class FixedLengthSink implements TokenSink {
+        private final TokenCollector collector = new TokenCollector();
+        private final long length;
+
+        private FixedLengthSink(long length) {
+            this.length = length;
+        }
+
+        @Override
+        public long expectedBodyLength() {
+            return length;
+        }
+
+        @Override
+        public void onContinue() {
+            collector.onContinue();
+        }
+
+        @Override
+        public void onPartBegin() {
+            collector.onPartBegin();
+        }
+
+        @Override
+        public void onHeader(String name, String value) {
+            collector.onHeader(name, value);
+        }
+
+        @Override
+        public void onDataBegin() {
+            collector.onDataBegin();
+        }
+
+        @Override
+        public void onData(ByteBuffer data) {
+            collector.onData(data);
+        }
+
+        @Override
+        public void onPartEnd() {
+            collector.onPartEnd();
+        }
+    }
 }
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -288,4 +289,86 @@ class PageLoaderTest {
             )
             .verify();
     }
+
+    @Test
+    void shouldParseSameChunks_whenLengthDirected() {
+        WM.stubFor(
+            get("/page.multipart").willReturn(
+                aResponse()
+                    .withBodyFile("snapshot/1.content.multipart")
+                    .withHeader("Content-Type", "multipart/mixed; boundary=<random-boundary>")
+            ));
+        final Url url = Url.of(WM.url("/page.multipart"));
+
+        final var expected = JdkFlowAdapter
+            .flowPublisherToFlux(pageLoader.load(url).block())
+            .collectList()
+            .block();
+        final var chunks = JdkFlowAdapter
+            .flowPublisherToFlux(new PageLoader(httpClient, true).load(url).block())
+            .collectList()
+            .block();
+
+        assertThat(chunks).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldThrowPageFormatException_whenContentLengthIsTooLarge() {
+        WM.stubFor(
+            get("/page.multipart").willReturn(
+                aResponse()
+                    .withBody("--boundary\ncontent-type: text/plain\ncontent-length: 25\n\nbody\n"
+                                  + "--boundary\ncontent-type: text/plain\n\nnext\n--boundary--")
+                    .withHeader("Content-Type", "multipart/mixed; boundary=boundary")
+            ));
+
+        final var result = new PageLoader(httpClient, true)
+            .load(Url.of(WM.url("/page.multipart")))
+            .single()
+            .block();
+
+        StepVerifier
+            .create(JdkFlowAdapter.flowPublisherToFlux(result.toCompleteEntities()))
+            .expectErrorMatches(
+                new PageFormatException.InvalidMultipart(new MultipartException.InvalidBodyLength(60))::equals
+            )
+            .verify();
+    }
+
+    @Test
+    void loadIfModified_shouldReturnEmpty_whenNotModified() {
+        WM.stubFor(
+            get("/page.multipart")
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304)));
+
+        final var page = pageLoader.loadIfModified(
+            Url.of(WM.url("/page.multipart")),
+            HttpHeaders.of(HttpHeader.of("If-None-Match", "\"v1\"")));
+
+        StepVerifier
+            .create(page)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void loadIfModified_shouldReturnPage_whenModified() {
+        WM.stubFor(
+            get("/page.multipart").willReturn(
+                aResponse()
+                    .withBodyFile("snapshot/1.content.multipart")
+                    .withHeader("Content-Type", "multipart/mixed; boundary=<random-boundary>")
+                    .withHeader("ETag", "\"v2\"")
+            ));
+
+        final var page = pageLoader
+            .loadIfModified(
+                Url.of(WM.url("/page.multipart")),
+                HttpHeaders.of(HttpHeader.of("If-None-Match", "\"v1\"")))
+            .block();
+
+        // WireMock appends a suffix to the ETag when it compresses the response
+        assertThat(page.header().get("ETag").orElseThrow().values().get(0)).startsWith("\"v2");
+    }
 }
@@ -1,17 +1,28 @@
 package io.datareplication.internal.page;
 
+import io.datareplication.consumer.PageFormatException;
 import io.datareplication.consumer.StreamingPage;
+import io.datareplication.internal.pool.BufferPool;
 import io.datareplication.model.Body;
+import io.datareplication.model.CloseableBody;
 import io.datareplication.model.ContentType;
 import io.datareplication.model.Entity;
 import io.datareplication.model.HttpHeader;
 import io.datareplication.model.HttpHeaders;
+import io.datareplication.model.ReferenceCountedBody;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class ToCompleteEntitiesTransformerTest {
     private final ToCompleteEntitiesTransformer<HttpHeaders> transformer = new ToCompleteEntitiesTransformer<>();
@@ -28,6 +39,38 @@ class ToCompleteEntitiesTransformerTest {
         return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
     }
 
+    private static ToCompleteEntitiesTransformer<HttpHeaders> limited(long maxEntitySize) {
+        return new ToCompleteEntitiesTransformer<>(new EntityBufferingOptions(
+            maxEntitySize,
+            ToCompleteEntitiesTransformer.UNLIMITED,
+            Optional.empty(),
+            Optional.empty()));
+    }
+
+    private static ToCompleteEntitiesTransformer<HttpHeaders> spilling(long spillThreshold, Path directory) {
+        return new ToCompleteEntitiesTransformer<>(new EntityBufferingOptions(
+            ToCompleteEntitiesTransformer.UNLIMITED,
+            spillThreshold,
+            Optional.of(directory),
+            Optional.empty()));
+    }
+
+    private static ToCompleteEntitiesTransformer<HttpHeaders> pooled(BufferPool pool,
+                                                                     long spillThreshold,
+                                                                     Path directory) {
+        return new ToCompleteEntitiesTransformer<>(new EntityBufferingOptions(
+            ToCompleteEntitiesTransformer.UNLIMITED,
+            spillThreshold,
+            Optional.of(directory),
+            Optional.of(pool)));
+    }
+
+    private static long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
     @Test
     void shouldTransformStreamOfChunks() {
         assertThat(transformer.transform(StreamingPage.Chunk.header(HEADERS_1, CONTENT_TYPE_1))).isEmpty();
@@ -45,4 +88,239 @@ class ToCompleteEntitiesTransformerTest {
                 HEADERS_2,
                 Body.fromBytes("test".getBytes(StandardCharsets.UTF_8), CONTENT_TYPE_2)));
     }
+
+    @Test
+    void shouldCopySmallBody_whenItsBufferIsMuchLarger() throws IOException {
+        final ByteBuffer network = ByteBuffer.allocate(1024);
+        network.put("abc".getBytes(StandardCharsets.UTF_8)).flip();
+
+        transformer.transform(StreamingPage.Chunk.header(HEADERS_1, CONTENT_TYPE_1));
+        transformer.transform(StreamingPage.Chunk.bodyChunk(network));
+        final Entity<HttpHeaders> entity = transformer.transform(StreamingPage.Chunk.bodyEnd()).orElseThrow();
+        network.put(0, (byte) 'x');
+
+        assertThat(entity.body().toUtf8()).isEqualTo("abc");
+    }
+
+    @Test
+    void shouldNotCopyBody_whenItFillsMostOfItsBuffer() throws IOException {
+        final ByteBuffer network = utf8("abcd");
+
+        transformer.transform(StreamingPage.Chunk.header(HEADERS_1, CONTENT_TYPE_1));
+        transformer.transform(StreamingPage.Chunk.bodyChunk(network.slice().limit(3)));
+        final Entity<HttpHeaders> entity = transformer.transform(StreamingPage.Chunk.bodyEnd()).orElseThrow();
+        network.put(0, (byte) 'x');
+
+        assertThat(entity.body().toUtf8()).isEqualTo("xbc");
+    }
+
+    @Test
+    void shouldAllowEntitiesUpToMaxEntitySize() {
+        final var limited = limited(4);
+        final var headers = HttpHeaders.of(HttpHeader.contentLength(4));
+
+        assertThat(limited.transform(StreamingPage.Chunk.header(headers, CONTENT_TYPE_1))).isEmpty();
+        assertThat(limited.transform(StreamingPage.Chunk.bodyChunk(utf8("ab")))).isEmpty();
+        assertThat(limited.transform(StreamingPage.Chunk.bodyChunk(utf8("cd")))).isEmpty();
+        assertThat(limited.transform(StreamingPage.Chunk.bodyEnd()))
+            .contains(new Entity<>(headers, Body.fromBytes("abcd".getBytes(StandardCharsets.UTF_8), CONTENT_TYPE_1)));
+    }
+
+    @Test
+    void shouldFailOnHeader_whenDeclaredContentLengthExceedsMaxEntitySize() {
+        final var limited = limited(4);
+        limited.transform(StreamingPage.Chunk.header(HEADERS_2, CONTENT_TYPE_1));
+        limited.transform(StreamingPage.Chunk.bodyChunk(utf8("abc")));
+        limited.transform(StreamingPage.Chunk.bodyEnd());
+
+        final var header = StreamingPage.Chunk.header(HttpHeaders.of(HttpHeader.contentLength(5)), CONTENT_TYPE_1);
+        assertThatThrownBy(() -> limited.transform(header))
+            .isEqualTo(new PageFormatException.EntityTooLarge(1, 5, 4));
+    }
+
+    @Test
+    void shouldFailOnBodyChunk_whenBodyExceedsMaxEntitySize() {
+        final var limited = limited(4);
+        limited.transform(StreamingPage.Chunk.header(HEADERS_2, CONTENT_TYPE_1));
+        limited.transform(StreamingPage.Chunk.bodyChunk(utf8("abc")));
+
+        assertThatThrownBy(() -> limited.transform(StreamingPage.Chunk.bodyChunk(utf8("de"))))
+            .isEqualTo(new PageFormatException.EntityTooLarge(0, 5, 4));
+    }
+
+    @Test
+    void shouldFailOnBodyChunk_whenContentLengthIsTooSmall() {
+        final var limited = limited(4);
+        final var headers = HttpHeaders.of(HttpHeader.contentLength(1));
+        limited.transform(StreamingPage.Chunk.header(headers, CONTENT_TYPE_1));
+
+        assertThatThrownBy(() -> limited.transform(StreamingPage.Chunk.bodyChunk(utf8("abcdef"))))
+            .isEqualTo(new PageFormatException.EntityTooLarge(0, 6, 4));
+    }
+
+    @Test
+    void shouldIgnoreInvalidContentLength_whenCheckingMaxEntitySize() {
+        final var limited = limited(4);
+        final var headers = HttpHeaders.of(HttpHeader.of(HttpHeader.CONTENT_LENGTH, "lots"));
+
+        assertThat(limited.transform(StreamingPage.Chunk.header(headers, CONTENT_TYPE_1))).isEmpty();
+        assertThat(limited.transform(StreamingPage.Chunk.bodyChunk(utf8("abc")))).isEmpty();
+        assertThat(limited.transform(StreamingPage.Chunk.bodyEnd()))
+            .contains(new Entity<>(headers, Body.fromBytes("abc".getBytes(StandardCharsets.UTF_8), CONTENT_TYPE_1)));
+    }
+
+    @Test
+    void shouldDropEntitiesRejectedByFilter() {
+        final var filtered = new ToCompleteEntitiesTransformer<HttpHeaders>(
+            EntityBufferingOptions.DEFAULT,
+            headers -> !headers.equals(HEADERS_1));
+
+        assertThat(filtered.transform(StreamingPage.Chunk.header(HEADERS_1, CONTENT_TYPE_1))).isEmpty();
+        assertThat(filtered.transform(StreamingPage.Chunk.bodyChunk(utf8("abc")))).isEmpty();
+        assertThat(filtered.transform(StreamingPage.Chunk.bodyEnd())).isEmpty();
+        assertThat(filtered.transform(StreamingPage.Chunk.header(HEADERS_2, CONTENT_TYPE_2))).isEmpty();
+        assertThat(filtered.transform(StreamingPage.Chunk.bodyChunk(utf8("test")))).isEmpty();
+        assertThat(filtered.transform(StreamingPage.Chunk.bodyEnd()))
+            .contains(new Entity<>(HEADERS_2, Body.fromBytes("test".getBytes(StandardCharsets.UTF_8), CONTENT_TYPE_2)));
+    }
+
+    @Test
+    void shouldNotCheckMaxEntitySize_whenEntityIsRejectedByFilter() {
+        final var headers = HttpHeaders.of(HttpHeader.contentLength(5));
+        final var filtered = new ToCompleteEntitiesTransformer<HttpHeaders>(
+            new EntityBufferingOptions(4, ToCompleteEntitiesTransformer.UNLIMITED, Optional.empty(), Optional.empty()),
+            header -> !header.equals(headers));
+
+        assertThat(filtered.transform(StreamingPage.Chunk.header(headers, CONTENT_TYPE_1))).isEmpty();
+        assertThat(filtered.transform(StreamingPage.Chunk.bodyChunk(utf8("abcde")))).isEmpty();
+        assertThat(filtered.transform(StreamingPage.Chunk.bodyEnd())).isEmpty();
+        // the rejected entity still counts for the index in error messages
+        filtered.transform(StreamingPage.Chunk.header(HEADERS_2, CONTENT_TYPE_1));
+        assertThatThrownBy(() -> filtered.transform(StreamingPage.Chunk.bodyChunk(utf8("abcde"))))
+            .isEqualTo(new PageFormatException.EntityTooLarge(1, 5, 4));
+    }
+
+    @Test
+    void shouldKeepSmallEntitiesInMemory_whenSpillingToDisk(@TempDir Path dir) throws IOException {
+        final var spilling = spilling(3, dir);
+
+        assertThat(spilling.transform(StreamingPage.Chunk.header(HEADERS_1, CONTENT_TYPE_1))).isEmpty();
+        assertThat(spilling.transform(StreamingPage.Chunk.bodyChunk(utf8("abc")))).isEmpty();
+        assertThat(spilling.transform(StreamingPage.Chunk.bodyEnd()))
+            .contains(new Entity<>(HEADERS_1, Body.fromBytes("abc".getBytes(StandardCharsets.UTF_8), CONTENT_TYPE_1)));
+        assertThat(countFiles(dir)).isZero();
+    }
+
+    @Test
+    void shouldSpillToDisk_whenBodyGrowsPastThreshold(@TempDir Path dir) throws IOException {
+        final var spilling = spilling(3, dir);
+
+        assertThat(spilling.transform(StreamingPage.Chunk.header(HEADERS_1, CONTENT_TYPE_1))).isEmpty();
+        assertThat(spilling.transform(StreamingPage.Chunk.bodyChunk(utf8("ab")))).isEmpty();
+        assertThat(countFiles(dir)).isZero();
+        assertThat(spilling.transform(StreamingPage.Chunk.bodyChunk(utf8("cd")))).isEmpty();
+        assertThat(countFiles(dir)).isOne();
+        assertThat(spilling.transform(StreamingPage.Chunk.bodyChunk(utf8("ef")))).isEmpty();
+        final var entity = spilling.transform(StreamingPage.Chunk.bodyEnd()).orElseThrow();
+
+        assertThat(entity.header()).isEqualTo(HEADERS_1);
+        assertThat(entity.body()).isInstanceOf(CloseableBody.class);
+        assertThat(entity.body().contentType()).isEqualTo(CONTENT_TYPE_1);
+        assertThat(entity.body().toUtf8()).isEqualTo("abcdef");
+        ((CloseableBody) entity.body()).close();
+        assertThat(countFiles(dir)).isZero();
+    }
+
+    @Test
+    void shouldSpillToDiskImmediately_whenContentLengthIsAboveThreshold(@TempDir Path dir) throws IOException {
+        final var spilling = spilling(3, dir);
+        final var headers = HttpHeaders.of(HttpHeader.contentLength(4));
+
+        assertThat(spilling.transform(StreamingPage.Chunk.header(headers, CONTENT_TYPE_1))).isEmpty();
+        assertThat(countFiles(dir)).isOne();
+        assertThat(spilling.transform(StreamingPage.Chunk.bodyChunk(utf8("abcd")))).isEmpty();
+        final var entity = spilling.transform(StreamingPage.Chunk.bodyEnd()).orElseThrow();
+
+        assertThat(entity.body().toUtf8()).isEqualTo("abcd");
+        ((CloseableBody) entity.body()).close();
+    }
+
+    @Test
+    void shouldDeleteSpilledFile_whenEntityIsDiscarded(@TempDir Path dir) throws IOException {
+        final var spilling = spilling(0, dir);
+
+        spilling.transform(StreamingPage.Chunk.header(HEADERS_1, CONTENT_TYPE_1));
+        spilling.transform(StreamingPage.Chunk.bodyChunk(utf8("abc")));
+        assertThat(countFiles(dir)).isOne();
+        spilling.discard();
+
+        assertThat(countFiles(dir)).isZero();
+    }
+
+    @Test
+    void shouldDeleteSpilledFile_whenBodyExceedsMaxEntitySize(@TempDir Path dir) throws IOException {
+        final var limited = new ToCompleteEntitiesTransformer<HttpHeaders>(new EntityBufferingOptions(
+            4,
+            1,
+            Optional.of(dir),
+            Optional.empty()));
+
+        limited.transform(StreamingPage.Chunk.header(HEADERS_1, CONTENT_TYPE_1));
+        limited.transform(StreamingPage.Chunk.bodyChunk(utf8("abc")));
+        assertThatThrownBy(() -> limited.transform(StreamingPage.Chunk.bodyChunk(utf8("de"))))
+            .isInstanceOf(PageFormatException.EntityTooLarge.class);
+
+        assertThat(countFiles(dir)).isZero();
+    }
+
+    @Test
+    void shouldCopyBodiesIntoPooledBuffers(@TempDir Path dir) throws IOException {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        final var pooled = pooled(pool, ToCompleteEntitiesTransformer.UNLIMITED, dir);
+        final var headers = HttpHeaders.of(HttpHeader.contentLength(6));
+        final ByteBuffer chunk = utf8("abc");
+
+        assertThat(pooled.transform(StreamingPage.Chunk.header(headers, CONTENT_TYPE_1))).isEmpty();
+        assertThat(pooled.transform(StreamingPage.Chunk.bodyChunk(chunk))).isEmpty();
+        assertThat(pooled.transform(StreamingPage.Chunk.bodyChunk(utf8("def")))).isEmpty();
+        final var entity = pooled.transform(StreamingPage.Chunk.bodyEnd()).orElseThrow();
+
+        assertThat(chunk.position()).isZero();
+        assertThat(entity.header()).isEqualTo(headers);
+        assertThat(entity.body()).isInstanceOf(ReferenceCountedBody.class);
+        assertThat(entity.body().contentType()).isEqualTo(CONTENT_TYPE_1);
+        assertThat(entity.body().toUtf8()).isEqualTo("abcdef");
+        assertThat(pool.idleBytes()).isZero();
+        ((ReferenceCountedBody) entity.body()).release();
+        assertThat(pool.idleBytes()).isEqualTo(BufferPool.MIN_BUFFER_SIZE);
+    }
+
+    @Test
+    void shouldReturnPooledBuffers_whenSpillingToDisk(@TempDir Path dir) throws IOException {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        final var pooled = pooled(pool, 3, dir);
+
+        pooled.transform(StreamingPage.Chunk.header(HEADERS_1, CONTENT_TYPE_1));
+        pooled.transform(StreamingPage.Chunk.bodyChunk(utf8("ab")));
+        assertThat(pool.idleBytes()).isZero();
+        pooled.transform(StreamingPage.Chunk.bodyChunk(utf8("cd")));
+        assertThat(pool.idleBytes()).isEqualTo(BufferPool.MIN_BUFFER_SIZE);
+        final var entity = pooled.transform(StreamingPage.Chunk.bodyEnd()).orElseThrow();
+
+        assertThat(entity.body()).isNotInstanceOf(ReferenceCountedBody.class);
+        assertThat(entity.body().toUtf8()).isEqualTo("abcd");
+        ((CloseableBody) entity.body()).close();
+    }
+
+    @Test
+    void shouldReturnPooledBuffers_whenEntityIsDiscarded(@TempDir Path dir) {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        final var pooled = pooled(pool, ToCompleteEntitiesTransformer.UNLIMITED, dir);
+
+        pooled.transform(StreamingPage.Chunk.header(HEADERS_1, CONTENT_TYPE_1));
+        pooled.transform(StreamingPage.Chunk.bodyChunk(utf8("abc")));
+        pooled.discard();
+
+        assertThat(pool.idleBytes()).isEqualTo(BufferPool.MIN_BUFFER_SIZE);
+    }
 }
@@ -2,7 +2,10 @@ package io.datareplication.internal.page;
 
 import io.datareplication.consumer.PageFormatException;
 import io.datareplication.consumer.StreamingPage;
+import io.datareplication.internal.multipart.BufferingMultipartParser;
+import io.datareplication.internal.multipart.MultipartParser;
 import io.datareplication.internal.multipart.Token;
+import io.datareplication.internal.multipart.TokenSink;
 import io.datareplication.model.ContentType;
 import io.datareplication.model.HttpHeader;
 import io.datareplication.model.HttpHeaders;
@@ -83,4 +86,48 @@ class ToStreamingPageChunkTransformerTest {
             .contains(StreamingPage.Chunk.header(HttpHeaders.EMPTY,
                                                  ContentType.of("audio/mp3")));
     }
+
+    @Test
+    void shouldTransformTokensPushedByParser() {
+        final BufferingMultipartParser parser = new BufferingMultipartParser(
+            new MultipartParser(ByteBuffer.wrap("_b".getBytes(StandardCharsets.UTF_8))));
+
+        assertThat(transformer.transform(parser, ByteBuffer.wrap(
+            "--_b\nContent-Type: text/plain\na: b\n\ntest1".getBytes(StandardCharsets.UTF_8))))
+            .containsExactly(
+                StreamingPage.Chunk.header(HttpHeaders.of(HttpHeader.of("a", "b")), ContentType.of("text/plain")),
+                StreamingPage.Chunk.bodyChunk(BYTES_1));
+        assertThat(transformer.transform(parser, ByteBuffer.wrap(
+            "\n--_b\ncontent-type: audio/mp3\n\n\n--_b--".getBytes(StandardCharsets.UTF_8))))
+            .containsExactly(
+                StreamingPage.Chunk.bodyEnd(),
+                StreamingPage.Chunk.header(HttpHeaders.EMPTY, ContentType.of("audio/mp3")),
+                StreamingPage.Chunk.bodyEnd());
+        parser.finish();
+    }
+
+    @Test
+    void shouldRequireContentTypeHeader_whenPushedByParser() {
+        final BufferingMultipartParser parser = new BufferingMultipartParser(
+            new MultipartParser(ByteBuffer.wrap("_b".getBytes(StandardCharsets.UTF_8))));
+
+        assertThatThrownBy(() -> transformer.transform(parser, ByteBuffer.wrap(
+            "--_b\na: b\n\n".getBytes(StandardCharsets.UTF_8))))
+            .isEqualTo(new PageFormatException.MissingContentTypeInEntity(0));
+    }
+
+    @Test
+    void shouldReturnContentLengthAsExpectedBodyLength() {
+        transformer.transform(Token.PartBegin.INSTANCE);
+        assertThat(transformer.expectedBodyLength()).isEqualTo(TokenSink.UNKNOWN_LENGTH);
+        transformer.transform(new Token.Header("content-length", "1234"));
+        assertThat(transformer.expectedBodyLength()).isEqualTo(1234);
+
+        transformer.transform(Token.PartBegin.INSTANCE);
+        assertThat(transformer.expectedBodyLength()).isEqualTo(TokenSink.UNKNOWN_LENGTH);
+        transformer.transform(new Token.Header("Content-Length", "12x"));
+        assertThat(transformer.expectedBodyLength()).isEqualTo(TokenSink.UNKNOWN_LENGTH);
+        transformer.transform(new Token.Header("Content-Length", "-1"));
+        assertThat(transformer.expectedBodyLength()).isEqualTo(TokenSink.UNKNOWN_LENGTH);
+    }
 }
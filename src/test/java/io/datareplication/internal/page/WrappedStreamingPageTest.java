@@ -1,5 +1,6 @@
 package io.datareplication.internal.page;
 
+import io.datareplication.consumer.PageFormatException;
 import io.datareplication.consumer.StreamingPage;
 import io.datareplication.consumer.TestStreamingPage;
 import io.datareplication.model.ContentType;
@@ -14,6 +15,7 @@ import reactor.test.StepVerifier;
 import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -104,4 +106,32 @@ class WrappedStreamingPageTest {
             .expectErrorMatches(expectedException::equals)
             .verify();
     }
+
+    @Test
+    void shouldLimitEntitySizeInCompleteEntities() {
+        final var underlying = new TestStreamingPage<>(
+            HttpHeaders.EMPTY,
+            "underlying-boundary",
+            List.of(
+                StreamingPage.Chunk.header(HEADERS_1, CONTENT_TYPE_1),
+                StreamingPage.Chunk.bodyChunk(ByteBuffer.wrap(new byte[]{1, 2})),
+                StreamingPage.Chunk.bodyEnd(),
+                StreamingPage.Chunk.header(HEADERS_2, CONTENT_TYPE_2),
+                StreamingPage.Chunk.bodyChunk(ByteBuffer.wrap(new byte[]{1, 2, 3})),
+                StreamingPage.Chunk.bodyEnd()
+            ));
+
+        final var wrappedPage = new WrappedStreamingPage<>(
+            underlying,
+            new SnapshotPageHeader(),
+            (index, header) -> new SnapshotEntityHeader(header),
+            new EntityBufferingOptions(2, ToCompleteEntitiesTransformer.UNLIMITED,
+                                       Optional.empty(), Optional.empty()));
+
+        StepVerifier
+            .create(JdkFlowAdapter.flowPublisherToFlux(wrappedPage.toCompleteEntities()))
+            .expectNextCount(1)
+            .expectError(PageFormatException.EntityTooLarge.class)
+            .verify();
+    }
 }
@@ -0,0 +1,65 @@
+package io.datareplication.internal.pool;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BufferPoolTest {
+    @Test
+    void shouldAllocateDirectBuffersInSizeClasses() {
+        final BufferPool pool = new BufferPool(0, false);
+
+        assertThat(pool.acquire(0).capacity()).isEqualTo(4096);
+        assertThat(pool.acquire(1).capacity()).isEqualTo(4096);
+        assertThat(pool.acquire(4096).capacity()).isEqualTo(4096);
+        assertThat(pool.acquire(4097).capacity()).isEqualTo(8192);
+        assertThat(pool.acquire(100_000).capacity()).isEqualTo(131_072);
+        assertThat(pool.acquire(1024 * 1024).capacity()).isEqualTo(1024 * 1024);
+        assertThat(pool.acquire(50L * 1024 * 1024).capacity()).isEqualTo(1024 * 1024);
+        assertThat(pool.acquire(1).isDirect()).isTrue();
+    }
+
+    @Test
+    void shouldReuseReleasedBuffers() {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        final ByteBuffer buffer = pool.acquire(5000);
+        buffer.put((byte) 1);
+
+        pool.release(buffer);
+        assertThat(pool.idleBytes()).isEqualTo(8192);
+        final ByteBuffer reused = pool.acquire(6000);
+
+        assertThat(reused).isSameAs(buffer);
+        assertThat(reused.position()).isZero();
+        assertThat(reused.limit()).isEqualTo(8192);
+        assertThat(pool.idleBytes()).isZero();
+    }
+
+    @Test
+    void shouldNotReuseBuffersOfOtherSizeClasses() {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        final ByteBuffer buffer = pool.acquire(5000);
+        pool.release(buffer);
+
+        assertThat(pool.acquire(100)).isNotSameAs(buffer);
+    }
+
+    @Test
+    void shouldDropReleasedBuffers_whenPoolIsFull() {
+        final BufferPool pool = new BufferPool(8192, false);
+        final ByteBuffer buffer1 = pool.acquire(4096);
+        final ByteBuffer buffer2 = pool.acquire(4096);
+        final ByteBuffer buffer3 = pool.acquire(4096);
+
+        pool.release(buffer1);
+        pool.release(buffer2);
+        pool.release(buffer3);
+
+        assertThat(pool.idleBytes()).isEqualTo(8192);
+        assertThat(pool.acquire(4096)).isSameAs(buffer1);
+        assertThat(pool.acquire(4096)).isSameAs(buffer2);
+        assertThat(pool.acquire(4096)).isNotSameAs(buffer3);
+    }
+}
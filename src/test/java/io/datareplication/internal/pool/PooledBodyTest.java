@@ -0,0 +1,139 @@
+package io.datareplication.internal.pool;
+
+import io.datareplication.model.Body;
+import io.datareplication.model.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledBodyTest {
+    private static final ContentType CONTENT_TYPE = ContentType.of("text/plain");
+
+    private static PooledBody body(BufferPool pool, String content) {
+        final PooledBodyWriter writer = new PooledBodyWriter(pool, -1);
+        writer.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+        return writer.toBody(CONTENT_TYPE);
+    }
+
+    @Test
+    void shouldReadContent() throws IOException {
+        final PooledBody body = body(new BufferPool(0, false), "hello");
+
+        assertThat(body.contentLength()).isEqualTo(5);
+        assertThat(body.contentType()).isEqualTo(CONTENT_TYPE);
+        assertThat(body.toUtf8()).isEqualTo("hello");
+        assertThat(body.newInputStream().readAllBytes()).isEqualTo("hello".getBytes(StandardCharsets.UTF_8));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertThat(body.transferTo(Channels.newChannel(output))).isEqualTo(5);
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("hello");
+        assertThat(body.toHttpHeaders()).isEqualTo(Body.fromUtf8("hello", CONTENT_TYPE).toHttpHeaders());
+    }
+
+    @Test
+    void shouldCompareByIdentity() {
+        final BufferPool pool = new BufferPool(0, false);
+        final PooledBody body = body(pool, "hello");
+        final int hash = body.hashCode();
+
+        assertThat(body).isEqualTo(body);
+        assertThat(body).isNotEqualTo(body(pool, "hello"));
+        body.release();
+        assertThat(body).isEqualTo(body);
+        assertThat(body).hasSameHashCodeAs(hash);
+        assertThat(body.toString()).contains("references=0");
+    }
+
+    @Test
+    void shouldReturnBuffersToPool_whenLastReferenceIsReleased() {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        final PooledBody body = body(pool, "hello");
+
+        assertThat(body.referenceCount()).isEqualTo(1);
+        assertThat(body.retain()).isSameAs(body);
+        assertThat(body.referenceCount()).isEqualTo(2);
+        assertThat(body.release()).isFalse();
+        assertThat(pool.idleBytes()).isZero();
+        assertThat(body.release()).isTrue();
+        assertThat(body.referenceCount()).isZero();
+        assertThat(pool.idleBytes()).isEqualTo(4096);
+    }
+
+    @Test
+    void shouldThrow_whenUsedAfterRelease() {
+        final PooledBody body = body(new BufferPool(0, false), "hello");
+        body.release();
+
+        assertThatThrownBy(body::contentLength).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(body::newInputStream).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(body::toBytes).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(body::retain).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(body::release).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void close_shouldReleaseOnce() {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        final PooledBody body = body(pool, "hello");
+
+        try (body) {
+            assertThat(body.referenceCount()).isEqualTo(1);
+        }
+        body.close();
+
+        assertThat(body.referenceCount()).isZero();
+        assertThat(pool.idleBytes()).isEqualTo(4096);
+    }
+
+    @Test
+    void shouldNotReportLeak_whenBodyIsReleased() {
+        final BufferPool pool = new BufferPool(1024 * 1024, true);
+        body(pool, "hello").release();
+
+        assertThat(pool.leaksDetected()).isZero();
+        assertThat(pool.idleBytes()).isEqualTo(4096);
+    }
+
+    @Test
+    void shouldReportLeak_whenBodyIsGarbageCollectedWithoutRelease() throws InterruptedException {
+        final BufferPool pool = new BufferPool(1024 * 1024, true);
+        body(pool, "hello");
+
+        for (int i = 0; i < 100 && pool.leaksDetected() == 0; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertThat(pool.leaksDetected()).isEqualTo(1);
+        assertThat(pool.idleBytes()).isEqualTo(4096);
+    }
+
+    @Test
+    void shouldNotFreeBuffers_whileInputStreamIsReachable() throws InterruptedException, IOException {
+        final BufferPool pool = new BufferPool(1024 * 1024, true);
+        final InputStream input = body(pool, "hello").newInputStream();
+
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertThat(pool.leaksDetected()).isZero();
+        assertThat(input.readAllBytes()).isEqualTo("hello".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void toString_shouldNotThrow_whenReleased() {
+        final PooledBody body = body(new BufferPool(0, false), "hello");
+        body.release();
+
+        assertThat(body.toString()).contains("contentLength=5", "references=0");
+    }
+}
@@ -0,0 +1,88 @@
+package io.datareplication.internal.pool;
+
+import io.datareplication.model.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PooledBodyWriterTest {
+    private static final ContentType CONTENT_TYPE = ContentType.of("application/octet-stream");
+
+    private static ByteBuffer utf8(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldCopyChunksIntoBody() throws IOException {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        final PooledBodyWriter writer = new PooledBodyWriter(pool, -1);
+        final ByteBuffer chunk = utf8("abc");
+
+        writer.write(chunk);
+        writer.write(utf8("def"));
+        final PooledBody body = writer.toBody(CONTENT_TYPE);
+
+        assertThat(chunk.hasRemaining()).isFalse();
+        assertThat(body.contentLength()).isEqualTo(6);
+        assertThat(body.contentType()).isEqualTo(CONTENT_TYPE);
+        assertThat(body.toUtf8()).isEqualTo("abcdef");
+    }
+
+    @Test
+    void shouldSpreadLargeBodiesOverSeveralBuffers() throws IOException {
+        final BufferPool pool = new BufferPool(16 * 1024 * 1024, false);
+        final byte[] content = new byte[BufferPool.MAX_BUFFER_SIZE * 2 + 10];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        final PooledBodyWriter writer = new PooledBodyWriter(pool, content.length);
+
+        writer.write(ByteBuffer.wrap(content, 0, 1000));
+        writer.write(ByteBuffer.wrap(content, 1000, content.length - 1000));
+        assertThat(writer.written()).hasSize(3);
+        final PooledBody body = writer.toBody(CONTENT_TYPE);
+
+        assertThat(body.toBytes()).isEqualTo(content);
+        body.release();
+        // the last buffer only needs to fit the rest of the body
+        assertThat(pool.idleBytes()).isEqualTo(2L * BufferPool.MAX_BUFFER_SIZE + BufferPool.MIN_BUFFER_SIZE);
+    }
+
+    @Test
+    void shouldSizeFirstBufferByHint() {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        final PooledBodyWriter writer = new PooledBodyWriter(pool, 10_000);
+
+        writer.write(utf8("abc"));
+
+        assertThat(writer.written()).hasSize(1);
+        writer.discard();
+        assertThat(pool.idleBytes()).isEqualTo(16 * 1024);
+    }
+
+    @Test
+    void written_shouldReturnBytesWrittenSoFar() {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        final PooledBodyWriter writer = new PooledBodyWriter(pool, -1);
+        writer.write(utf8("abc"));
+
+        assertThat(writer.written()).containsExactly(utf8("abc"));
+        assertThat(writer.written().get(0).isReadOnly()).isTrue();
+    }
+
+    @Test
+    void discard_shouldReturnBuffersToPool() {
+        final BufferPool pool = new BufferPool(1024 * 1024, false);
+        final PooledBodyWriter writer = new PooledBodyWriter(pool, -1);
+        writer.write(utf8("abc"));
+
+        writer.discard();
+
+        assertThat(pool.idleBytes()).isEqualTo(4096);
+        assertThat(writer.written()).isEmpty();
+    }
+}
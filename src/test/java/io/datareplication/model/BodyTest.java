@@ -3,13 +3,22 @@ package io.datareplication.model;
 import lombok.NonNull;
 import lombok.Value;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -317,4 +326,180 @@ class BodyTest {
         assertThat(body1).isEqualTo(body2);
         assertThat(body1).hasSameHashCodeAs(body2);
     }
+
+    @Test
+    void transferTo_shouldWriteInputStreamToChannel() throws IOException {
+        final Body body = new TestBody(() -> new ByteArrayInputStream(new byte[] {1, 2, 3}), 3, ANY_CONTENT_TYPE);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThat(body.transferTo(Channels.newChannel(output))).isEqualTo(3);
+
+        assertThat(output.toByteArray()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void fromBytes_shouldTransferBytesToChannel() throws IOException {
+        final Body body = Body.fromBytes(new byte[] {1, 2, 3, 4});
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThat(body.transferTo(Channels.newChannel(output))).isEqualTo(4);
+        assertThat(body.transferTo(Channels.newChannel(output))).isEqualTo(4);
+
+        assertThat(output.toByteArray()).containsExactly(1, 2, 3, 4, 1, 2, 3, 4);
+    }
+
+    @Test
+    void fromUtf8_shouldTransferEncodedStringToChannel() throws IOException {
+        final String s = "test äöüß é à";
+        final Body body = Body.fromUtf8(s);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThat(body.transferTo(Channels.newChannel(output))).isEqualTo(19);
+        assertThat(output.toByteArray()).isEqualTo(s.getBytes(StandardCharsets.UTF_8));
+
+        output.reset();
+        assertThat(body.transferTo(Channels.newChannel(output))).isEqualTo(19);
+        assertThat(output.toByteArray()).isEqualTo(s.getBytes(StandardCharsets.UTF_8));
+        assertThat(body).isEqualTo(Body.fromUtf8(s));
+        assertThat(body).hasSameHashCodeAs(Body.fromUtf8(s));
+    }
+
+    @Test
+    void fromFile_shouldReturnBodyOverFile(@TempDir Path dir) throws IOException {
+        final Path path = dir.resolve("body");
+        Files.write(path, new byte[] {1, 2, 3, 4, 5});
+
+        final Body body = Body.fromFile(path, ContentType.of("application/x-test"));
+
+        assertThat(body.contentLength()).isEqualTo(5);
+        assertThat(body.contentType()).isEqualTo(ContentType.of("application/x-test"));
+        assertThat(readAll(body.newInputStream())).containsExactly(1, 2, 3, 4, 5);
+        assertThat(readAll(body.newInputStream())).containsExactly(1, 2, 3, 4, 5);
+        assertThat(body.toBytes()).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void fromFile_shouldTransferFileToChannel(@TempDir Path dir) throws IOException {
+        final Path path = dir.resolve("body");
+        final byte[] content = "0123456789".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+        Files.write(path, content);
+        final Path target = dir.resolve("target");
+
+        final Body body = Body.fromFile(path);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            assertThat(body.transferTo(channel)).isEqualTo(content.length);
+        }
+
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+    }
+
+    @Test
+    void fromFile_shouldThrow_whenFileDoesNotExist(@TempDir Path dir) {
+        assertThatThrownBy(() -> Body.fromFile(dir.resolve("missing")))
+            .isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void fromMappedFile_shouldReturnBodyOverRegion(@TempDir Path dir) throws IOException {
+        final Path path = dir.resolve("body");
+        Files.write(path, new byte[] {1, 2, 3, 4, 5});
+
+        final Body body = Body.fromMappedFile(path, 1, 3, ANY_CONTENT_TYPE);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThat(body.contentLength()).isEqualTo(3);
+        assertThat(readAll(body.newInputStream())).containsExactly(2, 3, 4);
+        assertThat(body.toBytes()).containsExactly(2, 3, 4);
+        assertThat(body.transferTo(Channels.newChannel(output))).isEqualTo(3);
+        assertThat(output.toByteArray()).containsExactly(2, 3, 4);
+        assertThat(Body.fromMappedFile(path, ANY_CONTENT_TYPE).toBytes()).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void fromMappedFile_shouldThrow_whenRegionOutsideOfFile(@TempDir Path dir) throws IOException {
+        final Path path = dir.resolve("body");
+        Files.write(path, new byte[] {1, 2, 3, 4, 5});
+
+        assertThatThrownBy(() -> Body.fromMappedFile(path, 3, 3, ANY_CONTENT_TYPE))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Body.fromMappedFile(path, -1, 3, ANY_CONTENT_TYPE))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fromByteBuffersUnsafe_shouldConcatenateBuffers(@TempDir Path dir) throws IOException {
+        final ByteBuffer first = ByteBuffer.wrap(new byte[] {0, 1, 2});
+        first.position(1);
+        final ByteBuffer second = ByteBuffer.wrap(new byte[] {3, 4}).asReadOnlyBuffer();
+
+        final Body body = Body.fromByteBuffersUnsafe(List.of(first, ByteBuffer.allocate(0), second), ANY_CONTENT_TYPE);
+        first.position(3);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final Path path = dir.resolve("body");
+
+        assertThat(body.contentLength()).isEqualTo(4);
+        assertThat(readAll(body.newInputStream())).containsExactly(1, 2, 3, 4);
+        assertThat(body.toBytes()).containsExactly(1, 2, 3, 4);
+        assertThat(body.transferTo(Channels.newChannel(output))).isEqualTo(4);
+        assertThat(output.toByteArray()).containsExactly(1, 2, 3, 4);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            assertThat(body.transferTo(channel)).isEqualTo(4);
+        }
+        assertThat(Files.readAllBytes(path)).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void fromByteBuffersUnsafe_shouldCompareContentRegardlessOfBufferBoundaries() {
+        final Body body1 = Body.fromByteBuffersUnsafe(List.of(ByteBuffer.wrap(new byte[] {1, 2, 3})), ANY_CONTENT_TYPE);
+        final Body body2 = Body.fromByteBuffersUnsafe(
+            List.of(ByteBuffer.wrap(new byte[] {1}), ByteBuffer.wrap(new byte[] {2, 3})),
+            ANY_CONTENT_TYPE);
+
+        assertThat(body1).isEqualTo(body2);
+        assertThat(body1).hasSameHashCodeAs(body2);
+        assertThat(body1).isNotEqualTo(Body.fromByteBuffersUnsafe(List.of(), ANY_CONTENT_TYPE));
+    }
+
+    @Test
+    void fromByteBuffersUnsafe_shouldEqualBodyFromBytesWithSameContent() {
+        final Body buffers = Body.fromByteBuffersUnsafe(
+            List.of(ByteBuffer.wrap(new byte[] {1, 2}), ByteBuffer.allocate(0), ByteBuffer.wrap(new byte[] {3})),
+            ANY_CONTENT_TYPE);
+        final Body bytes = Body.fromBytes(new byte[] {1, 2, 3}, ANY_CONTENT_TYPE);
+
+        assertThat(buffers).isEqualTo(bytes);
+        assertThat(bytes).isEqualTo(buffers);
+        assertThat(bytes).hasSameHashCodeAs(buffers);
+        assertThat(bytes).isNotEqualTo(Body.fromByteBuffersUnsafe(List.of(ByteBuffer.wrap(new byte[] {1, 2, 4})),
+                                                                  ANY_CONTENT_TYPE));
+        assertThat(bytes).isNotEqualTo(Body.fromBytes(new byte[] {1, 2, 3}, ContentType.of("text/plain")));
+    }
+
+    @Test
+    void fromTemporaryFile_shouldReturnBodyOverFile(@TempDir Path dir) throws IOException {
+        final Path path = dir.resolve("body");
+        Files.write(path, new byte[] {1, 2, 3});
+
+        try (CloseableBody body = Body.fromTemporaryFile(path, ANY_CONTENT_TYPE)) {
+            assertThat(body.contentLength()).isEqualTo(3);
+            assertThat(body.contentType()).isEqualTo(ANY_CONTENT_TYPE);
+            assertThat(body.toBytes()).containsExactly(1, 2, 3);
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            assertThat(body.transferTo(Channels.newChannel(output))).isEqualTo(3);
+            assertThat(output.toByteArray()).containsExactly(1, 2, 3);
+        }
+    }
+
+    @Test
+    void fromTemporaryFile_shouldDeleteFileOnClose(@TempDir Path dir) throws IOException {
+        final Path path = dir.resolve("body");
+        Files.write(path, new byte[] {1, 2, 3});
+
+        final CloseableBody body = Body.fromTemporaryFile(path, ANY_CONTENT_TYPE);
+        assertThat(path).exists();
+        body.close();
+        assertThat(path).doesNotExist();
+        body.close();
+        assertThat(path).doesNotExist();
+    }
 }
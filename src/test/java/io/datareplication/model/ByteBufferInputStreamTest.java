@@ -0,0 +1,49 @@
+package io.datareplication.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteBufferInputStreamTest {
+    @Test
+    void shouldReadRemainingBytes() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {1, 2, (byte) 0xff, 4, 5});
+        buffer.position(1);
+
+        try (ByteBufferInputStream input = new ByteBufferInputStream(buffer)) {
+            assertThat(input.available()).isEqualTo(4);
+            assertThat(input.read()).isEqualTo(2);
+            assertThat(input.read()).isEqualTo(0xff);
+            assertThat(input.skip(1)).isEqualTo(1);
+            final byte[] bytes = new byte[4];
+            assertThat(input.read(bytes, 1, 3)).isEqualTo(1);
+            assertThat(bytes).containsExactly(0, 5, 0, 0);
+            assertThat(input.read()).isEqualTo(-1);
+            assertThat(input.read(bytes, 0, 4)).isEqualTo(-1);
+            assertThat(input.read(bytes, 0, 0)).isZero();
+            assertThat(input.skip(10)).isZero();
+        }
+    }
+
+    @Test
+    void shouldReadBuffersInSequence() throws IOException {
+        final List<ByteBuffer> buffers = List.of(ByteBuffer.wrap(new byte[] {1, 2}),
+                                                 ByteBuffer.allocate(0),
+                                                 ByteBuffer.wrap(new byte[] {3, 4, 5}));
+
+        try (ByteBufferInputStream input = new ByteBufferInputStream(buffers)) {
+            assertThat(input.read()).isEqualTo(1);
+            final byte[] bytes = new byte[3];
+            assertThat(input.read(bytes, 0, 3)).isEqualTo(3);
+            assertThat(bytes).containsExactly(2, 3, 4);
+            assertThat(input.available()).isEqualTo(1);
+            assertThat(input.skip(5)).isEqualTo(1);
+            assertThat(input.read()).isEqualTo(-1);
+            assertThat(input.available()).isZero();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.datareplication.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpDateFormatTest {
+    private static final DateTimeFormatter REFERENCE_FORMATTER = DateTimeFormatter
+        .ofPattern("EEE, dd MMM yyyy HH:mm:ss z", Locale.ENGLISH)
+        .withZone(ZoneId.of("GMT"));
+    private static final long MIN_SECOND = Instant.parse("0001-01-01T00:00:00Z").getEpochSecond();
+    private static final long MAX_SECOND = Instant.parse("9999-12-31T23:59:59Z").getEpochSecond();
+
+    @Test
+    void shouldFormatLikeTheReferenceFormatter() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            final Instant instant = Instant.ofEpochSecond(
+                MIN_SECOND + (long) (random.nextDouble() * (MAX_SECOND - MIN_SECOND)),
+                random.nextInt(1_000_000_000));
+
+            assertThat(HttpDateFormat.format(instant)).isEqualTo(REFERENCE_FORMATTER.format(instant));
+        }
+    }
+
+    @Test
+    void shouldFormatEdgesOfTheFourDigitYearRange() {
+        for (Instant instant : new Instant[]{
+            Instant.ofEpochSecond(MIN_SECOND),
+            Instant.ofEpochSecond(MAX_SECOND, 999_999_999),
+            Instant.ofEpochSecond(MIN_SECOND - 1),
+            Instant.ofEpochSecond(MAX_SECOND + 1),
+            Instant.parse("2024-02-29T23:59:59Z"),
+            Instant.EPOCH,
+        }) {
+            assertThat(HttpDateFormat.format(instant)).isEqualTo(REFERENCE_FORMATTER.format(instant));
+        }
+    }
+
+    @Test
+    void shouldReturnTheSameResultForRepeatedValues() {
+        final Instant instant = Instant.parse("2023-10-05T03:00:14Z");
+
+        assertThat(HttpDateFormat.format(instant)).isEqualTo("Thu, 05 Oct 2023 03:00:14 GMT");
+        assertThat(HttpDateFormat.format(instant.plusMillis(500))).isEqualTo("Thu, 05 Oct 2023 03:00:14 GMT");
+        assertThat(HttpDateFormat.format(instant.plusSeconds(1))).isEqualTo("Thu, 05 Oct 2023 03:00:15 GMT");
+    }
+}
@@ -34,6 +34,17 @@ class HttpHeaderTest {
         assertThat(header.name()).isEqualTo("upper-and-lower-case");
     }
 
+    @Test
+    void shouldLowerCaseWellKnownNames() {
+        assertThat(HttpHeader.of(HttpHeader.CONTENT_TYPE, "text/plain").name()).isEqualTo("content-type");
+        assertThat(HttpHeader.of(HttpHeader.CONTENT_ID, "id").name()).isEqualTo("content-id");
+        assertThat(HttpHeader.of(HttpHeader.CONTENT_LENGTH, "1").name()).isEqualTo("content-length");
+        assertThat(HttpHeader.of(HttpHeader.LAST_MODIFIED, "x").name()).isEqualTo("last-modified");
+        assertThat(HttpHeader.of(HttpHeader.OPERATION_TYPE, "x").name()).isEqualTo("operation-type");
+        assertThat(HttpHeader.of(HttpHeader.LINK, "x").name()).isEqualTo("link");
+        assertThat(HttpHeader.of(new String("Content-Type"), "x").name()).isEqualTo("content-type");
+    }
+
     @Test
     void shouldExcludeDisplayNameFromHashCodeAndEquals() {
         final HttpHeader header1 = HttpHeader.of("header", "value");
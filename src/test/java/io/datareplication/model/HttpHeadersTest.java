@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -174,4 +176,43 @@ class HttpHeadersTest {
 
         assertThat(optionalHttpHeader).isNotPresent();
     }
+
+    @Test
+    void update_shouldNotModifyOriginal() {
+        final HttpHeaders headers = HttpHeaders.of(HEADER_1, HEADER_2);
+
+        final HttpHeaders updated = headers.update(HttpHeader.of("X-1", "value2"), HEADER_3);
+
+        assertThat(headers).containsExactlyInAnyOrder(HEADER_1, HEADER_2);
+        assertThat(updated).containsExactlyInAnyOrder(HttpHeader.of("X-1", List.of("value1", "value2")),
+                                                      HEADER_2,
+                                                      HEADER_3);
+    }
+
+    @Test
+    void shouldMergeAndGetManyHeaders() {
+        final List<HttpHeader> many = IntStream
+            .range(0, 40)
+            .mapToObj(i -> HttpHeader.of("X-Header-" + (i % 20), "value" + i))
+            .collect(Collectors.toList());
+
+        final HttpHeaders headers = HttpHeaders.of(many).update(HttpHeader.of("x-header-3", "more"));
+
+        assertThat(headers).hasSize(20);
+        assertThat(headers.get("X-HEADER-3")).hasValue(
+            HttpHeader.of("X-Header-3", List.of("value3", "value23", "more")));
+        assertThat(headers.get("x-header-19")).hasValue(HttpHeader.of("X-Header-19", List.of("value19", "value39")));
+        assertThat(headers.get("x-header-20")).isNotPresent();
+    }
+
+    @Test
+    void shouldBeEqualRegardlessOfOrder() {
+        final HttpHeaders headers = HttpHeaders.of(HEADER_1, HEADER_2, HEADER_3);
+        final HttpHeaders reordered = HttpHeaders.of(HEADER_3, HttpHeader.of("x-1", "value1"), HEADER_2);
+
+        assertThat(headers).isEqualTo(reordered);
+        assertThat(headers).hasSameHashCodeAs(reordered);
+        assertThat(headers).isNotEqualTo(HttpHeaders.of(HEADER_1, HEADER_2));
+        assertThat(headers).isNotEqualTo(HttpHeaders.of(HEADER_1, HEADER_2, HttpHeader.of("X-3", "other")));
+    }
 }
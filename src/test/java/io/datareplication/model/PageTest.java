@@ -4,7 +4,9 @@ import lombok.NonNull;
 import lombok.Value;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -66,10 +68,10 @@ class PageTest {
             .isEqualTo(ContentType.of("multipart/mixed; boundary=\"_---_boundary-string\""));
         assertThat(result.toUtf8()).isEqualTo(
             "--_---_boundary-string\r\n"
-                + "Content-Length: 16\r\n"
-                + "Content-Type: text/x-vnd-test\r\n"
-                + "header2: 15\r\n"
                 + "header1: value1\r\n"
+                + "header2: 15\r\n"
+                + "Content-Type: text/x-vnd-test\r\n"
+                + "Content-Length: 16\r\n"
                 + "\r\n"
                 + "test entity body\r\n"
                 + "--_---_boundary-string--"
@@ -100,29 +102,29 @@ class PageTest {
             .isEqualTo(ContentType.of("multipart/mixed; boundary=\"cool cool boundary ;)\""));
         assertThat(result.toUtf8()).isEqualTo(
             "--cool cool boundary ;)\r\n"
-                + "Content-Length: 16\r\n"
-                + "Content-Type: text/x-vnd-test-1\r\n"
-                + "header2: 66\r\n"
                 + "header1: entity 1\r\n"
+                + "header2: 66\r\n"
+                + "Content-Type: text/x-vnd-test-1\r\n"
+                + "Content-Length: 16\r\n"
                 + "\r\n"
                 + "test \n"
                 + "entity \n"
                 + "1\n"
                 + "\r\n"
                 + "--cool cool boundary ;)\r\n"
-                + "Content-Length: 15\r\n"
-                + "Content-Type: text/x-vnd-test-2\r\n"
-                + "header2: 67\r\n"
                 + "header1: entity 2\r\n"
+                + "header2: 67\r\n"
+                + "Content-Type: text/x-vnd-test-2\r\n"
+                + "Content-Length: 15\r\n"
                 + "\r\n"
                 + "test \n"
                 + "entity \n"
                 + "2\r\n"
                 + "--cool cool boundary ;)\r\n"
-                + "Content-Length: 15\r\n"
-                + "Content-Type: text/x-vnd-test-3\r\n"
-                + "header2: 68\r\n"
                 + "header1: entity 3\r\n"
+                + "header2: 68\r\n"
+                + "Content-Type: text/x-vnd-test-3\r\n"
+                + "Content-Length: 15\r\n"
                 + "\r\n"
                 + "test \n"
                 + "entity \n"
@@ -132,6 +134,24 @@ class PageTest {
         assertThat(result.contentLength()).isEqualTo(413);
     }
 
+    @Test
+    void toMultipartBody_shouldTransferSameBytesAsInputStreamToChannel() throws IOException {
+        final var page = new Page<>(
+            HttpHeaders.EMPTY,
+            "_---_boundary-string",
+            List.of(
+                new Entity<>(new TestHeaders("ä", 1), Body.fromUtf8("entity ä", ContentType.of("text/plain"))),
+                new Entity<>(new TestHeaders("b", 2), Body.fromBytes(new byte[] {0, 1, 2}))
+            ));
+        final var body = page.toMultipartBody();
+        final var output = new ByteArrayOutputStream();
+
+        final long written = body.transferTo(Channels.newChannel(output));
+
+        assertThat(output.toByteArray()).isEqualTo(body.toBytes());
+        assertThat(written).isEqualTo(body.contentLength());
+    }
+
     // going by the grammar in the RFC, a multipart document has to have at least one part, but we can support empty
     // ones easy enough
     @Test
@@ -166,8 +186,8 @@ class PageTest {
             .isEqualTo(ContentType.of("multipart/mixed; boundary=\"bnd\""));
         assertThat(result.toUtf8()).isEqualTo(
             "--bnd\r\n"
-                + "Content-Length: 4\r\n"
                 + "Content-Type: application/xml\r\n"
+                + "Content-Length: 4\r\n"
                 + "\r\n"
                 + "body\r\n"
                 + "--bnd--"
@@ -192,8 +212,8 @@ class PageTest {
             .isEqualTo(ContentType.of("multipart/mixed; boundary=\" boundary string \""));
         assertThat(result.toUtf8()).isEqualTo(
             "-- boundary string \r\n"
-                + "Content-Length: 0\r\n"
                 + "Content-Type: application/x-vnd-nothing\r\n"
+                + "Content-Length: 0\r\n"
                 + "\r\n"
                 + "\r\n"
                 + "-- boundary string --"